@@ -0,0 +1,76 @@
+package com.UAIC.ISMA.bench;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.entity.Equipment;
+import com.UAIC.ISMA.entity.Laboratory;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.mapper.EquipmentMapper;
+import com.UAIC.ISMA.mapper.LaboratoryMapper;
+import com.UAIC.ISMA.repository.LaboratoryRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Deterministic fixtures shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final AvailabilityStatus[] STATUSES = AvailabilityStatus.values();
+
+    private BenchmarkData() {
+    }
+
+    static Laboratory laboratory(long id, int equipmentCount) {
+        Laboratory lab = new Laboratory(id, "Laboratory " + id, "Benchmark laboratory", "Building " + (id % 10));
+        List<Equipment> equipments = new ArrayList<>(equipmentCount);
+        for (int i = 0; i < equipmentCount; i++) {
+            equipments.add(equipment(id * 100_000 + i, lab));
+        }
+        lab.setEquipments(equipments);
+        lab.setLabDocuments(List.of());
+        return lab;
+    }
+
+    static Equipment equipment(long id, Laboratory lab) {
+        Equipment equipment = new Equipment("Oscilloscope " + id, "INV-" + id, LocalDateTime.of(2020, 1, 1, 9, 0).plusDays(id % 1500),
+                STATUSES[(int) (id % STATUSES.length)], "Safety training required", lab);
+        equipment.setId(id);
+        equipment.setPhoto("/photos/" + id + ".jpg");
+        equipment.setUsage("Signal measurements for the electronics labs");
+        equipment.setMaterial("Metal, plastic");
+        equipment.setDescription("Four channel digital storage oscilloscope, 200 MHz bandwidth");
+        equipment.setIsComplex(id % 3 == 0);
+        return equipment;
+    }
+
+    static EquipmentDTO equipmentDTO(long id, long labId) {
+        EquipmentDTO dto = EquipmentMapper.convertToDTO(equipment(id, laboratory(labId, 0)));
+        dto.setLaboratoryId(labId);
+        return dto;
+    }
+
+    static LaboratoryDTO laboratoryDTO(long id, int equipmentCount) {
+        return LaboratoryMapper.convertToDTO(laboratory(id, equipmentCount));
+    }
+
+    /**
+     * Answers {@code findById} with the given laboratory and nothing else. A plain JDK proxy rather than a
+     * mocking library, so stubbing overhead does not show up in the mapper numbers.
+     */
+    static LaboratoryRepository laboratoryRepository(Laboratory lab) {
+        return (LaboratoryRepository) Proxy.newProxyInstance(
+                LaboratoryRepository.class.getClassLoader(),
+                new Class<?>[]{LaboratoryRepository.class},
+                (proxy, method, args) -> {
+                    if ("findById".equals(method.getName())) {
+                        return Optional.of(lab);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
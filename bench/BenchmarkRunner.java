@@ -0,0 +1,32 @@
+package com.UAIC.ISMA.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so every result reports allocation rate
+ * ({@code gc.alloc.rate.norm}, bytes per operation) next to throughput. Results are also written to
+ * {@code bench-results.json} for comparing runs before and after a change.
+ * <p>
+ * The benchmarks are compiled against {@code main} plus the JMH core and annotation processor. An optional
+ * regular expression argument restricts the run, e.g. {@code MapperBenchmark.laboratoryToDTO}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "com.UAIC.ISMA.bench.*")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("bench-results.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.UAIC.ISMA.bench;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization as the controllers do it: an {@link ObjectMapper} configured like Spring Boot's (Java time
+ * module, ISO dates) writing to a byte array.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private EquipmentDTO equipment;
+    private LaboratoryDTO laboratory;
+    private Page<EquipmentDTO> page;
+
+    @Setup
+    public void setUp() {
+        writer = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writer();
+        equipment = BenchmarkData.equipmentDTO(1L, 1L);
+        laboratory = BenchmarkData.laboratoryDTO(1L, pageSize);
+
+        List<EquipmentDTO> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(BenchmarkData.equipmentDTO(i, 1L));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), pageSize * 50L);
+    }
+
+    @Benchmark
+    public byte[] equipmentDTO() throws JsonProcessingException {
+        return writer.writeValueAsBytes(equipment);
+    }
+
+    @Benchmark
+    public byte[] laboratoryDTO() throws JsonProcessingException {
+        return writer.writeValueAsBytes(laboratory);
+    }
+
+    @Benchmark
+    public byte[] equipmentPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
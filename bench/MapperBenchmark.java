@@ -0,0 +1,57 @@
+package com.UAIC.ISMA.bench;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.entity.Equipment;
+import com.UAIC.ISMA.entity.Laboratory;
+import com.UAIC.ISMA.mapper.EquipmentMapper;
+import com.UAIC.ISMA.mapper.LaboratoryMapper;
+import com.UAIC.ISMA.repository.LaboratoryRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int equipmentPerLab;
+
+    private Equipment equipment;
+    private EquipmentDTO equipmentDTO;
+    private Laboratory laboratory;
+    private LaboratoryRepository laboratoryRepository;
+
+    @Setup
+    public void setUp() {
+        laboratory = BenchmarkData.laboratory(1L, equipmentPerLab);
+        equipment = laboratory.getEquipments().isEmpty()
+                ? BenchmarkData.equipment(1L, laboratory)
+                : laboratory.getEquipments().get(0);
+        equipmentDTO = EquipmentMapper.convertToDTO(equipment);
+        laboratoryRepository = BenchmarkData.laboratoryRepository(laboratory);
+    }
+
+    @Benchmark
+    public EquipmentDTO equipmentToDTO() {
+        return EquipmentMapper.convertToDTO(equipment);
+    }
+
+    @Benchmark
+    public Equipment equipmentToEntity() {
+        return EquipmentMapper.convertToEntity(equipmentDTO, laboratoryRepository);
+    }
+
+    /**
+     * Scales with the size of the equipment collection, which the mapper walks to collect the ids.
+     */
+    @Benchmark
+    public LaboratoryDTO laboratoryToDTO() {
+        return LaboratoryMapper.convertToDTO(laboratory);
+    }
+}
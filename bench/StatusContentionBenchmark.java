@@ -0,0 +1,174 @@
+package com.UAIC.ISMA.bench;
+
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sixteen threads toggling the status of a few hot rows, comparing the three ways of serialising the change:
+ * the single-statement compare-and-set behind {@code POST /equipment/{id}/status}, an optimistic
+ * read-then-update on {@code version} with retry (what {@code @Version} does), and {@code SELECT ... FOR UPDATE}.
+ * <p>
+ * Runs on an in-memory H2 database over plain JDBC, so it measures the locking strategy rather than Hibernate.
+ * {@code conflicts} counts rejected compare-and-sets and optimistic retries per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class StatusContentionBenchmark {
+
+    private static final String COMPARE_AND_SET =
+            "UPDATE equipment SET availability_status = ?, version = version + 1 WHERE id = ? AND availability_status = ?";
+    private static final String READ = "SELECT availability_status, version FROM equipment WHERE id = ?";
+    private static final String UPDATE_IF_VERSION =
+            "UPDATE equipment SET availability_status = ?, version = version + 1 WHERE id = ? AND version = ?";
+    private static final String READ_FOR_UPDATE = READ + " FOR UPDATE";
+    private static final String UPDATE = "UPDATE equipment SET availability_status = ?, version = version + 1 WHERE id = ?";
+
+    @Param({"1", "4", "64"})
+    private int hotRows;
+
+    private JdbcDataSource dataSource;
+    private Connection keepAlive;
+
+    @Setup
+    public void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:contention-" + hotRows + ";LOCK_TIMEOUT=10000");
+        keepAlive = dataSource.getConnection();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("CREATE TABLE equipment (id BIGINT PRIMARY KEY, "
+                    + "availability_status VARCHAR(32) NOT NULL, version BIGINT NOT NULL)");
+            for (int id = 1; id <= hotRows; id++) {
+                statement.execute("INSERT INTO equipment VALUES (" + id + ", 'AVAILABLE', 0)");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        keepAlive.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Worker {
+
+        public long conflicts;
+
+        private Connection connection;
+
+        @Setup
+        public void setUp(StatusContentionBenchmark benchmark) throws SQLException {
+            connection = benchmark.dataSource.getConnection();
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            conflicts = 0;
+        }
+
+        @TearDown
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    /**
+     * Guesses the current status and flips it in one statement. A wrong guess is a conflict the caller would
+     * see as a 409, not a retry.
+     */
+    @Benchmark
+    public int compareAndSet(Worker worker) throws SQLException {
+        long id = pickRow();
+        AvailabilityStatus expected = ThreadLocalRandom.current().nextBoolean()
+                ? AvailabilityStatus.AVAILABLE : AvailabilityStatus.IN_USE;
+        try (PreparedStatement update = worker.connection.prepareStatement(COMPARE_AND_SET)) {
+            update.setString(1, flip(expected).name());
+            update.setLong(2, id);
+            update.setString(3, expected.name());
+            int changed = update.executeUpdate();
+            if (changed == 0) {
+                worker.conflicts++;
+            }
+            return changed;
+        }
+    }
+
+    @Benchmark
+    public int optimisticVersion(Worker worker) throws SQLException {
+        long id = pickRow();
+        while (true) {
+            AvailabilityStatus current;
+            long version;
+            try (PreparedStatement read = worker.connection.prepareStatement(READ)) {
+                read.setLong(1, id);
+                try (ResultSet row = read.executeQuery()) {
+                    row.next();
+                    current = AvailabilityStatus.valueOf(row.getString(1));
+                    version = row.getLong(2);
+                }
+            }
+            try (PreparedStatement update = worker.connection.prepareStatement(UPDATE_IF_VERSION)) {
+                update.setString(1, flip(current).name());
+                update.setLong(2, id);
+                update.setLong(3, version);
+                int changed = update.executeUpdate();
+                if (changed == 1) {
+                    return changed;
+                }
+                worker.conflicts++;
+            }
+        }
+    }
+
+    @Benchmark
+    public int pessimisticLock(Worker worker) throws SQLException {
+        long id = pickRow();
+        Connection connection = worker.connection;
+        connection.setAutoCommit(false);
+        try {
+            AvailabilityStatus current;
+            try (PreparedStatement read = connection.prepareStatement(READ_FOR_UPDATE)) {
+                read.setLong(1, id);
+                try (ResultSet row = read.executeQuery()) {
+                    row.next();
+                    current = AvailabilityStatus.valueOf(row.getString(1));
+                }
+            }
+            int changed;
+            try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+                update.setString(1, flip(current).name());
+                update.setLong(2, id);
+                changed = update.executeUpdate();
+            }
+            connection.commit();
+            return changed;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private long pickRow() {
+        return ThreadLocalRandom.current().nextInt(hotRows) + 1;
+    }
+
+    private static AvailabilityStatus flip(AvailabilityStatus status) {
+        return status == AvailabilityStatus.AVAILABLE ? AvailabilityStatus.IN_USE : AvailabilityStatus.AVAILABLE;
+    }
+}
@@ -0,0 +1,17 @@
+package com.UAIC.ISMA.dto;
+
+import com.UAIC.ISMA.entity.enums.RequestStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessWindowDTO {
+    private Long accessRequestId;
+    private Long equipmentId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private RequestStatus status;
+}
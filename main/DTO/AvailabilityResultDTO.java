@@ -0,0 +1,19 @@
+package com.UAIC.ISMA.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResultDTO {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    /**
+     * True when some laboratories could not be searched within the latency budget.
+     */
+    private boolean partial;
+    private List<AvailableSlotDTO> slots;
+}
@@ -0,0 +1,20 @@
+package com.UAIC.ISMA.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableSlotDTO {
+    private Long equipmentId;
+    private String equipmentName;
+    private Long laboratoryId;
+    private String labName;
+    private String location;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private long durationMinutes;
+    private int pendingRequests;
+}
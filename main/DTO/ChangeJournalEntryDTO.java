@@ -0,0 +1,17 @@
+package com.UAIC.ISMA.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeJournalEntryDTO {
+    private Long version;
+    private String changeType;
+    private LocalDateTime occurredAt;
+    private boolean snapshot;
+    private Map<String, Object> changes;
+}
@@ -0,0 +1,17 @@
+package com.UAIC.ISMA.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConflictCheckDTO {
+    private Long equipmentId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private boolean available;
+    private List<AccessWindowDTO> conflicts;
+}
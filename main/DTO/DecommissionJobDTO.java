@@ -0,0 +1,40 @@
+package com.UAIC.ISMA.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DecommissionJobDTO {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public enum Phase {
+        ACCESS_REQUESTS,
+        EQUIPMENT,
+        LAB_DOCUMENTS,
+        LABORATORY,
+        DONE
+    }
+
+    private String jobId;
+    private Long laboratoryId;
+    private Status status;
+    private Phase phase;
+    private long totalAccessRequests;
+    private long deletedAccessRequests;
+    private long totalEquipment;
+    private long deletedEquipment;
+    private long totalLabDocuments;
+    private long deletedLabDocuments;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.UAIC.ISMA.dto;
+
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquipmentChangeDTO {
+    private String type;
+    private Long equipmentId;
+    private Long laboratoryId;
+    private AvailabilityStatus previousStatus;
+    private EquipmentDTO equipment;
+    private Instant occurredAt;
+}
@@ -47,6 +47,12 @@ public class EquipmentDTO {
     
     private Boolean isComplex;
 
+    /**
+     * Version read with the equipment; sending it back on update rejects the write with 409 if someone else
+     * changed the equipment in between. Not filled by list and search projections.
+     */
+    private Long version;
+
     public EquipmentDTO(Long id, String name, String photo, String inventoryNumber, LocalDateTime acquisitionDate
     , AvailabilityStatus availabilityStatus, Long laboratoryId, String accessRequirements) {
         this.id = id;
@@ -0,0 +1,17 @@
+package com.UAIC.ISMA.dto;
+
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import lombok.*;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquipmentFacetsDTO {
+    private long total;
+    private Map<AvailabilityStatus, Long> byAvailabilityStatus;
+    private Map<Long, Long> byLaboratory;
+    private Map<Boolean, Long> byComplexity;
+    private Map<Integer, Long> byAcquisitionYear;
+}
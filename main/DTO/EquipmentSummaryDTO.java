@@ -0,0 +1,15 @@
+package com.UAIC.ISMA.dto;
+
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquipmentSummaryDTO {
+    private Long id;
+    private Long laboratoryId;
+    private String name;
+    private String inventoryNumber;
+    private AvailabilityStatus availabilityStatus;
+}
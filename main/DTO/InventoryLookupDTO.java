@@ -0,0 +1,13 @@
+package com.UAIC.ISMA.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryLookupDTO {
+    private List<EquipmentDTO> found;
+    private List<String> notFound;
+}
@@ -0,0 +1,12 @@
+package com.UAIC.ISMA.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LabDocumentSummaryDTO {
+    private Long id;
+    private Long laboratoryId;
+    private String fileName;
+}
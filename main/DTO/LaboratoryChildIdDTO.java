@@ -0,0 +1,11 @@
+package com.UAIC.ISMA.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LaboratoryChildIdDTO {
+    private Long laboratoryId;
+    private Long childId;
+}
@@ -26,6 +26,12 @@ public class LaboratoryDTO {
     private List<Long> equipmentIds;
     private List<Long> labDocumentIds;
 
+    /**
+     * Version read with the laboratory; sending it back on update rejects the write with 409 if someone else
+     * changed the laboratory in between. Not filled by list projections.
+     */
+    private Long version;
+
     public LaboratoryDTO(Long id, String labName, String description, String location) {
         this.id = id;
         this.labName = labName;
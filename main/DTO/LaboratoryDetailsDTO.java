@@ -0,0 +1,33 @@
+package com.UAIC.ISMA.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Laboratory with the related resources requested through the {@code include} parameter embedded.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class LaboratoryDetailsDTO extends LaboratoryDTO {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<EquipmentSummaryDTO> equipment;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<LabDocumentSummaryDTO> documents;
+
+    public static LaboratoryDetailsDTO from(LaboratoryDTO laboratory) {
+        LaboratoryDetailsDTO details = new LaboratoryDetailsDTO();
+        details.setId(laboratory.getId());
+        details.setLabName(laboratory.getLabName());
+        details.setDescription(laboratory.getDescription());
+        details.setLocation(laboratory.getLocation());
+        details.setEquipmentIds(laboratory.getEquipmentIds());
+        details.setLabDocumentIds(laboratory.getLabDocumentIds());
+        details.setVersion(laboratory.getVersion());
+        return details;
+    }
+}
@@ -0,0 +1,34 @@
+package com.UAIC.ISMA.dto;
+
+import com.UAIC.ISMA.exception.InvalidInputException;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Related resources that can be embedded in laboratory responses, e.g. {@code ?include=equipment,documents}.
+ */
+public enum LaboratoryInclude {
+    EQUIPMENT,
+    DOCUMENTS;
+
+    public static Set<LaboratoryInclude> parse(String include) {
+        Set<LaboratoryInclude> includes = EnumSet.noneOf(LaboratoryInclude.class);
+        if (include == null || include.isBlank()) {
+            return includes;
+        }
+        for (String part : include.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                includes.add(LaboratoryInclude.valueOf(name.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidInputException("Invalid include: " + name + ". Supported values: equipment, documents");
+            }
+        }
+        return includes;
+    }
+}
@@ -0,0 +1,22 @@
+package com.UAIC.ISMA.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQueryDTO {
+    private long id;
+    private LocalDateTime capturedAt;
+    private String endpoint;
+    private String origin;
+    private String sql;
+    private List<String> parameters;
+    private long rows;
+    private double elapsedMillis;
+    private boolean failed;
+    private String plan;
+}
@@ -0,0 +1,24 @@
+package com.UAIC.ISMA.dto;
+
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusReportDTO {
+    @NotNull(message = "Equipment ID is required")
+    private Long equipmentId;
+
+    @NotNull(message = "Availability status must be specified")
+    private AvailabilityStatus status;
+
+    /**
+     * When the sensor took the reading; reports older than one already buffered for the same equipment are
+     * ignored. Defaults to the time the report is received.
+     */
+    private Instant reportedAt;
+}
@@ -0,0 +1,16 @@
+package com.UAIC.ISMA.dto;
+
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusTransitionDTO {
+    @NotNull(message = "Expected status must be specified")
+    private AvailabilityStatus expectedStatus;
+
+    @NotNull(message = "New status must be specified")
+    private AvailabilityStatus newStatus;
+}
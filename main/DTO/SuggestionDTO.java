@@ -0,0 +1,12 @@
+package com.UAIC.ISMA.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+    private String text;
+    private String type;
+    private long weight;
+}
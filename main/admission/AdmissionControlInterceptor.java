@@ -0,0 +1,137 @@
+package com.UAIC.ISMA.admission;
+
+import com.UAIC.ISMA.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits each controller request through the {@link AimdLimiter} of its {@link TrafficClass} and rejects it
+ * with 429 and {@code Retry-After} when that bulkhead is full, before any database work is done.
+ * <p>
+ * Every bulkhead is configured with {@code admission.<class>.initial-limit}, {@code min-limit},
+ * {@code max-limit} and {@code latency-threshold-ms}; {@code admission.backoff-ratio} and
+ * {@code admission.retry-after-seconds} are shared. Limits, in-flight counts and rejections are published as
+ * {@code isma.admission.*} gauges and counters tagged with the bulkhead.
+ */
+@Component
+@ConditionalOnProperty(name = "admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LogManager.getLogger(AdmissionControlInterceptor.class);
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final Map<TrafficClass, AimdLimiter> limiters = new EnumMap<>(TrafficClass.class);
+    private final long retryAfterSeconds;
+
+    public AdmissionControlInterceptor(Environment environment, MeterRegistry meterRegistry) {
+        double backoffRatio = environment.getProperty("admission.backoff-ratio", Double.class, 0.9);
+        this.retryAfterSeconds = environment.getProperty("admission.retry-after-seconds", Long.class, 1L);
+        limiters.put(TrafficClass.SEARCH, limiter(environment, TrafficClass.SEARCH, 10, 2, 40, 300, backoffRatio));
+        limiters.put(TrafficClass.BULK, limiter(environment, TrafficClass.BULK, 4, 1, 16, 1000, backoffRatio));
+        limiters.put(TrafficClass.CRUD, limiter(environment, TrafficClass.CRUD, 50, 10, 200, 100, backoffRatio));
+        limiters.forEach((trafficClass, limiter) -> register(meterRegistry, trafficClass, limiter));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Bulkhead bulkhead = method.getMethodAnnotation(Bulkhead.class);
+        TrafficClass trafficClass = bulkhead != null ? bulkhead.value() : TrafficClass.CRUD;
+        AimdLimiter limiter = limiters.get(trafficClass);
+        int inFlight = limiter.tryAcquire();
+        if (inFlight == 0) {
+            logger.debug("Rejected {} request to {}: limit {} reached", trafficClass, request.getRequestURI(),
+                    limiter.getLimit());
+            throw new AdmissionRejectedException(trafficClass.name().toLowerCase(Locale.ROOT), retryAfterSeconds);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limiter, inFlight, System.nanoTime()));
+        return true;
+    }
+
+    /**
+     * Streaming responses hold their connection long after the handler returns; they give their slot back
+     * here and do not feed the latency sample.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Permit permit = takePermit(request);
+        if (permit != null) {
+            permit.limiter.release();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Permit permit = takePermit(request);
+        if (permit != null) {
+            boolean failed = ex != null || response.getStatus() >= 500;
+            permit.limiter.release(permit.inFlight, System.nanoTime() - permit.startNanos, failed);
+        }
+    }
+
+    AimdLimiter getLimiter(TrafficClass trafficClass) {
+        return limiters.get(trafficClass);
+    }
+
+    private static Permit takePermit(HttpServletRequest request) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        return permit;
+    }
+
+    private static AimdLimiter limiter(Environment environment, TrafficClass trafficClass, int initialLimit,
+                                       int minLimit, int maxLimit, long latencyThresholdMs, double backoffRatio) {
+        String prefix = "admission." + trafficClass.name().toLowerCase(Locale.ROOT) + ".";
+        return new AimdLimiter(
+                environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+                environment.getProperty(prefix + "min-limit", Integer.class, minLimit),
+                environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+                TimeUnit.MILLISECONDS.toNanos(
+                        environment.getProperty(prefix + "latency-threshold-ms", Long.class, latencyThresholdMs)),
+                backoffRatio);
+    }
+
+    private static void register(MeterRegistry registry, TrafficClass trafficClass, AimdLimiter limiter) {
+        String bulkhead = trafficClass.name().toLowerCase(Locale.ROOT);
+        Gauge.builder("isma.admission.limit", limiter, AimdLimiter::getLimit)
+                .tag("bulkhead", bulkhead)
+                .register(registry);
+        Gauge.builder("isma.admission.in_flight", limiter, AimdLimiter::getInFlight)
+                .tag("bulkhead", bulkhead)
+                .register(registry);
+        FunctionCounter.builder("isma.admission.rejected", limiter, AimdLimiter::getRejectedCount)
+                .tag("bulkhead", bulkhead)
+                .register(registry);
+    }
+
+    private static final class Permit {
+        private final AimdLimiter limiter;
+        private final int inFlight;
+        private final long startNanos;
+
+        private Permit(AimdLimiter limiter, int inFlight, long startNanos) {
+            this.limiter = limiter;
+            this.inFlight = inFlight;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.UAIC.ISMA.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit adjusted by additive increase, multiplicative decrease on observed latency.
+ * <p>
+ * A request finishing within {@code latencyThresholdNanos} while the limiter was at least half used raises the
+ * limit by one; a slower or failed request cuts it by {@code backoffRatio}. The limit stays within
+ * {@code [minLimit, maxLimit]}. Requests over the limit are rejected immediately instead of queueing, since a
+ * queue in front of a saturated pool only adds latency.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile int limit;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max, got " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot and returns the number of requests in flight including this one, or 0 if the limiter is
+     * full. The returned value is passed back to {@link #release}.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot and feeds the request's latency into the limit.
+     *
+     * @param inFlightAtStart the value returned by {@link #tryAcquire()}
+     * @param failed          true if the request failed in a way that suggests overload
+     */
+    public void release(int inFlightAtStart, long latencyNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+            } else if (inFlightAtStart * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    /**
+     * Frees the slot without a latency sample, e.g. when the request went asynchronous.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
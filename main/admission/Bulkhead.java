@@ -0,0 +1,19 @@
+package com.UAIC.ISMA.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Admits requests to the annotated endpoint through the limiter of the given {@link TrafficClass}. Endpoints
+ * without it are {@link TrafficClass#CRUD}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    TrafficClass value();
+}
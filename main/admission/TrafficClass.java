@@ -0,0 +1,14 @@
+package com.UAIC.ISMA.admission;
+
+/**
+ * Bulkheads requests are admitted through. Each has its own {@link AimdLimiter}, so a burst of one kind only
+ * throttles that kind.
+ */
+public enum TrafficClass {
+    /** Filtered searches, facet counts and slot finding; the most expensive reads. */
+    SEARCH,
+    /** Full listings and calls taking lists of ids or inventory numbers. */
+    BULK,
+    /** Single-entity reads and writes; the default for endpoints without {@link Bulkhead}. */
+    CRUD
+}
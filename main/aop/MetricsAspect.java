@@ -0,0 +1,64 @@
+package com.UAIC.ISMA.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the equipment and laboratory services ({@value #SERVICE_TIMER}) and every
+ * repository call ({@value #REPOSITORY_TIMER}), with percentile histograms.
+ * <p>
+ * Both timers are tagged with the endpoint being served and the outcome; service timers also carry the
+ * filter shape. Because repository timers are tagged by endpoint, their count divided by the request count
+ * of the same endpoint gives the number of queries (for instance laboratory lookups) per request.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    static final String SERVICE_TIMER = "isma.service.calls";
+    static final String REPOSITORY_TIMER = "isma.repository.calls";
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("com.UAIC.ISMA.aop.Pointcuts.serviceMethods()")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, SERVICE_TIMER, RequestTags.filterShape(joinPoint));
+    }
+
+    @Around("com.UAIC.ISMA.aop.Pointcuts.repositoryMethods()")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, REPOSITORY_TIMER, null);
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String name, String filterShape) throws Throwable {
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            Timer.Builder timer = Timer.builder(name)
+                    .tag("class", RequestTags.declaringType(joinPoint))
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("endpoint", RequestTags.endpoint())
+                    .tag("outcome", RequestTags.outcome(error))
+                    .publishPercentileHistogram();
+            if (filterShape != null) {
+                timer.tag("filter", filterShape);
+            }
+            timer.register(meterRegistry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
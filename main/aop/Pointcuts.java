@@ -0,0 +1,26 @@
+package com.UAIC.ISMA.aop;
+
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * Named pointcuts shared by the instrumentation aspects, so every aspect agrees on what counts as a service
+ * call and what counts as a repository query.
+ */
+@Aspect
+public class Pointcuts {
+
+    @Pointcut("execution(public * com.UAIC.ISMA.controller.EquipmentController.*(..))"
+            + " || execution(public * com.UAIC.ISMA.controller.LaboratoryController.*(..))")
+    public void controllerMethods() {
+    }
+
+    @Pointcut("execution(public * com.UAIC.ISMA.service.EquipmentService.*(..))"
+            + " || execution(public * com.UAIC.ISMA.service.LaboratoryService.*(..))")
+    public void serviceMethods() {
+    }
+
+    @Pointcut("execution(* com.UAIC.ISMA.repository..*.*(..))")
+    public void repositoryMethods() {
+    }
+}
@@ -0,0 +1,41 @@
+package com.UAIC.ISMA.aop;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which repository method is running on the current thread, so statements seen at the JDBC level
+ * can be traced back to the query that issued them (e.g. {@code EquipmentRepository.searchByNameStatusAndLabId}).
+ */
+@Aspect
+@Component
+public class QueryOriginAspect {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    @Around("com.UAIC.ISMA.aop.Pointcuts.repositoryMethods()")
+    public Object trackOrigin(ProceedingJoinPoint joinPoint) throws Throwable {
+        String previous = CURRENT.get();
+        CURRENT.set(RequestTags.declaringType(joinPoint) + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Repository method running on this thread, or {@value RequestTags#NONE} for statements issued elsewhere
+     * (lazy loading, flushes, JdbcTemplate).
+     */
+    public static String current() {
+        String origin = CURRENT.get();
+        return origin != null ? origin : RequestTags.NONE;
+    }
+}
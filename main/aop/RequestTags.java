@@ -0,0 +1,131 @@
+package com.UAIC.ISMA.aop;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Low-cardinality tag values derived from the current request and the intercepted call.
+ */
+public final class RequestTags {
+
+    public static final String NONE = "none";
+
+    private RequestTags() {
+    }
+
+    /**
+     * HTTP method and route template of the request being served, e.g. {@code GET /equipment/{id}}, or
+     * {@value #NONE} outside a request (scheduled jobs, async executors).
+     */
+    public static String endpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return NONE;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+    }
+
+    /**
+     * Names of the scalar arguments that are non-null, joined with {@code +} (e.g. {@code name+labId}), or
+     * {@value #NONE}. Paging, collections and DTO arguments are ignored, so the number of shapes per method is
+     * bounded by its scalar parameters.
+     */
+    public static String filterShape(JoinPoint joinPoint) {
+        if (!(joinPoint.getSignature() instanceof MethodSignature signature)) {
+            return NONE;
+        }
+        String[] names = signature.getParameterNames();
+        Object[] args = joinPoint.getArgs();
+        StringJoiner shape = new StringJoiner("+");
+        for (int i = 0; i < args.length; i++) {
+            if (isFilterValue(args[i])) {
+                shape.add(names != null ? names[i] : "arg" + i);
+            }
+        }
+        return shape.length() == 0 ? NONE : shape.toString();
+    }
+
+    /**
+     * Simple name of the intercepted type. Repository calls run on a JDK proxy, so the application interface is
+     * used rather than the proxy class or the Spring Data interface declaring an inherited method.
+     */
+    public static String declaringType(JoinPoint joinPoint) {
+        Object target = joinPoint.getThis();
+        if (target != null) {
+            for (Class<?> type : target.getClass().getInterfaces()) {
+                if (type.getName().startsWith("com.UAIC.ISMA.")) {
+                    return type.getSimpleName();
+                }
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+
+    /**
+     * Value of the first {@code Long} argument named {@code id} or ending in {@code Id}, or {@code null}.
+     */
+    public static Long entityId(JoinPoint joinPoint) {
+        if (!(joinPoint.getSignature() instanceof MethodSignature signature) || signature.getParameterNames() == null) {
+            return null;
+        }
+        String[] names = signature.getParameterNames();
+        Object[] args = joinPoint.getArgs();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Long id && (names[i].equals("id") || names[i].endsWith("Id"))) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Number of elements in a call result: the size of a collection or page, 0 or 1 for optionals and other
+     * values. Response entities are measured by their body.
+     */
+    public static long resultSize(Object result) {
+        if (result instanceof ResponseEntity<?> response) {
+            result = response.getBody();
+        }
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+
+    public static String outcome(Throwable error) {
+        return error == null ? "success" : error.getClass().getSimpleName();
+    }
+
+    private static boolean isFilterValue(Object arg) {
+        if (arg == null || arg instanceof Pageable || arg instanceof Sort) {
+            return false;
+        }
+        return arg instanceof CharSequence || arg instanceof Number || arg instanceof Boolean
+                || arg instanceof Enum<?> || arg instanceof Temporal;
+    }
+}
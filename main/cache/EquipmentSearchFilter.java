@@ -0,0 +1,43 @@
+package com.UAIC.ISMA.cache;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Normalized filter of an equipment search, used as the cache key next to the page. A null field means "any".
+ * The name is lower-cased, since the search matches it case-insensitively.
+ */
+@Data
+@AllArgsConstructor
+public class EquipmentSearchFilter {
+    private String name;
+    private AvailabilityStatus availabilityStatus;
+    private Long laboratoryId;
+
+    public static EquipmentSearchFilter of(String name, AvailabilityStatus availabilityStatus, Long laboratoryId) {
+        return new EquipmentSearchFilter(name != null ? name.toLowerCase(Locale.ROOT) : null,
+                availabilityStatus, laboratoryId);
+    }
+
+    /**
+     * Whether the equipment, in the given state, would be part of the results. A name containing LIKE
+     * wildcards is treated as matching any name.
+     */
+    public boolean matches(EquipmentDTO equipment) {
+        if (equipment == null) {
+            return false;
+        }
+        return (availabilityStatus == null || availabilityStatus == equipment.getAvailabilityStatus())
+                && (laboratoryId == null || laboratoryId.equals(equipment.getLaboratoryId()))
+                && SearchPatterns.contains(equipment.getName(), name);
+    }
+
+    public boolean coversLaboratory(Long id) {
+        return laboratoryId == null || Objects.equals(laboratoryId, id);
+    }
+}
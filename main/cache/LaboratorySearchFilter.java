@@ -0,0 +1,28 @@
+package com.UAIC.ISMA.cache;
+
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Locale;
+
+/**
+ * Normalized filter of a laboratory search, used as the cache key next to the page. A null field means "any".
+ */
+@Data
+@AllArgsConstructor
+public class LaboratorySearchFilter {
+    private String name;
+    private String location;
+
+    public static LaboratorySearchFilter of(String name, String location) {
+        return new LaboratorySearchFilter(name != null ? name.toLowerCase(Locale.ROOT) : null,
+                location != null ? location.toLowerCase(Locale.ROOT) : null);
+    }
+
+    public boolean matches(LaboratoryDTO laboratory) {
+        return laboratory != null
+                && SearchPatterns.contains(laboratory.getLabName(), name)
+                && SearchPatterns.contains(laboratory.getLocation(), location);
+    }
+}
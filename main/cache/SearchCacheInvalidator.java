@@ -0,0 +1,51 @@
+package com.UAIC.ISMA.cache;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.event.LaboratoryChangeEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops the cached search pages a committed change can affect: those whose filter the changed row matches
+ * before or after the change. A status change in one laboratory leaves the pages of other laboratories and
+ * other statuses in place.
+ * <p>
+ * Laboratory search pages do not list equipment, so equipment changes leave them alone. Deleting a laboratory
+ * also deletes its equipment, which drops the equipment pages of that laboratory and the unfiltered ones.
+ */
+@Component
+public class SearchCacheInvalidator {
+
+    private static final Logger logger = LogManager.getLogger(SearchCacheInvalidator.class);
+
+    private final SearchResultCache<EquipmentSearchFilter, EquipmentDTO> equipmentSearchCache;
+    private final SearchResultCache<LaboratorySearchFilter, LaboratoryDTO> laboratorySearchCache;
+
+    public SearchCacheInvalidator(SearchResultCache<EquipmentSearchFilter, EquipmentDTO> equipmentSearchCache,
+                                  SearchResultCache<LaboratorySearchFilter, LaboratoryDTO> laboratorySearchCache) {
+        this.equipmentSearchCache = equipmentSearchCache;
+        this.laboratorySearchCache = laboratorySearchCache;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEquipmentChange(EquipmentChangeEvent event) {
+        int removed = equipmentSearchCache.invalidate(
+                filter -> filter.matches(event.getBefore()) || filter.matches(event.getAfter()));
+        logger.debug("Equipment {} {}: dropped {} cached search pages", event.getEquipmentId(), event.getType(), removed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChange(LaboratoryChangeEvent event) {
+        int removed = laboratorySearchCache.invalidate(
+                filter -> filter.matches(event.getBefore()) || filter.matches(event.getAfter()));
+        if (event.getType() == LaboratoryChangeEvent.Type.DELETED) {
+            Long laboratoryId = event.getLaboratoryId();
+            removed += equipmentSearchCache.invalidate(filter -> filter.coversLaboratory(laboratoryId));
+        }
+        logger.debug("Laboratory {} {}: dropped {} cached search pages", event.getLaboratoryId(), event.getType(), removed);
+    }
+}
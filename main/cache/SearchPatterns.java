@@ -0,0 +1,20 @@
+package com.UAIC.ISMA.cache;
+
+import java.util.Locale;
+
+final class SearchPatterns {
+
+    private SearchPatterns() {
+    }
+
+    /**
+     * Mirrors {@code LOWER(value) LIKE LOWER('%' || pattern || '%')} for an already lower-cased pattern. A
+     * pattern holding {@code %} or {@code _} matches anything, which can only over-invalidate.
+     */
+    static boolean contains(String value, String pattern) {
+        if (pattern == null || pattern.indexOf('%') >= 0 || pattern.indexOf('_') >= 0) {
+            return true;
+        }
+        return value != null && value.toLowerCase(Locale.ROOT).contains(pattern);
+    }
+}
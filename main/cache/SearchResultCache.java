@@ -0,0 +1,217 @@
+package com.UAIC.ISMA.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache of search result pages, keyed by the normalized filter and the page request.
+ * <p>
+ * Entries are weighed by the number of rows they hold, and the least recently used ones are evicted once the
+ * total passes {@code maxWeight}. Writes remove exactly the entries whose filter the changed row matches,
+ * before or after the change, through {@link #invalidate}. Only writes made by this instance are seen that
+ * way, so entries also expire {@code maxAgeMs} after they were stored; that bounds how long a write made on
+ * another instance can stay invisible here.
+ * <p>
+ * A search that was already running when an invalidation happened may have read the old state. Its result is
+ * only stored if none of the invalidations since the search started applies to its filter. The last
+ * {@value #INVALIDATION_HISTORY} invalidations are kept for this check; an older search is not stored.
+ */
+public class SearchResultCache<F, T> {
+
+    static final int INVALIDATION_HISTORY = 256;
+
+    private final String name;
+    private final long maxWeight;
+    private final long maxAgeNanos;
+    private final LongSupplier nanoClock;
+    private final Map<Key<F>, Entry<T>> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Deque<Invalidation<F>> invalidations = new ArrayDeque<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidated = new AtomicLong();
+
+    private long weight;
+    private long epoch;
+
+    /**
+     * @param maxAgeMs how long an entry may be served after it was stored; 0 keeps it until it is evicted or
+     *                 invalidated, which is only safe when this is the only instance writing
+     */
+    public SearchResultCache(String name, long maxWeight, long maxAgeMs) {
+        this(name, maxWeight, maxAgeMs, System::nanoTime);
+    }
+
+    SearchResultCache(String name, long maxWeight, long maxAgeMs, LongSupplier nanoClock) {
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+        this.nanoClock = nanoClock;
+    }
+
+    public synchronized Page<T> get(F filter, Pageable pageable) {
+        Key<F> key = new Key<>(filter, pageable);
+        Entry<T> entry = entries.get(key);
+        if (entry != null && maxAgeNanos > 0 && nanoClock.getAsLong() - entry.storedAtNanos > maxAgeNanos) {
+            entries.remove(key);
+            weight -= weigh(entry.page);
+            expirations.incrementAndGet();
+            entry = null;
+        }
+        (entry != null ? hits : misses).incrementAndGet();
+        return entry != null ? entry.page : null;
+    }
+
+    /**
+     * Marks the start of a search; pass the value to {@link #put} with its result.
+     */
+    public synchronized long epoch() {
+        return epoch;
+    }
+
+    public synchronized void put(F filter, Pageable pageable, Page<T> page, long startEpoch) {
+        if (startEpoch != epoch && !unaffectedSince(filter, startEpoch)) {
+            return;
+        }
+        long pageWeight = weigh(page);
+        if (pageWeight > maxWeight) {
+            return;
+        }
+        Entry<T> previous = entries.put(new Key<>(filter, pageable), new Entry<>(page, nanoClock.getAsLong()));
+        if (previous != null) {
+            weight -= weigh(previous.page);
+        }
+        weight += pageWeight;
+        Iterator<Entry<T>> eldest = entries.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= weigh(eldest.next().page);
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes the entries whose filter is affected and returns how many there were.
+     */
+    public synchronized int invalidate(Predicate<F> affected) {
+        epoch++;
+        invalidations.addLast(new Invalidation<>(epoch, affected));
+        if (invalidations.size() > INVALIDATION_HISTORY) {
+            invalidations.removeFirst();
+        }
+        int removed = 0;
+        Iterator<Map.Entry<Key<F>, Entry<T>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key<F>, Entry<T>> entry = iterator.next();
+            if (affected.test(entry.getKey().filter)) {
+                weight -= weigh(entry.getValue().page);
+                iterator.remove();
+                removed++;
+            }
+        }
+        invalidated.addAndGet(removed);
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("isma.search.cache.size", this, SearchResultCache::size).tag("cache", name).register(registry);
+        Gauge.builder("isma.search.cache.weight", this, SearchResultCache::weight).tag("cache", name)
+                .description("Rows held in cached pages").register(registry);
+        FunctionCounter.builder("isma.search.cache.requests", hits, AtomicLong::get)
+                .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("isma.search.cache.requests", misses, AtomicLong::get)
+                .tag("cache", name).tag("result", "miss").register(registry);
+        FunctionCounter.builder("isma.search.cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", name).register(registry);
+        FunctionCounter.builder("isma.search.cache.expirations", expirations, AtomicLong::get)
+                .tag("cache", name).register(registry);
+        FunctionCounter.builder("isma.search.cache.invalidations", invalidated, AtomicLong::get)
+                .tag("cache", name).register(registry);
+    }
+
+    private boolean unaffectedSince(F filter, long startEpoch) {
+        Invalidation<F> oldest = invalidations.peekFirst();
+        if (oldest == null || oldest.epoch > startEpoch + 1) {
+            return false;
+        }
+        for (Invalidation<F> invalidation : invalidations) {
+            if (invalidation.epoch > startEpoch && invalidation.affected.test(filter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long weigh(Page<?> page) {
+        return page.getNumberOfElements() + 1L;
+    }
+
+    private static final class Key<F> {
+        private final F filter;
+        private final Pageable pageable;
+
+        private Key(F filter, Pageable pageable) {
+            this.filter = filter;
+            this.pageable = pageable;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key<?> other)) {
+                return false;
+            }
+            return Objects.equals(filter, other.filter) && Objects.equals(pageable, other.pageable);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filter, pageable);
+        }
+    }
+
+    private static final class Entry<T> {
+        private final Page<T> page;
+        private final long storedAtNanos;
+
+        private Entry(Page<T> page, long storedAtNanos) {
+            this.page = page;
+            this.storedAtNanos = storedAtNanos;
+        }
+    }
+
+    private static final class Invalidation<F> {
+        private final long epoch;
+        private final Predicate<F> affected;
+
+        private Invalidation(long epoch, Predicate<F> affected) {
+            this.epoch = epoch;
+            this.affected = affected;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.UAIC.ISMA.config;
+
+import com.UAIC.ISMA.admission.AdmissionControlInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts {@link AdmissionControlInterceptor} ahead of the other interceptors, so a rejected request costs no
+ * SQL accounting and no database work. Set {@code admission.enabled=false} to admit everything.
+ */
+@Configuration
+@ConditionalOnProperty(name = "admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    public AdmissionControlConfig(AdmissionControlInterceptor admissionControlInterceptor) {
+        this.admissionControlInterceptor = admissionControlInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor).order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -0,0 +1,64 @@
+package com.UAIC.ISMA.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    @Bean(name = "equipmentStreamExecutor")
+    public ThreadPoolTaskExecutor equipmentStreamExecutor(
+            @Value("${equipment.stream.dispatch-threads:4}") int dispatchThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(dispatchThreads);
+        executor.setMaxPoolSize(dispatchThreads);
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("equipment-stream-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "availabilityExecutor")
+    public ThreadPoolTaskExecutor availabilityExecutor(
+            @Value("${equipment.availability.threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("availability-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "decommissionExecutor")
+    public ThreadPoolTaskExecutor decommissionExecutor(
+            @Value("${laboratory.decommission.threads:2}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("lab-decommission-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "slowQueryExplainExecutor")
+    public ThreadPoolTaskExecutor slowQueryExplainExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(16);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setThreadNamePrefix("slow-query-explain-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,24 @@
+package com.UAIC.ISMA.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Metrics defaults live in {@code metrics.properties} so an {@code application.properties} entry still
+ * overrides them: the Prometheus scrape endpoint, HTTP server histograms, Hikari pool metrics and Hibernate
+ * statistics.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> commonTags(
+            @Value("${spring.application.name:isma}") String applicationName) {
+        return registry -> registry.config().commonTags("application", applicationName);
+    }
+}
@@ -0,0 +1,86 @@
+package com.UAIC.ISMA.config;
+
+import com.UAIC.ISMA.replica.ReplicaLagMonitor;
+import com.UAIC.ISMA.replica.ReplicaPools;
+import com.UAIC.ISMA.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes {@code @ReplicaRead} service methods to a read replica. Enabled with {@code replica.enabled=true}.
+ * <p>
+ * The primary pool is built from {@code spring.datasource.*} as before. The replica pool takes
+ * {@code replica.datasource.url}, {@code username} and {@code password} (defaulting to the primary's
+ * credentials) and {@code replica.datasource.hikari.*}. Lag is checked every {@code replica.lag-check-interval-ms}
+ * with {@code replica.lag-query}, and the replica is skipped while it is more than {@code replica.max-lag-ms}
+ * behind. Both pools publish Hikari metrics under the pool names {@code primary} and {@code replica}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPools replicaPools(DataSourceProperties properties, Environment environment,
+                                     MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(environment.getRequiredProperty("replica.datasource.url"))
+                .username(environment.getProperty("replica.datasource.username", properties.determineUsername()))
+                .password(environment.getProperty("replica.datasource.password", properties.determinePassword()))
+                .build();
+        binder.bind("replica.datasource.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        replica.setMetricsTrackerFactory(metrics);
+
+        return new ReplicaPools(primary, replica);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaPools replicaPools, Environment environment,
+                                               MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaPools.getReplica(),
+                environment.getProperty("replica.lag-query"),
+                environment.getProperty("replica.max-lag-ms", Long.class, 2000L),
+                environment.getProperty("replica.lag-check-interval-ms", Long.class, 1000L));
+        monitor.bindTo(meterRegistry);
+        monitor.check();
+        return monitor;
+    }
+
+    /**
+     * The read-your-writes cookie outlives the longest lag the replica may have and still serve reads.
+     */
+    @Bean
+    public DataSource dataSource(ReplicaPools replicaPools, ReplicaLagMonitor replicaLagMonitor,
+                                 Environment environment, MeterRegistry meterRegistry) {
+        long maxLagMillis = environment.getProperty("replica.max-lag-ms", Long.class, 2000L);
+        long checkIntervalMillis = environment.getProperty("replica.lag-check-interval-ms", Long.class, 1000L);
+        int readYourWritesSeconds = (int) Math.ceil((maxLagMillis + 3 * checkIntervalMillis) / 1000.0);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaPools.getPrimary(),
+                replicaPools.getReplica(), replicaLagMonitor, readYourWritesSeconds);
+        routing.bindTo(meterRegistry);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
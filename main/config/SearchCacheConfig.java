@@ -0,0 +1,43 @@
+package com.UAIC.ISMA.config;
+
+import com.UAIC.ISMA.cache.EquipmentSearchFilter;
+import com.UAIC.ISMA.cache.LaboratorySearchFilter;
+import com.UAIC.ISMA.cache.SearchResultCache;
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Search result caches, bounded by the number of rows they hold ({@code search-cache.<name>.max-rows}; 0 turns
+ * a cache off) and by the age of their entries ({@code search-cache.max-age-ms}), which bounds how stale a page
+ * can be after a write on another instance. Their hit, miss, eviction, expiry and invalidation counts are
+ * published as {@code isma.search.cache.*} meters.
+ */
+@Configuration
+public class SearchCacheConfig {
+
+    @Bean
+    public SearchResultCache<EquipmentSearchFilter, EquipmentDTO> equipmentSearchCache(
+            MeterRegistry meterRegistry,
+            @Value("${search-cache.equipment.max-rows:50000}") long maxRows,
+            @Value("${search-cache.max-age-ms:30000}") long maxAgeMs) {
+        SearchResultCache<EquipmentSearchFilter, EquipmentDTO> cache =
+                new SearchResultCache<>("equipment", maxRows, maxAgeMs);
+        cache.bindTo(meterRegistry);
+        return cache;
+    }
+
+    @Bean
+    public SearchResultCache<LaboratorySearchFilter, LaboratoryDTO> laboratorySearchCache(
+            MeterRegistry meterRegistry,
+            @Value("${search-cache.laboratory.max-rows:10000}") long maxRows,
+            @Value("${search-cache.max-age-ms:30000}") long maxAgeMs) {
+        SearchResultCache<LaboratorySearchFilter, LaboratoryDTO> cache =
+                new SearchResultCache<>("laboratory", maxRows, maxAgeMs);
+        cache.bindTo(meterRegistry);
+        return cache;
+    }
+}
@@ -0,0 +1,54 @@
+package com.UAIC.ISMA.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the partial indexes backing soft delete. Active-row queries get indexes that only contain rows with
+ * {@code deleted_at IS NULL}, so tombstones do not bloat them, and the purge gets a small index over the
+ * deleted rows only. Partial indexes are PostgreSQL-specific; other databases (H2 in tests) are skipped.
+ */
+@Component
+public class SoftDeleteIndexInitializer {
+
+    private static final Logger logger = LogManager.getLogger(SoftDeleteIndexInitializer.class);
+
+    private static final List<String> POSTGRES_INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_equipment_active_lab_status ON equipment (lab_id, availability_status) WHERE deleted_at IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_equipment_active_name ON equipment (lower(name)) WHERE deleted_at IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_equipment_deleted_at ON equipment (deleted_at) WHERE deleted_at IS NOT NULL",
+            "CREATE INDEX IF NOT EXISTS idx_laboratories_active_name ON laboratories (lower(lab_name)) WHERE deleted_at IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_laboratories_deleted_at ON laboratories (deleted_at) WHERE deleted_at IS NOT NULL"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SoftDeleteIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            logger.info("Skipping soft delete partial indexes on {}", product);
+            return;
+        }
+        for (String ddl : POSTGRES_INDEXES) {
+            try {
+                jdbcTemplate.execute(ddl);
+            } catch (RuntimeException e) {
+                logger.error("Could not create soft delete index: {}", ddl, e);
+            }
+        }
+        logger.info("Soft delete partial indexes in place");
+    }
+}
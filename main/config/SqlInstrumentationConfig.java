@@ -0,0 +1,61 @@
+package com.UAIC.ISMA.config;
+
+import com.UAIC.ISMA.sql.EntityLoadCounter;
+import com.UAIC.ISMA.sql.InstrumentedDataSource;
+import com.UAIC.ISMA.sql.QueryListener;
+import com.UAIC.ISMA.sql.SqlBudgetInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Per-request SQL accounting: the DataSource is wrapped so every statement reaches the {@link QueryListener}
+ * beans, Hibernate reports entity loads, and {@link SqlBudgetInterceptor} ties both to the request being
+ * served. Set {@code sql.instrumentation.enabled=false} to hand out the pool's connections unwrapped.
+ */
+@Configuration
+public class SqlInstrumentationConfig implements WebMvcConfigurer {
+
+    private final SqlBudgetInterceptor sqlBudgetInterceptor;
+
+    public SqlInstrumentationConfig(SqlBudgetInterceptor sqlBudgetInterceptor) {
+        this.sqlBudgetInterceptor = sqlBudgetInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlBudgetInterceptor);
+    }
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(Environment environment,
+                                                                        ObjectProvider<QueryListener> listeners) {
+        boolean enabled = environment.getProperty("sql.instrumentation.enabled", Boolean.class, true);
+        SingletonSupplier<List<QueryListener>> resolved =
+                SingletonSupplier.of(() -> listeners.orderedStream().toList());
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource) {
+                    return InstrumentedDataSource.wrap(dataSource, resolved);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityLoadCounterCustomizer(EntityLoadCounter entityLoadCounter) {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, entityLoadCounter);
+    }
+}
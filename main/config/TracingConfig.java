@@ -0,0 +1,62 @@
+package com.UAIC.ISMA.config;
+
+import com.UAIC.ISMA.tracing.FileSpanExporter;
+import com.UAIC.ISMA.tracing.InMemorySpanExporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Sampling and export for the OpenTelemetry tracer behind Micrometer Tracing.
+ * <p>
+ * {@code tracing.sampler.type} is {@code ratio} (default, with {@code tracing.sampler.ratio}), {@code always_on}
+ * or {@code always_off}; the decision of an incoming parent span is always honoured. {@code tracing.exporter.type}
+ * selects {@code otlp} (production, {@code tracing.exporter.otlp.endpoint}), {@code file}
+ * ({@code tracing.exporter.file.path}), {@code memory} or nothing (default).
+ */
+@Configuration
+@ConditionalOnClass(SpanExporter.class)
+public class TracingConfig {
+
+    @Bean
+    public Sampler tracingSampler(@Value("${tracing.sampler.type:ratio}") String type,
+                                  @Value("${tracing.sampler.ratio:0.1}") double ratio) {
+        Sampler root = switch (type.toLowerCase(Locale.ROOT)) {
+            case "always_on" -> Sampler.alwaysOn();
+            case "always_off" -> Sampler.alwaysOff();
+            case "ratio" -> Sampler.traceIdRatioBased(ratio);
+            default -> throw new IllegalArgumentException("Unknown tracing.sampler.type: " + type);
+        };
+        return Sampler.parentBased(root);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter.type", havingValue = "otlp")
+    public SpanExporter otlpSpanExporter(
+            @Value("${tracing.exporter.otlp.endpoint:http://localhost:4318/v1/traces}") String endpoint) {
+        return OtlpHttpSpanExporter.builder().setEndpoint(endpoint).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter.type", havingValue = "file")
+    public SpanExporter fileSpanExporter(@Value("${tracing.exporter.file.path:traces/spans.jsonl}") String path,
+                                         ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(Path.of(path), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter.type", havingValue = "memory")
+    public InMemorySpanExporter inMemorySpanExporter(@Value("${tracing.exporter.memory.capacity:1000}") int capacity) {
+        return new InMemorySpanExporter(capacity);
+    }
+}
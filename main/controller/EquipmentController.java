@@ -1,18 +1,40 @@
 package com.UAIC.ISMA.controller;
 
+import com.UAIC.ISMA.admission.Bulkhead;
+import com.UAIC.ISMA.admission.TrafficClass;
+import com.UAIC.ISMA.dto.AvailabilityResultDTO;
+import com.UAIC.ISMA.dto.ChangeJournalEntryDTO;
+import com.UAIC.ISMA.dto.ConflictCheckDTO;
 import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.EquipmentFacetsDTO;
+import com.UAIC.ISMA.dto.InventoryLookupDTO;
+import com.UAIC.ISMA.dto.StatusReportDTO;
+import com.UAIC.ISMA.dto.StatusTransitionDTO;
+import com.UAIC.ISMA.dto.SuggestionDTO;
+import com.UAIC.ISMA.service.AvailabilityFinderService;
+import com.UAIC.ISMA.service.ChangeJournalService;
 import com.UAIC.ISMA.service.EquipmentService;
+import com.UAIC.ISMA.service.EquipmentStatusIngestService;
+import com.UAIC.ISMA.service.EquipmentStreamService;
+import com.UAIC.ISMA.service.ReservationConflictService;
+import com.UAIC.ISMA.sql.SqlBudget;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -22,39 +44,102 @@ public class EquipmentController {
 
     private static final Logger logger = LogManager.getLogger(EquipmentController.class);
     private final EquipmentService equipmentService;
+    private final EquipmentStreamService equipmentStreamService;
+    private final ReservationConflictService reservationConflictService;
+    private final AvailabilityFinderService availabilityFinderService;
+    private final ChangeJournalService changeJournalService;
+    private final EquipmentStatusIngestService statusIngestService;
 
-    public EquipmentController(EquipmentService equipmentService) {
+    public EquipmentController(EquipmentService equipmentService, EquipmentStreamService equipmentStreamService,
+                               ReservationConflictService reservationConflictService,
+                               AvailabilityFinderService availabilityFinderService,
+                               ChangeJournalService changeJournalService,
+                               EquipmentStatusIngestService statusIngestService) {
         this.equipmentService = equipmentService;
+        this.equipmentStreamService = equipmentStreamService;
+        this.reservationConflictService = reservationConflictService;
+        this.availabilityFinderService = availabilityFinderService;
+        this.changeJournalService = changeJournalService;
+        this.statusIngestService = statusIngestService;
     }
 
     @GetMapping
+    @Bulkhead(TrafficClass.BULK)
     @Operation(summary = "Get all equipments", description = "Returns a list of all equipments. Optionally filter by laboratoryId.")
     public ResponseEntity<List<EquipmentDTO>> getAllEquipment(
             @Parameter(description = "Optional laboratory ID to filter equipment")
             @RequestParam(name = "laboratoryId", required = false) Long laboratoryId) {
-        logger.info("Fetching all equipments");
         List<EquipmentDTO> equipments = equipmentService.getAllEquipments(laboratoryId);
         return ResponseEntity.ok(equipments);
     }
 
+    @GetMapping(params = "ids")
+    @Bulkhead(TrafficClass.BULK)
+    @Operation(summary = "Get equipments by IDs", description = "Returns the equipments with the given IDs, in the requested order. Unknown IDs are skipped.")
+    public ResponseEntity<List<EquipmentDTO>> getEquipmentsByIds(
+            @Parameter(description = "Comma-separated equipment IDs") @RequestParam(name = "ids") List<Long> ids) {
+        return ResponseEntity.ok(equipmentService.getEquipmentsByIds(ids));
+    }
+
+    @PostMapping("/by-ids")
+    @Bulkhead(TrafficClass.BULK)
+    @Operation(summary = "Get equipments by IDs (long lists)", description = "Same as GET /equipment?ids=..., for ID lists too long for a query string.")
+    public ResponseEntity<List<EquipmentDTO>> getEquipmentsByIdList(
+            @Parameter(description = "Equipment IDs") @RequestBody List<Long> ids) {
+        return ResponseEntity.ok(equipmentService.getEquipmentsByIds(ids));
+    }
+
     @GetMapping("/{id}")
+    @SqlBudget(statements = 2)
     @Operation(summary = "Get equipment by ID", description = "Returns a single equipment item by its unique ID.")
     public ResponseEntity<EquipmentDTO> getEquipmentById(
             @Parameter(description = "Equipment ID") @PathVariable Long id) {
-        logger.info("Fetching equipment with ID={}", id);
         EquipmentDTO equipment = equipmentService.getEquipmentById(id);
         return ResponseEntity.ok(equipment);
     }
 
+    @GetMapping(path = "/{id}", params = "asOf")
+    @Operation(summary = "Get equipment as of a point in time", description = "Returns the equipment as it was at the given instant, rebuilt from the change journal.")
+    public ResponseEntity<EquipmentDTO> getEquipmentAsOf(
+            @Parameter(description = "Equipment ID") @PathVariable Long id,
+            @Parameter(description = "Point in time (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(changeJournalService.getEquipmentAsOf(id, asOf));
+    }
+
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get equipment change history", description = "Returns the recorded changes of the equipment, newest first. Supports pagination.")
+    public ResponseEntity<Page<ChangeJournalEntryDTO>> getEquipmentHistory(
+            @Parameter(description = "Equipment ID") @PathVariable Long id,
+            @Parameter(description = "Pagination parameters (page, size)") Pageable pageable) {
+        return ResponseEntity.ok(changeJournalService.getEquipmentHistory(id, pageable));
+    }
+
+    @GetMapping("/by-inventory/{inventoryNumber}")
+    @SqlBudget(statements = 1)
+    @Operation(summary = "Get equipment by inventory number", description = "Returns a single equipment item by its unique inventory number.")
+    public ResponseEntity<EquipmentDTO> getEquipmentByInventoryNumber(
+            @Parameter(description = "Inventory number") @PathVariable String inventoryNumber) {
+        return ResponseEntity.ok(equipmentService.getEquipmentByInventoryNumber(inventoryNumber));
+    }
+
+    @PostMapping("/by-inventory")
+    @Bulkhead(TrafficClass.BULK)
+    @Operation(
+            summary = "Resolve inventory numbers",
+            description = "Resolves a batch of scanned inventory numbers to equipment and reports the numbers that were not found."
+    )
+    public ResponseEntity<InventoryLookupDTO> resolveInventoryNumbers(
+            @Parameter(description = "Inventory numbers to resolve") @RequestBody List<String> inventoryNumbers) {
+        return ResponseEntity.ok(equipmentService.resolveInventoryNumbers(inventoryNumbers));
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('ADMIN')")
     @Operation(summary = "Create a new equipment item", description = "Creates a new equipment item with the provided details.")
     public ResponseEntity<EquipmentDTO> createEquipment(
             @Parameter(description = "Equipment data to create")
             @RequestBody @Valid EquipmentDTO equipmentDTO) {
-        logger.info("Creating a new equipment with name='{}'", equipmentDTO.getName());
         EquipmentDTO created = equipmentService.createEquipment(equipmentDTO);
-        logger.info("Created equipment with name='{}'", created.getName());
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
@@ -64,24 +149,48 @@ public class EquipmentController {
     public ResponseEntity<EquipmentDTO> updateEquipment(
             @Parameter(description = "Equipment ID") @PathVariable Long id,
             @Parameter(description = "Updated equipment data") @RequestBody @Valid EquipmentDTO equipmentDTO) {
-        logger.info("Updating equipment with ID={}", id);
         EquipmentDTO updated = equipmentService.updateEquipment(equipmentDTO, id);
-        logger.info("Updated equipment with ID={}", updated.getId());
         return ResponseEntity.ok(updated);
     }
 
+    @PostMapping("/{id}/status")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+            summary = "Change equipment status",
+            description = "Atomically moves the equipment from expectedStatus to newStatus. Returns 409 if its status is no longer expectedStatus."
+    )
+    public ResponseEntity<EquipmentDTO> changeEquipmentStatus(
+            @Parameter(description = "Equipment ID") @PathVariable Long id,
+            @Parameter(description = "Expected current status and new status") @RequestBody @Valid StatusTransitionDTO transition) {
+        return ResponseEntity.ok(equipmentService.changeStatus(id, transition));
+    }
+
+    @PostMapping("/status-reports")
+    @Bulkhead(TrafficClass.BULK)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+            summary = "Report equipment statuses",
+            description = "Accepts status readings from instrument sensors. Readings are buffered, only the latest one per equipment is kept, " +
+                    "and changed statuses are written within a few seconds. Returns 202 without waiting for the write."
+    )
+    public ResponseEntity<Void> reportEquipmentStatuses(
+            @Parameter(description = "Status readings") @RequestBody List<StatusReportDTO> reports) {
+        statusIngestService.submit(reports);
+        return ResponseEntity.accepted().build();
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
     @Operation(summary = "Delete equipment", description = "Deletes the equipment item with the specified ID.")
     public ResponseEntity<Void> deleteEquipment(
             @Parameter(description = "Equipment ID") @PathVariable Long id) {
-        logger.info("Deleting equipment with ID={}", id);
         equipmentService.deleteEquipment(id);
-        logger.info("Deleted equipment with ID={}", id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/search")
+    @Bulkhead(TrafficClass.SEARCH)
+    @SqlBudget(statements = 2)
     @Operation(
             summary = "Search equipment",
             description = "Search equipment using optional filters: name (partial match), availability status, and laboratory ID. Supports pagination."
@@ -92,7 +201,77 @@ public class EquipmentController {
             @Parameter(description = "Optional laboratory ID to filter") @RequestParam(name = "laboratoryId", required = false) Long labId,
             @Parameter(description = "Pagination parameters (page, size, sort)") Pageable pageable
     ) {
-        logger.info("Searching equipment with name='{}', status='{}', labId='{}'", name, status, labId);
         return ResponseEntity.ok(equipmentService.searchEquipment(name, status, labId, pageable));
     }
+
+    @GetMapping("/{id}/conflicts")
+    @Operation(
+            summary = "Check reservation conflicts",
+            description = "Lists approved and pending access windows of the equipment that overlap the requested time window."
+    )
+    public ResponseEntity<ConflictCheckDTO> checkReservationConflicts(
+            @Parameter(description = "Equipment ID") @PathVariable Long id,
+            @Parameter(description = "Start of the requested window (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the requested window (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(reservationConflictService.checkConflicts(id, from, to));
+    }
+
+    @GetMapping("/availability")
+    @Bulkhead(TrafficClass.SEARCH)
+    @Operation(
+            summary = "Find available equipment slots",
+            description = "Finds free time slots of equipment matching optional filters: name (partial match), availability status, " +
+                    "laboratory location (partial match) and laboratory ID, within the requested time window. Slots are ranked by length."
+    )
+    public ResponseEntity<AvailabilityResultDTO> findAvailableSlots(
+            @Parameter(description = "Optional name to search (partial match)") @RequestParam(name = "name", required = false) String name,
+            @Parameter(description = "Optional availability status (e.g., AVAILABLE, IN_USE)") @RequestParam(name = "availabilityStatus", required = false) String status,
+            @Parameter(description = "Optional laboratory location (partial match)") @RequestParam(name = "location", required = false) String location,
+            @Parameter(description = "Optional laboratory ID to filter") @RequestParam(name = "laboratoryId", required = false) Long labId,
+            @Parameter(description = "Start of the time window (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the time window (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Optional minimum slot length in minutes") @RequestParam(name = "minDuration", required = false) Integer minDurationMinutes,
+            @Parameter(description = "Optional maximum number of slots to return") @RequestParam(name = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(availabilityFinderService.findAvailableSlots(
+                name, status, location, labId, from, to, minDurationMinutes, limit));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(
+            summary = "Suggest equipment and laboratory names",
+            description = "Returns the most used equipment names, inventory numbers and laboratory names starting with the given prefix."
+    )
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @Parameter(description = "Prefix typed by the user") @RequestParam(name = "prefix") String prefix,
+            @Parameter(description = "Optional maximum number of suggestions (1-10)") @RequestParam(name = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(equipmentService.suggest(prefix, limit));
+    }
+
+    @GetMapping("/facets")
+    @Bulkhead(TrafficClass.SEARCH)
+    @Operation(
+            summary = "Count equipment by filter",
+            description = "Counts equipment matching optional filters: laboratory ID, availability status, complexity and acquisition year, " +
+                    "broken down by each of these dimensions."
+    )
+    public ResponseEntity<EquipmentFacetsDTO> getEquipmentFacets(
+            @Parameter(description = "Optional laboratory ID to filter") @RequestParam(name = "laboratoryId", required = false) Long labId,
+            @Parameter(description = "Optional availability status (e.g., AVAILABLE, IN_USE)") @RequestParam(name = "availabilityStatus", required = false) String status,
+            @Parameter(description = "Optional complexity flag") @RequestParam(name = "isComplex", required = false) Boolean isComplex,
+            @Parameter(description = "Optional acquisition year") @RequestParam(name = "acquisitionYear", required = false) Integer acquisitionYear) {
+        return ResponseEntity.ok(equipmentService.getEquipmentFacets(labId, status, isComplex, acquisitionYear));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream equipment changes",
+            description = "Server-Sent Events feed of equipment creations, updates, deletions and status changes. " +
+                    "Optionally filter by laboratory ID. Reconnecting clients can resume with the Last-Event-ID header."
+    )
+    public SseEmitter streamEquipmentChanges(
+            @Parameter(description = "Optional laboratory ID to filter events") @RequestParam(name = "laboratoryId", required = false) Long laboratoryId,
+            @Parameter(description = "ID of the last event received, used to resume the stream") @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        logger.info("Opening equipment stream for laboratoryId='{}', lastEventId='{}'", laboratoryId, lastEventId);
+        return equipmentStreamService.subscribe(laboratoryId, lastEventId);
+    }
 }
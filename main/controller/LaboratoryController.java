@@ -1,20 +1,27 @@
 package com.UAIC.ISMA.controller;
 
+import com.UAIC.ISMA.admission.Bulkhead;
+import com.UAIC.ISMA.admission.TrafficClass;
+import com.UAIC.ISMA.dto.DecommissionJobDTO;
 import com.UAIC.ISMA.dto.EquipmentDTO;
 import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.dto.LaboratoryDetailsDTO;
+import com.UAIC.ISMA.dto.LaboratoryInclude;
+import com.UAIC.ISMA.service.LabDecommissionService;
 import com.UAIC.ISMA.service.LaboratoryService;
+import com.UAIC.ISMA.sql.SqlBudget;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -22,37 +29,84 @@ import java.util.List;
 @Tag(name = "Laboratories", description = "Operations related to laboratories")
 public class LaboratoryController {
 
-    private static final Logger logger = LogManager.getLogger(LaboratoryController.class);
-
     private final LaboratoryService laboratoryService;
+    private final LabDecommissionService labDecommissionService;
 
-    public LaboratoryController(LaboratoryService laboratoryService) {
+    public LaboratoryController(LaboratoryService laboratoryService, LabDecommissionService labDecommissionService) {
         this.laboratoryService = laboratoryService;
+        this.labDecommissionService = labDecommissionService;
     }
 
     @GetMapping
+    @Bulkhead(TrafficClass.BULK)
     @Operation(summary = "Get all laboratories", description = "Returns a list of all laboratories.")
     public ResponseEntity<List<LaboratoryDTO>> getAllLaboratories() {
-        logger.info("Fetching all laboratories");
         List<LaboratoryDTO> labs = laboratoryService.getAlLaboratories();
         return ResponseEntity.ok(labs);
     }
 
+    @GetMapping(params = "include")
+    @Bulkhead(TrafficClass.BULK)
+    @SqlBudget(statements = 4)
+    @Operation(
+            summary = "Get all laboratories with related resources",
+            description = "Returns a page of laboratories, embedding the resources listed in include (equipment, documents)."
+    )
+    public ResponseEntity<Page<LaboratoryDetailsDTO>> getAllLaboratoriesWithIncludes(
+            @Parameter(description = "Comma-separated related resources to embed: equipment, documents") @RequestParam(name = "include") String include,
+            @Parameter(description = "Pagination parameters (page, size, sort)") Pageable pageable) {
+        return ResponseEntity.ok(laboratoryService.getLaboratoryDetailsPage(LaboratoryInclude.parse(include), pageable));
+    }
+
+    @GetMapping(params = {"ids", "include"})
+    @Bulkhead(TrafficClass.BULK)
+    @Operation(summary = "Get laboratories by IDs with related resources", description = "Returns the laboratories with the given IDs, in the requested order, embedding the resources listed in include.")
+    public ResponseEntity<List<LaboratoryDetailsDTO>> getLaboratoriesByIdsWithIncludes(
+            @Parameter(description = "Comma-separated laboratory IDs") @RequestParam(name = "ids") List<Long> ids,
+            @Parameter(description = "Comma-separated related resources to embed: equipment, documents") @RequestParam(name = "include") String include) {
+        return ResponseEntity.ok(laboratoryService.getLaboratoryDetailsByIds(ids, LaboratoryInclude.parse(include)));
+    }
+
+    @GetMapping(params = "ids")
+    @Bulkhead(TrafficClass.BULK)
+    @Operation(summary = "Get laboratories by IDs", description = "Returns the laboratories with the given IDs, in the requested order. Unknown IDs are skipped.")
+    public ResponseEntity<List<LaboratoryDTO>> getLaboratoriesByIds(
+            @Parameter(description = "Comma-separated laboratory IDs") @RequestParam(name = "ids") List<Long> ids) {
+        return ResponseEntity.ok(laboratoryService.getLaboratoriesByIds(ids));
+    }
+
+    @PostMapping("/by-ids")
+    @Bulkhead(TrafficClass.BULK)
+    @Operation(summary = "Get laboratories by IDs (long lists)", description = "Same as GET /laboratories?ids=..., for ID lists too long for a query string.")
+    public ResponseEntity<List<LaboratoryDTO>> getLaboratoriesByIdList(
+            @Parameter(description = "Laboratory IDs") @RequestBody List<Long> ids) {
+        return ResponseEntity.ok(laboratoryService.getLaboratoriesByIds(ids));
+    }
+
     @GetMapping("/{id}")
+    @SqlBudget(statements = 3)
     @Operation(summary = "Get laboratory by ID", description = "Returns a single laboratory by its unique ID.")
     public ResponseEntity<LaboratoryDTO> getLaboratoryById(@Parameter(description = "Laboratory ID") @PathVariable long id) {
-        logger.info("Fetching laboratory with ID={}", id);
         LaboratoryDTO laboratoryDTO = laboratoryService.getLaboratoryById(id);
         return ResponseEntity.ok(laboratoryDTO);
     }
 
+    @GetMapping(path = "/{id}", params = "include")
+    @SqlBudget(statements = 3)
+    @Operation(summary = "Get laboratory by ID with related resources", description = "Returns a single laboratory, embedding the resources listed in include (equipment, documents).")
+    public ResponseEntity<LaboratoryDetailsDTO> getLaboratoryByIdWithIncludes(
+            @Parameter(description = "Laboratory ID") @PathVariable long id,
+            @Parameter(description = "Comma-separated related resources to embed: equipment, documents") @RequestParam(name = "include") String include) {
+        return ResponseEntity.ok(laboratoryService.getLaboratoryDetails(id, LaboratoryInclude.parse(include)));
+    }
+
     @GetMapping("/{id}/equipment")
+    @SqlBudget(statements = 2)
     @Operation(
             summary = "Get all equipments assigned to a laboratory",
             description = "Retrieves a list of all equipment entities that are assigned to the laboratory with the specified ID."
     )
     public ResponseEntity<List<EquipmentDTO>> getEquipmentForLaboratory(@Parameter(description = "Laboratory ID") @PathVariable long id) {
-        logger.info("Fetching equipment for laboratory with ID={}", id);
         List<EquipmentDTO> equipmentList = laboratoryService.getEquipmentByLaboratoryId(id);
         return ResponseEntity.ok(equipmentList);
     }
@@ -63,9 +117,7 @@ public class LaboratoryController {
     public ResponseEntity<LaboratoryDTO> createLaboratory(
             @Parameter(description = "Laboratory data to create")
             @Valid @RequestBody LaboratoryDTO laboratoryDTO) {
-        logger.info("Creating new laboratory with name='{}'", laboratoryDTO.getLabName());
         LaboratoryDTO created = laboratoryService.createLaboratory(laboratoryDTO);
-        logger.debug("Created laboratory with ID={}", created.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
@@ -75,7 +127,6 @@ public class LaboratoryController {
     public ResponseEntity<LaboratoryDTO> updateLaboratory(
             @Parameter(description = "Laboratory ID") @PathVariable Long id,
             @Parameter(description = "Updated laboratory data") @Valid @RequestBody LaboratoryDTO laboratoryDTO) {
-        logger.info("Updating laboratory with ID={}", id);
         LaboratoryDTO updated = laboratoryService.updateLaboratory(id, laboratoryDTO);
         return ResponseEntity.ok(updated);
     }
@@ -84,18 +135,37 @@ public class LaboratoryController {
     @PreAuthorize("hasAnyAuthority('ADMIN')")
     @Operation(summary = "Delete a laboratory", description = "Deletes the laboratory with the specified ID.")
     public ResponseEntity<Void> deleteLaboratory(@Parameter(description = "Laboratory ID") @PathVariable Long id) {
-        logger.info("Deleting laboratory with ID={}", id);
         laboratoryService.deleteLaboratory(id);
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/decommission")
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @Operation(
+            summary = "Decommission a laboratory",
+            description = "Starts a background job that deletes the laboratory with its access requests, equipment and documents in chunks. Returns the job to poll for progress."
+    )
+    public ResponseEntity<DecommissionJobDTO> decommissionLaboratory(@Parameter(description = "Laboratory ID") @PathVariable Long id) {
+        DecommissionJobDTO job = labDecommissionService.startDecommission(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/laboratories/decommission-jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/decommission-jobs/{jobId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN')")
+    @Operation(summary = "Get decommission job progress", description = "Returns the status and per-phase progress of a laboratory decommission job.")
+    public ResponseEntity<DecommissionJobDTO> getDecommissionJob(@Parameter(description = "Decommission job ID") @PathVariable String jobId) {
+        return ResponseEntity.ok(labDecommissionService.getJob(jobId));
+    }
+
     @GetMapping("/search")
+    @Bulkhead(TrafficClass.SEARCH)
     @Operation(summary = "Search laboratories", description = "Search laboratories using optional filters: name (partial match) and location. Supports pagination.")
     public ResponseEntity<?> searchLaboratories(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String location,
             Pageable pageable) {
-        logger.info("Searching laboratories with name='{}' and location='{}'", name, location);
         return ResponseEntity.ok(laboratoryService.searchLaboratories(name, location, pageable));
     }
 }
@@ -0,0 +1,48 @@
+package com.UAIC.ISMA.controller;
+
+import com.UAIC.ISMA.dto.SlowQueryDTO;
+import com.UAIC.ISMA.exception.InvalidInputException;
+import com.UAIC.ISMA.sql.SlowQueryRecorder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/slow-queries")
+@PreAuthorize("hasAuthority('ADMIN')")
+@Tag(name = "Diagnostics", description = "Database diagnostics for administrators")
+public class SlowQueryController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final SlowQueryRecorder slowQueryRecorder;
+
+    public SlowQueryController(SlowQueryRecorder slowQueryRecorder) {
+        this.slowQueryRecorder = slowQueryRecorder;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "List recent slow queries",
+            description = "Returns the most recent statements slower than the configured threshold, newest first, with redacted bind values and, for the slowest SELECTs, the database's EXPLAIN output."
+    )
+    public ResponseEntity<List<SlowQueryDTO>> getSlowQueries(
+            @Parameter(description = "Maximum number of entries to return") @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidInputException("Limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        return ResponseEntity.ok(slowQueryRecorder.getRecent(limit));
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Clear captured slow queries", description = "Empties the slow-query buffer.")
+    public ResponseEntity<Void> clearSlowQueries() {
+        slowQueryRecorder.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
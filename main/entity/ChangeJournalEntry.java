@@ -0,0 +1,49 @@
+package com.UAIC.ISMA.entity;
+
+import com.UAIC.ISMA.entity.enums.JournalEntityType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the append-only change journal. Rows are only ever inserted, by {@code ChangeJournalWriter}.
+ * {@code payload} holds the full state as JSON when {@code snapshot} is set, otherwise only the fields that
+ * changed since the previous version.
+ */
+@Entity
+@Table(name = "change_journal",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"entity_type", "entity_id", "version"}),
+        indexes = @Index(name = "idx_change_journal_entity", columnList = "entity_type, entity_id, occurred_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeJournalEntry implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private JournalEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "change_type", nullable = false, length = 20)
+    private String changeType;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    @Column(nullable = false, length = 10000)
+    private String payload;
+}
@@ -23,7 +23,10 @@ public class Equipment implements Serializable {
     private String name;
 
     private String photo;
+
+    @Column(unique = true)
     private String inventoryNumber;
+
     private LocalDateTime acquisitionDate;
 
     @Enumerated(EnumType.STRING)
@@ -50,6 +53,26 @@ public class Equipment implements Serializable {
 
     private Boolean isComplex;
 
+    /**
+     * Set when the equipment is deleted; the row stays until the background purge removes it. The inventory
+     * number moves to {@link #deletedInventoryNumber} at the same time so it can be registered again.
+     */
+    private LocalDateTime deletedAt;
+
+    /**
+     * Inventory number of deleted equipment, kept outside the unique column so the row still identifies the
+     * physical item and can be restored until it is purged.
+     */
+    private String deletedInventoryNumber;
+
+    /**
+     * Optimistic-lock version. The column default lets {@code ddl-auto=update} add it to tables that already
+     * hold rows.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     public Equipment(String name, String inventoryNumber, LocalDateTime acquisitionDate,
                      AvailabilityStatus availabilityStatus, String accessRequirements, Laboratory laboratory) {
         this.name = name;
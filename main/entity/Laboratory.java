@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
@@ -29,6 +30,19 @@ public class Laboratory implements Serializable {
     @OneToMany(mappedBy = "lab")
     private List<LabDocument> labDocuments;
 
+    /**
+     * Set when the laboratory is deleted; the row stays until the background purge removes it.
+     */
+    private LocalDateTime deletedAt;
+
+    /**
+     * Optimistic-lock version. The column default lets {@code ddl-auto=update} add it to tables that already
+     * hold rows.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     public Laboratory(String labName, String description, String location) {
         this.labName = labName;
         this.description = description;
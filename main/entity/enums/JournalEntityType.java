@@ -0,0 +1,6 @@
+package com.UAIC.ISMA.entity.enums;
+
+public enum JournalEntityType {
+    EQUIPMENT,
+    LABORATORY
+}
@@ -0,0 +1,30 @@
+package com.UAIC.ISMA.event;
+
+import com.UAIC.ISMA.dto.AccessWindowDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the access request write path whenever a request is created, changes status or is removed,
+ * so that {@code AccessWindowIndex} can keep its loaded trees consistent.
+ */
+@Getter
+@AllArgsConstructor
+public class AccessWindowChangeEvent {
+
+    public enum Type {
+        UPSERTED,
+        REMOVED
+    }
+
+    private final Type type;
+    private final AccessWindowDTO window;
+
+    public static AccessWindowChangeEvent upserted(AccessWindowDTO window) {
+        return new AccessWindowChangeEvent(Type.UPSERTED, window);
+    }
+
+    public static AccessWindowChangeEvent removed(AccessWindowDTO window) {
+        return new AccessWindowChangeEvent(Type.REMOVED, window);
+    }
+}
@@ -0,0 +1,60 @@
+package com.UAIC.ISMA.event;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Objects;
+
+@Getter
+public class EquipmentChangeEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        STATUS_CHANGED
+    }
+
+    private final Type type;
+    private final Long equipmentId;
+    private final EquipmentDTO before;
+    private final EquipmentDTO after;
+    private final Instant occurredAt;
+
+    public EquipmentChangeEvent(Type type, Long equipmentId, EquipmentDTO before, EquipmentDTO after) {
+        this.type = type;
+        this.equipmentId = equipmentId;
+        this.before = before;
+        this.after = after;
+        this.occurredAt = Instant.now();
+    }
+
+    public static EquipmentChangeEvent created(EquipmentDTO after) {
+        return new EquipmentChangeEvent(Type.CREATED, after.getId(), null, after);
+    }
+
+    public static EquipmentChangeEvent updated(EquipmentDTO before, EquipmentDTO after) {
+        Type type = Objects.equals(before.getAvailabilityStatus(), after.getAvailabilityStatus())
+                ? Type.UPDATED
+                : Type.STATUS_CHANGED;
+        return new EquipmentChangeEvent(type, after.getId(), before, after);
+    }
+
+    public static EquipmentChangeEvent deleted(EquipmentDTO before) {
+        return new EquipmentChangeEvent(Type.DELETED, before.getId(), before, null);
+    }
+
+    /**
+     * Returns true if the equipment belonged to the given laboratory before or after the change,
+     * so that moves between laboratories are visible to both sides.
+     */
+    public boolean affectsLaboratory(Long laboratoryId) {
+        return (before != null && Objects.equals(before.getLaboratoryId(), laboratoryId))
+                || (after != null && Objects.equals(after.getLaboratoryId(), laboratoryId));
+    }
+
+    public EquipmentDTO getCurrent() {
+        return after != null ? after : before;
+    }
+}
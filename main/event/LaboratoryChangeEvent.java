@@ -0,0 +1,46 @@
+package com.UAIC.ISMA.event;
+
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+public class LaboratoryChangeEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long laboratoryId;
+    private final LaboratoryDTO before;
+    private final LaboratoryDTO after;
+    private final Instant occurredAt;
+
+    public LaboratoryChangeEvent(Type type, Long laboratoryId, LaboratoryDTO before, LaboratoryDTO after) {
+        this.type = type;
+        this.laboratoryId = laboratoryId;
+        this.before = before;
+        this.after = after;
+        this.occurredAt = Instant.now();
+    }
+
+    public static LaboratoryChangeEvent created(LaboratoryDTO after) {
+        return new LaboratoryChangeEvent(Type.CREATED, after.getId(), null, after);
+    }
+
+    public static LaboratoryChangeEvent updated(LaboratoryDTO before, LaboratoryDTO after) {
+        return new LaboratoryChangeEvent(Type.UPDATED, after.getId(), before, after);
+    }
+
+    /**
+     * Deleting a laboratory also removes its equipment; both the soft delete and the decommission job publish a
+     * DELETED equipment event for each of them before this one.
+     */
+    public static LaboratoryChangeEvent deleted(LaboratoryDTO before) {
+        return new LaboratoryChangeEvent(Type.DELETED, before.getId(), before, null);
+    }
+}
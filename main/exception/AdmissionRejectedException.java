@@ -0,0 +1,15 @@
+package com.UAIC.ISMA.exception;
+
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String trafficClass, long retryAfterSeconds) {
+        super("Too many concurrent " + trafficClass + " requests, retry in " + retryAfterSeconds + "s.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.UAIC.ISMA.exception;
+
+public class InventoryNumberNotFoundException extends EntityNotFoundException {
+    public InventoryNumberNotFoundException(String inventoryNumber) {
+        super("Equipment not found with inventory number: " + inventoryNumber);
+    }
+}
@@ -0,0 +1,7 @@
+package com.UAIC.ISMA.exception;
+
+public class SqlBudgetExceededException extends RuntimeException {
+    public SqlBudgetExceededException(String endpoint, String violations) {
+        super("SQL budget exceeded for " + endpoint + ": " + violations);
+    }
+}
@@ -0,0 +1,256 @@
+package com.UAIC.ISMA.index;
+
+import com.UAIC.ISMA.dto.AccessWindowDTO;
+import com.UAIC.ISMA.entity.enums.RequestStatus;
+import com.UAIC.ISMA.event.AccessWindowChangeEvent;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.UAIC.ISMA.util.BatchUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-equipment interval trees of the approved and pending access windows. A tree is loaded the first time an
+ * equipment is queried, kept up to date from {@link AccessWindowChangeEvent}s and evicted once it has not been
+ * used for {@code equipment.access-index.idle-ttl-ms}.
+ * <p>
+ * A tree is also reloaded on the first query after it is {@code equipment.access-index.max-age-ms} old, however
+ * often it is used, so windows written without an event (other instances, SQL run by hand) show up within
+ * that time.
+ */
+@Component
+public class AccessWindowIndex {
+
+    private static final Logger logger = LogManager.getLogger(AccessWindowIndex.class);
+
+    static final Set<RequestStatus> INDEXED_STATUSES = EnumSet.of(RequestStatus.APPROVED, RequestStatus.PENDING);
+
+    private final EquipmentRepository equipmentRepository;
+    private final long idleTtlNanos;
+    private final long maxAgeNanos;
+    private final int maxLoadedEquipment;
+    private final ConcurrentMap<Long, Slot> slots = new ConcurrentHashMap<>();
+
+    public AccessWindowIndex(EquipmentRepository equipmentRepository,
+                             @Value("${equipment.access-index.idle-ttl-ms:600000}") long idleTtlMs,
+                             @Value("${equipment.access-index.max-age-ms:60000}") long maxAgeMs,
+                             @Value("${equipment.access-index.max-equipment:10000}") int maxLoadedEquipment) {
+        this.equipmentRepository = equipmentRepository;
+        this.idleTtlNanos = TimeUnit.MILLISECONDS.toNanos(idleTtlMs);
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+        this.maxLoadedEquipment = maxLoadedEquipment;
+    }
+
+    /**
+     * Returns the indexed windows of the equipment that overlap {@code [from, to)}, ordered by start time.
+     */
+    public List<AccessWindowDTO> findOverlapping(Long equipmentId, LocalDateTime from, LocalDateTime to) {
+        Slot slot = slots.computeIfAbsent(equipmentId, Slot::new);
+        slot.ensureLoaded();
+        slot.lock.readLock().lock();
+        try {
+            List<AccessWindowDTO> overlapping = slot.tree.findOverlapping(toKey(from), toKey(to));
+            overlapping.sort(Comparator.comparing(AccessWindowDTO::getStartTime));
+            return overlapping;
+        } finally {
+            slot.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #findOverlapping(Long, LocalDateTime, LocalDateTime)} for many equipment at once. Trees that
+     * are missing or too old are loaded together with chunked IN queries instead of one query per equipment.
+     */
+    public Map<Long, List<AccessWindowDTO>> findOverlapping(Collection<Long> equipmentIds, LocalDateTime from,
+                                                            LocalDateTime to) {
+        List<Slot> requested = new ArrayList<>(equipmentIds.size());
+        List<Slot> stale = new ArrayList<>();
+        for (Long equipmentId : BatchUtils.distinctInOrder(equipmentIds)) {
+            Slot slot = slots.computeIfAbsent(equipmentId, Slot::new);
+            slot.lastAccessNanos = System.nanoTime();
+            requested.add(slot);
+            if (!slot.isFreshLocked()) {
+                stale.add(slot);
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            Map<Long, List<AccessWindowDTO>> loaded = new HashMap<>();
+            List<Long> staleIds = stale.stream().map(slot -> slot.equipmentId).toList();
+            for (List<Long> chunk : BatchUtils.chunked(staleIds, BatchUtils.IN_CLAUSE_CHUNK_SIZE)) {
+                equipmentRepository.findAccessWindowsByEquipmentIdIn(chunk, INDEXED_STATUSES).forEach(window ->
+                        loaded.computeIfAbsent(window.getEquipmentId(), id -> new ArrayList<>()).add(window));
+            }
+            for (Slot slot : stale) {
+                slot.loadIfStale(loaded.getOrDefault(slot.equipmentId, List.of()));
+            }
+        }
+
+        Map<Long, List<AccessWindowDTO>> overlapping = new HashMap<>();
+        for (Slot slot : requested) {
+            slot.lock.readLock().lock();
+            try {
+                List<AccessWindowDTO> windows = slot.tree.findOverlapping(toKey(from), toKey(to));
+                windows.sort(Comparator.comparing(AccessWindowDTO::getStartTime));
+                overlapping.put(slot.equipmentId, windows);
+            } finally {
+                slot.lock.readLock().unlock();
+            }
+        }
+        return overlapping;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccessWindowChange(AccessWindowChangeEvent event) {
+        AccessWindowDTO window = event.getWindow();
+        Slot slot = slots.get(window.getEquipmentId());
+        if (slot == null) {
+            return;
+        }
+        slot.lock.writeLock().lock();
+        try {
+            if (!slot.loaded) {
+                return;
+            }
+            slot.removeWindow(window.getAccessRequestId());
+            if (event.getType() == AccessWindowChangeEvent.Type.UPSERTED && INDEXED_STATUSES.contains(window.getStatus())) {
+                slot.addWindow(window);
+            }
+        } finally {
+            slot.lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEquipmentChange(EquipmentChangeEvent event) {
+        if (event.getType() == EquipmentChangeEvent.Type.DELETED) {
+            slots.remove(event.getEquipmentId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${equipment.access-index.eviction-interval-ms:60000}")
+    public void evictColdEntries() {
+        long now = System.nanoTime();
+        slots.values().removeIf(slot -> now - slot.lastAccessNanos > idleTtlNanos);
+
+        int excess = slots.size() - maxLoadedEquipment;
+        if (excess > 0) {
+            slots.values().stream()
+                    .sorted(Comparator.comparingLong(slot -> slot.lastAccessNanos))
+                    .limit(excess)
+                    .toList()
+                    .forEach(slot -> slots.remove(slot.equipmentId, slot));
+        }
+        logger.debug("Access window index holds {} equipment trees", slots.size());
+    }
+
+    public int getLoadedEquipmentCount() {
+        return slots.size();
+    }
+
+    private static long toKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private final class Slot {
+        private final Long equipmentId;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private IntervalTree<AccessWindowDTO> tree = new IntervalTree<>();
+        private Map<Long, AccessWindowDTO> windowsById = new HashMap<>();
+        private boolean loaded;
+        private long loadedAtNanos;
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        private Slot(Long equipmentId) {
+            this.equipmentId = equipmentId;
+        }
+
+        private void ensureLoaded() {
+            lastAccessNanos = System.nanoTime();
+            if (isFreshLocked()) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                if (!isFresh()) {
+                    load(equipmentRepository.findAccessWindows(equipmentId, INDEXED_STATUSES));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Installs windows read outside the lock, unless another caller loaded the tree in the meantime.
+         */
+        private void loadIfStale(List<AccessWindowDTO> windows) {
+            lock.writeLock().lock();
+            try {
+                if (!isFresh()) {
+                    load(windows);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void load(List<AccessWindowDTO> windows) {
+            tree = new IntervalTree<>();
+            windowsById = new HashMap<>();
+            loadedAtNanos = System.nanoTime();
+            windows.forEach(this::addWindow);
+            loaded = true;
+            logger.debug("Loaded {} access windows for equipment ID {}", tree.size(), equipmentId);
+        }
+
+        private boolean isFreshLocked() {
+            lock.readLock().lock();
+            try {
+                return isFresh();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private boolean isFresh() {
+            return loaded && System.nanoTime() - loadedAtNanos <= maxAgeNanos;
+        }
+
+        private void addWindow(AccessWindowDTO window) {
+            if (window.getStartTime() == null || window.getEndTime() == null
+                    || !window.getEndTime().isAfter(window.getStartTime())) {
+                return;
+            }
+            removeWindow(window.getAccessRequestId());
+            tree.insert(toKey(window.getStartTime()), toKey(window.getEndTime()), window.getAccessRequestId(), window);
+            windowsById.put(window.getAccessRequestId(), window);
+        }
+
+        private void removeWindow(Long accessRequestId) {
+            AccessWindowDTO previous = windowsById.remove(accessRequestId);
+            if (previous != null) {
+                tree.remove(toKey(previous.getStartTime()), accessRequestId);
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.UAIC.ISMA.index;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.EquipmentFacetsDTO;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.event.LaboratoryChangeEvent;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory compressed-bitmap index over the low-cardinality equipment dimensions: laboratory, availability
+ * status, complexity and acquisition year. Loaded once at startup and kept in sync from the
+ * {@link EquipmentChangeEvent}s published by {@code EquipmentService}.
+ * <p>
+ * Equipment with a null {@code isComplex} flag is indexed as not complex.
+ * <p>
+ * Change events take the lock before looking at {@code ready}, so a change committed while {@link #rebuild()}
+ * is loading waits for it and is applied on top; applying a change the load already saw is harmless.
+ * <p>
+ * Events only cover writes made by this instance. {@link #refresh()} therefore reloads the entries
+ * periodically, off-lock, and reconciles them with the index, skipping the ids that changed while it was
+ * loading since their events are newer than the load.
+ */
+@Component
+public class EquipmentBitmapIndex {
+
+    private static final Logger logger = LogManager.getLogger(EquipmentBitmapIndex.class);
+
+    private final EquipmentRepository equipmentRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, EquipmentIndexEntry> entries = new HashMap<>();
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final Map<Long, CompressedBitmap> byLaboratory = new HashMap<>();
+    private final Map<AvailabilityStatus, CompressedBitmap> byStatus = new EnumMap<>(AvailabilityStatus.class);
+    private final Map<Boolean, CompressedBitmap> byComplexity = new HashMap<>();
+    private final Map<Integer, CompressedBitmap> byAcquisitionYear = new TreeMap<>();
+
+    private Set<Long> changedDuringRefresh;
+    private volatile boolean ready;
+
+    public EquipmentBitmapIndex(EquipmentRepository equipmentRepository,
+                                @Value("${equipment.bitmap-index.enabled:true}") boolean enabled) {
+        this.equipmentRepository = equipmentRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            clear();
+            for (EquipmentIndexEntry entry : equipmentRepository.findIndexEntries()) {
+                if (entry.getId() > Integer.MAX_VALUE) {
+                    logger.error("Equipment ID {} exceeds the bitmap index range, index disabled", entry.getId());
+                    clear();
+                    return;
+                }
+                add(entry);
+            }
+            ready = true;
+            logger.info("Equipment bitmap index loaded with {} entries", entries.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${equipment.bitmap-index.refresh-interval-ms:300000}",
+            fixedDelayString = "${equipment.bitmap-index.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (!enabled || !ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            changedDuringRefresh = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<EquipmentIndexEntry> loaded;
+        try {
+            loaded = equipmentRepository.findIndexEntries();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRefresh = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int reconciled = 0;
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            Map<Long, EquipmentIndexEntry> current = new HashMap<>(loaded.size() * 2);
+            for (EquipmentIndexEntry entry : loaded) {
+                if (entry.getId() > Integer.MAX_VALUE) {
+                    logger.error("Equipment ID {} exceeds the bitmap index range, index disabled", entry.getId());
+                    ready = false;
+                    clear();
+                    return;
+                }
+                current.put(entry.getId(), entry);
+            }
+            for (Long id : new ArrayList<>(entries.keySet())) {
+                if (!current.containsKey(id) && !changedDuringRefresh.contains(id)) {
+                    remove(entries.remove(id));
+                    reconciled++;
+                }
+            }
+            for (EquipmentIndexEntry entry : current.values()) {
+                EquipmentIndexEntry previous = entries.get(entry.getId());
+                if (!entry.equals(previous) && !changedDuringRefresh.contains(entry.getId())) {
+                    if (previous != null) {
+                        remove(previous);
+                    }
+                    add(entry);
+                    reconciled++;
+                }
+            }
+        } finally {
+            changedDuringRefresh = null;
+            lock.writeLock().unlock();
+        }
+        if (reconciled > 0) {
+            logger.info("Equipment bitmap index refresh reconciled {} entries changed elsewhere", reconciled);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEquipmentChange(EquipmentChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRefresh != null) {
+                changedDuringRefresh.add(event.getEquipmentId());
+            }
+            if (!ready) {
+                return;
+            }
+            EquipmentIndexEntry previous = entries.remove(event.getEquipmentId());
+            if (previous != null) {
+                remove(previous);
+            }
+            if (event.getAfter() != null) {
+                if (event.getEquipmentId() > Integer.MAX_VALUE) {
+                    logger.error("Equipment ID {} exceeds the bitmap index range, index disabled", event.getEquipmentId());
+                    ready = false;
+                    clear();
+                    return;
+                }
+                add(toEntry(event.getAfter()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Laboratory deletions remove their equipment without per-equipment events, so drop every id indexed under it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChange(LaboratoryChangeEvent event) {
+        if (event.getType() != LaboratoryChangeEvent.Type.DELETED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            CompressedBitmap labIds = byLaboratory.get(event.getLaboratoryId());
+            if (labIds == null) {
+                return;
+            }
+            List<Long> ids = new ArrayList<>();
+            labIds.forEach(id -> ids.add((long) id));
+            if (changedDuringRefresh != null) {
+                changedDuringRefresh.addAll(ids);
+            }
+            for (Long id : ids) {
+                EquipmentIndexEntry previous = entries.remove(id);
+                if (previous != null) {
+                    remove(previous);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * The index keeps ids in ascending order, so it can only serve unsorted pages or pages sorted by id.
+     */
+    public boolean supports(Sort sort) {
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1 && "id".equals(orders.get(0).getProperty());
+    }
+
+    public Page<Long> findIds(EquipmentFilter filter, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            CompressedBitmap matches = matching(filter);
+            int total = matches.cardinality();
+            if (pageable.isUnpaged()) {
+                List<Long> ids = new ArrayList<>(total);
+                matches.forEach(id -> ids.add((long) id));
+                return new PageImpl<>(ids, pageable, total);
+            }
+
+            boolean descending = pageable.getSort().stream().anyMatch(Sort.Order::isDescending);
+            long offset = pageable.getOffset();
+            List<Long> ids = new ArrayList<>(pageable.getPageSize());
+            for (long rank = offset; rank < total && rank < offset + pageable.getPageSize(); rank++) {
+                int position = descending ? (int) (total - 1 - rank) : (int) rank;
+                ids.add((long) matches.select(position));
+            }
+            return new PageImpl<>(ids, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count(EquipmentFilter filter) {
+        lock.readLock().lock();
+        try {
+            return matching(filter).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the equipment matching the filter, broken down by every indexed dimension.
+     */
+    public EquipmentFacetsDTO facets(EquipmentFilter filter) {
+        if (!ready) {
+            return facetsFromDatabase(filter);
+        }
+        lock.readLock().lock();
+        try {
+            CompressedBitmap matches = matching(filter);
+            return new EquipmentFacetsDTO(
+                    matches.cardinality(),
+                    countBy(new EnumMap<>(AvailabilityStatus.class), byStatus, matches),
+                    countBy(new LinkedHashMap<>(), byLaboratory, matches),
+                    countBy(new LinkedHashMap<>(), byComplexity, matches),
+                    countBy(new LinkedHashMap<>(), byAcquisitionYear, matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fallback while the index is loading: one GROUP BY query per dimension. Every row has a complexity, so the
+     * total is the sum of that breakdown.
+     */
+    private EquipmentFacetsDTO facetsFromDatabase(EquipmentFilter filter) {
+        Long labId = filter.getLaboratoryId();
+        AvailabilityStatus status = filter.getAvailabilityStatus();
+        Boolean isComplex = filter.getIsComplex();
+        Integer year = filter.getAcquisitionYear();
+
+        Map<Boolean, Long> byComplexity = new LinkedHashMap<>();
+        collect(byComplexity, equipmentRepository.countFacetsByComplexity(labId, status, isComplex, year), Boolean.class::cast);
+        return new EquipmentFacetsDTO(
+                byComplexity.values().stream().mapToLong(Long::longValue).sum(),
+                collect(new EnumMap<>(AvailabilityStatus.class),
+                        equipmentRepository.countFacetsByAvailabilityStatus(labId, status, isComplex, year),
+                        AvailabilityStatus.class::cast),
+                collect(new LinkedHashMap<>(), equipmentRepository.countFacetsByLaboratory(labId, status, isComplex, year),
+                        value -> ((Number) value).longValue()),
+                byComplexity,
+                collect(new TreeMap<>(), equipmentRepository.countFacetsByAcquisitionYear(labId, status, isComplex, year),
+                        value -> ((Number) value).intValue()));
+    }
+
+    private static <K> Map<K, Long> collect(Map<K, Long> target, List<FacetCount> counts, Function<Object, K> key) {
+        for (FacetCount count : counts) {
+            if (count.getValue() != null) {
+                target.put(key.apply(count.getValue()), count.getCount());
+            }
+        }
+        return target;
+    }
+
+    private CompressedBitmap matching(EquipmentFilter filter) {
+        CompressedBitmap result = all;
+        if (filter.getLaboratoryId() != null) {
+            result = result.and(bitmapOrEmpty(byLaboratory, filter.getLaboratoryId()));
+        }
+        if (filter.getAvailabilityStatus() != null) {
+            result = result.and(bitmapOrEmpty(byStatus, filter.getAvailabilityStatus()));
+        }
+        if (filter.getIsComplex() != null) {
+            result = result.and(bitmapOrEmpty(byComplexity, filter.getIsComplex()));
+        }
+        if (filter.getAcquisitionYear() != null) {
+            result = result.and(bitmapOrEmpty(byAcquisitionYear, filter.getAcquisitionYear()));
+        }
+        return result;
+    }
+
+    private static <K> Map<K, Long> countBy(Map<K, Long> target, Map<K, CompressedBitmap> dimension,
+                                            CompressedBitmap matches) {
+        dimension.forEach((key, bitmap) -> {
+            int count = bitmap.andCardinality(matches);
+            if (count > 0) {
+                target.put(key, (long) count);
+            }
+        });
+        return target;
+    }
+
+    private static <K> CompressedBitmap bitmapOrEmpty(Map<K, CompressedBitmap> dimension, K key) {
+        CompressedBitmap bitmap = dimension.get(key);
+        return bitmap != null ? bitmap : new CompressedBitmap();
+    }
+
+    private void add(EquipmentIndexEntry entry) {
+        int id = entry.getId().intValue();
+        entries.put(entry.getId(), entry);
+        all.add(id);
+        if (entry.getLaboratoryId() != null) {
+            byLaboratory.computeIfAbsent(entry.getLaboratoryId(), k -> new CompressedBitmap()).add(id);
+        }
+        if (entry.getAvailabilityStatus() != null) {
+            byStatus.computeIfAbsent(entry.getAvailabilityStatus(), k -> new CompressedBitmap()).add(id);
+        }
+        byComplexity.computeIfAbsent(Boolean.TRUE.equals(entry.getIsComplex()), k -> new CompressedBitmap()).add(id);
+        if (entry.getAcquisitionYear() != null) {
+            byAcquisitionYear.computeIfAbsent(entry.getAcquisitionYear(), k -> new CompressedBitmap()).add(id);
+        }
+    }
+
+    private void remove(EquipmentIndexEntry entry) {
+        int id = entry.getId().intValue();
+        all.remove(id);
+        removeFrom(byLaboratory, entry.getLaboratoryId(), id);
+        removeFrom(byStatus, entry.getAvailabilityStatus(), id);
+        removeFrom(byComplexity, Boolean.TRUE.equals(entry.getIsComplex()), id);
+        removeFrom(byAcquisitionYear, entry.getAcquisitionYear(), id);
+    }
+
+    private static <K> void removeFrom(Map<K, CompressedBitmap> dimension, K key, int id) {
+        if (key == null) {
+            return;
+        }
+        CompressedBitmap bitmap = dimension.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                dimension.remove(key);
+            }
+        }
+    }
+
+    private void clear() {
+        entries.keySet().forEach(id -> all.remove(id.intValue()));
+        entries.clear();
+        byLaboratory.clear();
+        byStatus.clear();
+        byComplexity.clear();
+        byAcquisitionYear.clear();
+    }
+
+    private static EquipmentIndexEntry toEntry(EquipmentDTO dto) {
+        return new EquipmentIndexEntry(dto.getId(), dto.getLaboratoryId(), dto.getAvailabilityStatus(),
+                dto.getIsComplex(), dto.getAcquisitionDate());
+    }
+}
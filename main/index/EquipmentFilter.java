@@ -0,0 +1,21 @@
+package com.UAIC.ISMA.index;
+
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Combination of the equipment dimensions served by {@link EquipmentBitmapIndex}. A null field means "any".
+ */
+@Data
+@AllArgsConstructor
+public class EquipmentFilter {
+    private Long laboratoryId;
+    private AvailabilityStatus availabilityStatus;
+    private Boolean isComplex;
+    private Integer acquisitionYear;
+
+    public static EquipmentFilter of(Long laboratoryId, AvailabilityStatus availabilityStatus) {
+        return new EquipmentFilter(laboratoryId, availabilityStatus, null, null);
+    }
+}
@@ -0,0 +1,24 @@
+package com.UAIC.ISMA.index;
+
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the equipment columns covered by {@link EquipmentBitmapIndex}.
+ */
+@Data
+@AllArgsConstructor
+public class EquipmentIndexEntry {
+    private Long id;
+    private Long laboratoryId;
+    private AvailabilityStatus availabilityStatus;
+    private Boolean isComplex;
+    private LocalDateTime acquisitionDate;
+
+    public Integer getAcquisitionYear() {
+        return acquisitionDate != null ? acquisitionDate.getYear() : null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.UAIC.ISMA.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One group of a facet count query: a value of the grouped dimension and how many equipment rows have it.
+ */
+@Data
+@AllArgsConstructor
+public class FacetCount {
+    private Object value;
+    private Long count;
+}
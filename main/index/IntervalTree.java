@@ -0,0 +1,166 @@
+package com.UAIC.ISMA.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Augmented randomized search tree (treap) of half-open intervals {@code [start, end)}, ordered by start and
+ * identified by a caller-supplied id. Every node tracks the largest end in its subtree, so overlap queries run
+ * in O(log n + k).
+ * <p>
+ * Instances are not thread-safe; callers are expected to guard them with their own lock.
+ */
+public class IntervalTree<T> {
+
+    private static final class Node<T> {
+        private final long start;
+        private final long end;
+        private final long id;
+        private final T value;
+        private final int priority;
+        private long maxEnd;
+        private Node<T> left;
+        private Node<T> right;
+
+        private Node(long start, long end, long id, T value) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<T> root;
+    private int size;
+    private boolean removed;
+
+    public void insert(long start, long end, long id, T value) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Interval end must be after its start");
+        }
+        root = insert(root, new Node<>(start, end, id, value));
+        size++;
+    }
+
+    public boolean remove(long start, long id) {
+        removed = false;
+        root = remove(root, start, id);
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    public List<T> findOverlapping(long from, long to) {
+        List<T> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.start, inserted.id, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> remove(Node<T> node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, id, node);
+        if (comparison < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            removed = true;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private void collect(Node<T> node, long from, long to, List<T> result) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.start < to && node.end > from) {
+            result.add(node.value);
+        }
+        if (node.start < to) {
+            collect(node.right, from, to, result);
+        }
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static <T> void update(Node<T> node) {
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int compare(long start, long id, Node<?> node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : Long.compare(id, node.id);
+    }
+}
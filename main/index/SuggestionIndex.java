@@ -0,0 +1,250 @@
+package com.UAIC.ISMA.index;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.EquipmentSummaryDTO;
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.dto.SuggestionDTO;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.event.LaboratoryChangeEvent;
+import com.UAIC.ISMA.index.SuggestionTrie.TermType;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.UAIC.ISMA.repository.LaboratoryRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete index over equipment names, inventory numbers and laboratory names.
+ * <p>
+ * The terms contributed by each equipment and laboratory are remembered by id, so a change replaces them
+ * instead of adding on top. Writes are applied incrementally from change events. A full rebuild runs
+ * periodically, and sooner after a laboratory deletion as a safety net for its equipment. It is built
+ * off-lock, then the latest state of every id changed meanwhile is set again on it, which gives the same
+ * result whether or not its queries already saw the change. It keeps the usage weights and is then swapped
+ * in atomically.
+ * <p>
+ * Usage is counted without locking and folded into the trie periodically.
+ */
+@Component
+public class SuggestionIndex {
+
+    private static final Logger logger = LogManager.getLogger(SuggestionIndex.class);
+
+    private final EquipmentRepository equipmentRepository;
+    private final LaboratoryRepository laboratoryRepository;
+    private final long rebuildIntervalNanos;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ConcurrentMap<String, LongAdder> pendingUsage = new ConcurrentHashMap<>();
+
+    private Terms terms = new Terms();
+    private Map<Long, EquipmentTerms> equipmentChangedDuringRebuild;
+    private Map<Long, String> laboratoriesChangedDuringRebuild;
+    private volatile boolean dirty = true;
+    private volatile long lastRebuildNanos;
+
+    public SuggestionIndex(EquipmentRepository equipmentRepository,
+                           LaboratoryRepository laboratoryRepository,
+                           @Value("${equipment.suggest.rebuild-interval-ms:3600000}") long rebuildIntervalMs) {
+        this.equipmentRepository = equipmentRepository;
+        this.laboratoryRepository = laboratoryRepository;
+        this.rebuildIntervalNanos = TimeUnit.MILLISECONDS.toNanos(rebuildIntervalMs);
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return terms.trie.suggest(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts a use of the given text; it is reflected in the weights at the next {@link #flushUsage()}.
+     */
+    public void recordUsage(String text) {
+        String key = SuggestionTrie.normalize(text);
+        if (!key.isEmpty()) {
+            pendingUsage.computeIfAbsent(key, k -> new LongAdder()).increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${equipment.suggest.usage-flush-interval-ms:1000}")
+    public void flushUsage() {
+        if (pendingUsage.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, LongAdder> entry : pendingUsage.entrySet()) {
+                long hits = entry.getValue().sumThenReset();
+                if (hits > 0) {
+                    terms.trie.recordUsage(entry.getKey(), hits);
+                } else {
+                    pendingUsage.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        lock.writeLock().lock();
+        try {
+            equipmentChangedDuringRebuild = new LinkedHashMap<>();
+            laboratoriesChangedDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dirty = false;
+
+        Terms rebuilt = new Terms();
+        try {
+            for (EquipmentSummaryDTO equipment : equipmentRepository.findAllSummaries()) {
+                rebuilt.setEquipment(equipment.getId(),
+                        new EquipmentTerms(equipment.getName(), equipment.getInventoryNumber()));
+            }
+            for (LaboratoryDTO laboratory : laboratoryRepository.findAllActiveDTOs()) {
+                rebuilt.setLaboratory(laboratory.getId(), laboratory.getLabName());
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                equipmentChangedDuringRebuild = null;
+                laboratoriesChangedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            dirty = true;
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            equipmentChangedDuringRebuild.forEach(rebuilt::setEquipment);
+            laboratoriesChangedDuringRebuild.forEach(rebuilt::setLaboratory);
+            equipmentChangedDuringRebuild = null;
+            laboratoriesChangedDuringRebuild = null;
+            rebuilt.trie.copyUsageFrom(terms.trie);
+            terms = rebuilt;
+            lastRebuildNanos = System.nanoTime();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Suggestion index rebuilt with {} terms", rebuilt.trie.size());
+    }
+
+    @Scheduled(fixedDelayString = "${equipment.suggest.check-interval-ms:30000}")
+    public void rebuildIfStale() {
+        if (dirty || System.nanoTime() - lastRebuildNanos > rebuildIntervalNanos) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEquipmentChange(EquipmentChangeEvent event) {
+        EquipmentDTO after = event.getAfter();
+        EquipmentTerms equipmentTerms = after != null
+                ? new EquipmentTerms(after.getName(), after.getInventoryNumber())
+                : null;
+        lock.writeLock().lock();
+        try {
+            terms.setEquipment(event.getEquipmentId(), equipmentTerms);
+            if (equipmentChangedDuringRebuild != null) {
+                equipmentChangedDuringRebuild.put(event.getEquipmentId(), equipmentTerms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChange(LaboratoryChangeEvent event) {
+        LaboratoryDTO after = event.getAfter();
+        String labName = after != null ? after.getLabName() : null;
+        lock.writeLock().lock();
+        try {
+            terms.setLaboratory(event.getLaboratoryId(), labName);
+            if (laboratoriesChangedDuringRebuild != null) {
+                laboratoriesChangedDuringRebuild.put(event.getLaboratoryId(), labName);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (event.getType() == LaboratoryChangeEvent.Type.DELETED) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * The trie together with the terms each id contributed to it. A null value removes the id.
+     */
+    private static final class Terms {
+        private final SuggestionTrie trie = new SuggestionTrie();
+        private final Map<Long, EquipmentTerms> equipment = new HashMap<>();
+        private final Map<Long, String> laboratories = new HashMap<>();
+
+        void setEquipment(Long id, EquipmentTerms current) {
+            EquipmentTerms previous = current != null ? equipment.put(id, current) : equipment.remove(id);
+            if (previous != null) {
+                trie.remove(TermType.EQUIPMENT_NAME, previous.name);
+                trie.remove(TermType.INVENTORY_NUMBER, previous.inventoryNumber);
+            }
+            if (current != null) {
+                trie.add(TermType.EQUIPMENT_NAME, current.name);
+                trie.add(TermType.INVENTORY_NUMBER, current.inventoryNumber);
+            }
+        }
+
+        void setLaboratory(Long id, String labName) {
+            String previous = labName != null ? laboratories.put(id, labName) : laboratories.remove(id);
+            if (previous != null) {
+                trie.remove(TermType.LAB_NAME, previous);
+            }
+            if (labName != null) {
+                trie.add(TermType.LAB_NAME, labName);
+            }
+        }
+    }
+
+    private static final class EquipmentTerms {
+        private final String name;
+        private final String inventoryNumber;
+
+        EquipmentTerms(String name, String inventoryNumber) {
+            this.name = name;
+            this.inventoryNumber = inventoryNumber;
+        }
+    }
+}
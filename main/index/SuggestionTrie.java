@@ -0,0 +1,251 @@
+package com.UAIC.ISMA.index;
+
+import com.UAIC.ISMA.dto.SuggestionDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Character trie of suggestion terms in which every node caches the {@value #MAX_SUGGESTIONS} heaviest terms
+ * of its subtree, so a prefix lookup costs O(prefix length) regardless of how many terms share the prefix.
+ * <p>
+ * The weight of a term is the number of indexed items carrying it plus the number of times it was used.
+ * Instances are not thread-safe; callers are expected to guard them with their own lock.
+ */
+public class SuggestionTrie {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    public enum TermType {
+        EQUIPMENT_NAME,
+        INVENTORY_NUMBER,
+        LAB_NAME
+    }
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Term[] NO_TERMS = new Term[0];
+
+    private static final Comparator<Term> BY_WEIGHT = Comparator
+            .comparingLong(Term::weight).reversed()
+            .thenComparing(term -> term.text);
+
+    private final Node root = new Node();
+    private final Map<String, Term> terms = new HashMap<>();
+
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private Term[] top = NO_TERMS;
+        private Term[] terminals = NO_TERMS;
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newLabels[index] = label;
+            newChildren[index] = child;
+            System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+    }
+
+    private static final class Term {
+        private final String key;
+        private final String text;
+        private final TermType type;
+        private long occurrences;
+        private long hits;
+
+        private Term(String key, String text, TermType type) {
+            this.key = key;
+            this.text = text;
+            this.type = type;
+        }
+
+        private long weight() {
+            return occurrences + hits;
+        }
+    }
+
+    public void add(TermType type, String text) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+        Term term = terms.computeIfAbsent(type + ":" + key, k -> new Term(key, text.trim(), type));
+        term.occurrences++;
+        if (term.occurrences == 1) {
+            Node node = node(key, true);
+            node.terminals = append(node.terminals, term);
+        }
+        promote(term);
+    }
+
+    public void remove(TermType type, String text) {
+        String key = normalize(text);
+        Term term = terms.get(type + ":" + key);
+        if (term == null) {
+            return;
+        }
+        term.occurrences--;
+        if (term.occurrences <= 0) {
+            terms.remove(type + ":" + key);
+            Node node = node(key, false);
+            node.terminals = Arrays.stream(node.terminals).filter(t -> t != term).toArray(Term[]::new);
+        }
+        demote(term);
+    }
+
+    /**
+     * Bumps the usage weight of every indexed term equal to the given text.
+     */
+    public void recordUsage(String text) {
+        recordUsage(text, 1);
+    }
+
+    void recordUsage(String text, long hits) {
+        String key = normalize(text);
+        for (TermType type : TermType.values()) {
+            Term term = terms.get(type + ":" + key);
+            if (term != null) {
+                term.hits += hits;
+                promote(term);
+            }
+        }
+    }
+
+    /**
+     * Copies the usage weights accumulated in another trie, used when a freshly built trie replaces an old one.
+     */
+    public void copyUsageFrom(SuggestionTrie other) {
+        for (Term term : other.terms.values()) {
+            Term own = terms.get(term.type + ":" + term.key);
+            if (own != null && term.hits > 0) {
+                own.hits += term.hits;
+                promote(own);
+            }
+        }
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        Node node = root;
+        String key = normalize(prefix);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        int count = Math.min(Math.min(limit, MAX_SUGGESTIONS), node.top.length);
+        List<SuggestionDTO> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Term term = node.top[i];
+            suggestions.add(new SuggestionDTO(term.text, term.type.name(), term.weight()));
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return terms.size();
+    }
+
+    private Node node(String key, boolean create) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = create ? node.childOrCreate(key.charAt(i)) : node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * The term got heavier: it can only move up in the caches along its path.
+     */
+    private void promote(Term term) {
+        Node node = root;
+        for (int i = 0; ; i++) {
+            Term[] top = node.top;
+            int position = indexOf(top, term);
+            if (position < 0) {
+                if (top.length < MAX_SUGGESTIONS) {
+                    top = append(top, term);
+                } else if (BY_WEIGHT.compare(term, top[top.length - 1]) < 0) {
+                    top = top.clone();
+                    top[top.length - 1] = term;
+                }
+            } else {
+                top = top.clone();
+            }
+            Arrays.sort(top, BY_WEIGHT);
+            node.top = top;
+            if (i == term.key.length()) {
+                return;
+            }
+            node = node.child(term.key.charAt(i));
+        }
+    }
+
+    /**
+     * The term got lighter or disappeared: rebuild the caches along its path from the deepest node upwards.
+     */
+    private void demote(Term term) {
+        Node[] path = new Node[term.key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < term.key.length(); i++) {
+            path[i + 1] = path[i].child(term.key.charAt(i));
+        }
+        for (int i = path.length - 1; i >= 0; i--) {
+            if (indexOf(path[i].top, term) >= 0 || path[i].top.length < MAX_SUGGESTIONS) {
+                recompute(path[i]);
+            }
+        }
+    }
+
+    private void recompute(Node node) {
+        List<Term> candidates = new ArrayList<>(Arrays.asList(node.terminals));
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(BY_WEIGHT);
+        node.top = candidates.subList(0, Math.min(candidates.size(), MAX_SUGGESTIONS)).toArray(NO_TERMS);
+    }
+
+    private static int indexOf(Term[] terms, Term term) {
+        for (int i = 0; i < terms.length; i++) {
+            if (terms[i] == term) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Term[] append(Term[] terms, Term term) {
+        Term[] result = Arrays.copyOf(terms, terms.length + 1);
+        result[terms.length] = term;
+        return result;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,34 @@
+package com.UAIC.ISMA.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.UAIC.ISMA.ControllerRequest")
+@Label("Controller Request")
+@Category({"ISMA", "Request Pipeline"})
+@Description("Handling of one HTTP request by an equipment or laboratory controller")
+@StackTrace(false)
+@Threshold("10 ms")
+public class ControllerRequestEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Handler")
+    String handler;
+
+    @Label("Entity Id")
+    @Description("Value of the id path variable, 0 when there is none")
+    long entityId;
+
+    @Label("Status")
+    int status;
+
+    @Label("Outcome")
+    String outcome;
+}
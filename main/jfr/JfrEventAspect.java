@@ -0,0 +1,113 @@
+package com.UAIC.ISMA.jfr;
+
+import com.UAIC.ISMA.aop.RequestTags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits JFR events for controller handlers, service methods and repository calls, so a continuous recording
+ * can line up GC pauses and lock contention with the request being served.
+ * <p>
+ * When no recording has the event enabled, each call costs one {@code isEnabled()} check. Attributes are only
+ * computed for events that pass their threshold. Set {@code jfr.events.enabled=false} to drop the aspect.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "jfr.events.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrEventAspect {
+
+    @Around("com.UAIC.ISMA.aop.Pointcuts.controllerMethods()")
+    public Object recordController(ProceedingJoinPoint joinPoint) throws Throwable {
+        ControllerRequestEvent event = new ControllerRequestEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = RequestTags.endpoint();
+                event.handler = RequestTags.declaringType(joinPoint) + "." + joinPoint.getSignature().getName();
+                event.entityId = idOrZero(RequestTags.entityId(joinPoint));
+                event.status = result instanceof ResponseEntity<?> response ? response.getStatusCode().value() : 0;
+                event.outcome = RequestTags.outcome(error);
+                event.commit();
+            }
+        }
+    }
+
+    @Around("com.UAIC.ISMA.aop.Pointcuts.serviceMethods()")
+    public Object recordService(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = RequestTags.endpoint();
+                event.service = RequestTags.declaringType(joinPoint);
+                event.method = joinPoint.getSignature().getName();
+                event.filter = RequestTags.filterShape(joinPoint);
+                event.entityId = idOrZero(RequestTags.entityId(joinPoint));
+                event.rows = RequestTags.resultSize(result);
+                event.outcome = RequestTags.outcome(error);
+                event.commit();
+            }
+        }
+    }
+
+    @Around("com.UAIC.ISMA.aop.Pointcuts.repositoryMethods()")
+    public Object recordRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = RequestTags.endpoint();
+                event.repository = RequestTags.declaringType(joinPoint);
+                event.method = joinPoint.getSignature().getName();
+                event.entityId = idOrZero(RequestTags.entityId(joinPoint));
+                event.rows = RequestTags.resultSize(result);
+                event.outcome = RequestTags.outcome(error);
+                event.commit();
+            }
+        }
+    }
+
+    private static long idOrZero(Long id) {
+        return id != null ? id : 0;
+    }
+}
@@ -0,0 +1,48 @@
+package com.UAIC.ISMA.jfr;
+
+import com.UAIC.ISMA.aop.RequestTags;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter emitting a {@link SerializationEvent} per response body. Being a
+ * {@link MappingJackson2HttpMessageConverter} bean, it replaces the one Spring Boot would register and uses the
+ * same auto-configured {@link ObjectMapper}.
+ */
+@Component
+@ConditionalOnProperty(name = "jfr.events.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public JfrJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        SerializationEvent event = new SerializationEvent();
+        if (!event.isEnabled()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        event.begin();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = RequestTags.endpoint();
+                event.type = object.getClass().getSimpleName();
+                event.elements = RequestTags.resultSize(object);
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.UAIC.ISMA.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted from the static mappers, which Spring AOP cannot intercept. Conversions touching lazy associations
+ * (laboratory equipment and documents) show up here as slow events with a child count.
+ */
+@Name("com.UAIC.ISMA.MapperConversion")
+@Label("Mapper Conversion")
+@Category({"ISMA", "Request Pipeline"})
+@Description("Conversion of one entity to its DTO")
+@StackTrace(false)
+@Threshold("1 ms")
+public class MapperConversionEvent extends Event {
+
+    @Label("Mapper")
+    String mapper;
+
+    @Label("Entity Id")
+    long entityId;
+
+    @Label("Children")
+    @Description("Associated ids copied into the DTO")
+    long children;
+
+    public static MapperConversionEvent start() {
+        MapperConversionEvent event = new MapperConversionEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String mapper, Long entityId, long children) {
+        end();
+        if (shouldCommit()) {
+            this.mapper = mapper;
+            this.entityId = entityId != null ? entityId : 0;
+            this.children = children;
+            commit();
+        }
+    }
+}
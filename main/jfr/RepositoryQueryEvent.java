@@ -0,0 +1,38 @@
+package com.UAIC.ISMA.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.UAIC.ISMA.RepositoryQuery")
+@Label("Repository Query")
+@Category({"ISMA", "Request Pipeline"})
+@Description("One repository call, including the statements it runs")
+@StackTrace(false)
+@Threshold("1 ms")
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Entity Id")
+    @Description("First id argument, 0 when there is none")
+    long entityId;
+
+    @Label("Rows")
+    @Description("Elements returned")
+    long rows;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,28 @@
+package com.UAIC.ISMA.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.UAIC.ISMA.Serialization")
+@Label("JSON Serialization")
+@Category({"ISMA", "Request Pipeline"})
+@Description("Writing one JSON response body")
+@StackTrace(false)
+@Threshold("5 ms")
+public class SerializationEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Type")
+    String type;
+
+    @Label("Elements")
+    @Description("Elements in the body when it is a collection or page, 1 otherwise")
+    long elements;
+}
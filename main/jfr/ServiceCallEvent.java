@@ -0,0 +1,42 @@
+package com.UAIC.ISMA.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.UAIC.ISMA.ServiceCall")
+@Label("Service Call")
+@Category({"ISMA", "Request Pipeline"})
+@Description("One public call into EquipmentService or LaboratoryService")
+@StackTrace(false)
+@Threshold("5 ms")
+public class ServiceCallEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Service")
+    String service;
+
+    @Label("Method")
+    String method;
+
+    @Label("Filter")
+    @Description("Names of the non-null filter arguments")
+    String filter;
+
+    @Label("Entity Id")
+    @Description("First id argument, 0 when there is none")
+    long entityId;
+
+    @Label("Rows")
+    @Description("Elements returned")
+    long rows;
+
+    @Label("Outcome")
+    String outcome;
+}
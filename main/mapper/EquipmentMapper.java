@@ -4,11 +4,13 @@ import com.UAIC.ISMA.entity.Equipment;
 import com.UAIC.ISMA.entity.Laboratory;
 import com.UAIC.ISMA.dto.EquipmentDTO;
 import com.UAIC.ISMA.exception.EntityNotFoundException;
+import com.UAIC.ISMA.jfr.MapperConversionEvent;
 import com.UAIC.ISMA.repository.LaboratoryRepository;
 
 public class EquipmentMapper {
 
     public static EquipmentDTO convertToDTO(Equipment equipment) {
+        MapperConversionEvent event = MapperConversionEvent.start();
         EquipmentDTO dto = new EquipmentDTO();
         dto.setId(equipment.getId());
         dto.setName(equipment.getName());
@@ -21,11 +23,13 @@ public class EquipmentMapper {
         dto.setMaterial(equipment.getMaterial());
         dto.setDescription(equipment.getDescription());
         dto.setIsComplex(equipment.getIsComplex());
+        dto.setVersion(equipment.getVersion());
 
         if (equipment.getLaboratory() != null) {
             dto.setLaboratoryId(equipment.getLaboratory().getId());
         }
 
+        event.finish("EquipmentMapper.convertToDTO", dto.getId(), 0);
         return dto;
     }
 
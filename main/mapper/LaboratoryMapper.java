@@ -2,6 +2,7 @@ package com.UAIC.ISMA.mapper;
 
 import com.UAIC.ISMA.entity.Laboratory;
 import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.jfr.MapperConversionEvent;
 
 
 import java.util.stream.Collectors;
@@ -10,14 +11,17 @@ import java.util.stream.Collectors;
 public class LaboratoryMapper {
 
     public static LaboratoryDTO convertToDTO(Laboratory lab) {
+        MapperConversionEvent event = MapperConversionEvent.start();
         LaboratoryDTO dto = new LaboratoryDTO();
         dto.setId(lab.getId());
         dto.setLabName(lab.getLabName());
         dto.setDescription(lab.getDescription());
         dto.setLocation(lab.getLocation());
+        dto.setVersion(lab.getVersion());
 
         if (lab.getEquipments() != null) {
             dto.setEquipmentIds( lab.getEquipments().stream()
+                            .filter(e -> e.getDeletedAt() == null)
                             .map(e -> e.getId())
                             .collect(Collectors.toList())
             );
@@ -30,9 +34,16 @@ public class LaboratoryMapper {
             );
         }
 
+        event.finish("LaboratoryMapper.convertToDTO", dto.getId(), childCount(dto));
         return dto;
     }
 
+    private static long childCount(LaboratoryDTO dto) {
+        long equipment = dto.getEquipmentIds() != null ? dto.getEquipmentIds().size() : 0;
+        long documents = dto.getLabDocumentIds() != null ? dto.getLabDocumentIds().size() : 0;
+        return equipment + documents;
+    }
+
     public static Laboratory convertToEntity(LaboratoryDTO dto) {
         Laboratory lab = new Laboratory();
         lab.setLabName(dto.getLabName());
@@ -0,0 +1,6 @@
+package com.UAIC.ISMA.replica;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,85 @@
+package com.UAIC.ISMA.replica;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Client token for read-your-writes: the time of the client's last committed write, kept in a short-lived
+ * cookie so the client's next requests read from the primary until the replica has caught up with it. The
+ * application has no server-side session, so the cookie is the session.
+ * <p>
+ * A forged or future value only sends that client's own reads to the primary, and never for longer than the
+ * cookie lives.
+ * <p>
+ * Callers that share one load between concurrent requests must key it by {@link #currentClientWrite()} too, or
+ * a client that has to read from the primary can be handed the result of another client's replica read.
+ */
+public final class ReadYourWrites {
+
+    static final String COOKIE_NAME = "ISMA-Last-Write";
+
+    private static final String ATTRIBUTE = ReadYourWrites.class.getName() + ".lastWrite";
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Time of the current client's last write in epoch millis, or 0 outside a request or without a write.
+     */
+    public static long currentClientWrite() {
+        return lastWriteMillis(System.currentTimeMillis());
+    }
+
+    static long lastWriteMillis(long nowMillis) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return 0;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getAttribute(ATTRIBUTE) instanceof Long lastWrite) {
+            return lastWrite;
+        }
+        long lastWrite = Math.min(parse(WebUtils.getCookie(request, COOKIE_NAME)), nowMillis);
+        request.setAttribute(ATTRIBUTE, lastWrite);
+        return lastWrite;
+    }
+
+    /**
+     * Whether the current thread is serving a client request, as opposed to a scheduled or background job.
+     */
+    static boolean inRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes;
+    }
+
+    /**
+     * Pins the rest of the current request and, through the cookie, the client's next requests to the primary.
+     */
+    static void recordWrite(long writeMillis, int maxAgeSeconds) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        attributes.getRequest().setAttribute(ATTRIBUTE, writeMillis);
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(writeMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(maxAgeSeconds);
+            response.addCookie(cookie);
+        }
+    }
+
+    private static long parse(Cookie cookie) {
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.UAIC.ISMA.replica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.LongSupplier;
+
+/**
+ * Measures how far the replica is behind the primary and decides whether it may serve a read.
+ * <p>
+ * {@code replica.lag-query} must return the replay lag in seconds, e.g. on PostgreSQL
+ * {@code SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)}. Without it the
+ * replica is only probed for connectivity and assumed to be {@code replica.max-lag-ms} behind.
+ * <p>
+ * The replica is skipped while it is unreachable, lags more than {@code replica.max-lag-ms}, or has not been
+ * measured for three check intervals. A measurement taken at time {@code t} with lag {@code l} means the
+ * replica holds every write committed before {@code t - l}.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LogManager.getLogger(ReplicaLagMonitor.class);
+
+    private static final String PROBE_QUERY = "SELECT 1";
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final long staleAfterMillis;
+    private final LongSupplier clock;
+
+    private volatile Measurement measurement;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMillis, long checkIntervalMillis) {
+        this(replica, lagQuery, maxLagMillis, checkIntervalMillis, System::currentTimeMillis);
+    }
+
+    ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMillis, long checkIntervalMillis,
+                      LongSupplier clock) {
+        this.replica = replica;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.maxLagMillis = maxLagMillis;
+        this.staleAfterMillis = 3 * checkIntervalMillis;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.lag-check-interval-ms:1000}")
+    public void check() {
+        long startedAt = clock.getAsLong();
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery != null ? lagQuery : PROBE_QUERY)) {
+            long lagMillis = maxLagMillis;
+            if (lagQuery != null) {
+                if (!resultSet.next()) {
+                    throw new SQLException("Replica lag query returned no row");
+                }
+                lagMillis = Math.max(0, Math.round(resultSet.getDouble(1) * 1000));
+            }
+            if (measurement == null || measurement.lagMillis > maxLagMillis) {
+                logger.info("Replica available, {} ms behind", lagMillis);
+            }
+            measurement = new Measurement(startedAt, lagMillis);
+        } catch (SQLException | RuntimeException e) {
+            if (measurement != null) {
+                logger.warn("Replica lag check failed, reading from the primary", e);
+            }
+            measurement = null;
+        }
+    }
+
+    /**
+     * Whether the replica may serve a read that must see every write committed up to {@code writeMillis}
+     * (0 for none).
+     */
+    public boolean hasCaughtUpTo(long writeMillis) {
+        Measurement current = measurement;
+        if (current == null || current.lagMillis > maxLagMillis
+                || clock.getAsLong() - current.checkedAtMillis > staleAfterMillis) {
+            return false;
+        }
+        return writeMillis < current.checkedAtMillis - current.lagMillis;
+    }
+
+    /**
+     * Last measured lag in milliseconds, or -1 while the replica is unavailable.
+     */
+    public long getLagMillis() {
+        Measurement current = measurement;
+        return current != null ? current.lagMillis : -1;
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("isma.replica.lag", this,
+                        monitor -> monitor.getLagMillis() < 0 ? Double.NaN : monitor.getLagMillis() / 1000.0)
+                .description("Replica replay lag, NaN while the replica is unavailable")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    private static final class Measurement {
+        private final long checkedAtMillis;
+        private final long lagMillis;
+
+        private Measurement(long checkedAtMillis, long lagMillis) {
+            this.checkedAtMillis = checkedAtMillis;
+            this.lagMillis = lagMillis;
+        }
+    }
+}
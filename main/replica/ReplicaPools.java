@@ -0,0 +1,33 @@
+package com.UAIC.ISMA.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The primary and replica connection pools behind the {@link ReplicaRoutingDataSource}. They are not exposed
+ * as {@code DataSource} beans, so the statement instrumentation wraps only the routing data source and counts
+ * every statement once, and nothing can bypass the routing by injecting a pool.
+ */
+public class ReplicaPools implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+
+    public ReplicaPools(HikariDataSource primary, HikariDataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public HikariDataSource getReplica() {
+        return replica;
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+}
@@ -0,0 +1,29 @@
+package com.UAIC.ISMA.replica;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the method in a read-only transaction that may be served by the replica, when replica routing is enabled
+ * and the replica is fresh enough for the caller. Without replica routing it is a plain read-only transaction.
+ * <p>
+ * A method called from inside a read-write transaction joins it and keeps reading from the primary.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReplicaRead {
+
+    /**
+     * Also wait for the replica to catch up with the last write committed by this instance, not only by the
+     * caller. Needed by reads whose results are kept in memory and invalidated by local change events, such as
+     * cached searches, which must not store rows older than the invalidation.
+     */
+    boolean afterLocalWrites() default false;
+}
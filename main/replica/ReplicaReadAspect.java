@@ -0,0 +1,42 @@
+package com.UAIC.ISMA.replica;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which {@link ReplicaRead} method is running on the current thread, so the connection its
+ * transaction opens may be taken from the replica. Other read-only transactions, such as the ones Spring Data
+ * opens around a bare repository call, stay on the primary.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaReadAspect {
+
+    private static final ThreadLocal<ReplicaRead> CURRENT = new ThreadLocal<>();
+
+    @Around("@annotation(replicaRead)")
+    public Object allowReplica(ProceedingJoinPoint joinPoint, ReplicaRead replicaRead) throws Throwable {
+        ReplicaRead previous = CURRENT.get();
+        CURRENT.set(replicaRead);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * The {@link ReplicaRead} method running on this thread, or null.
+     */
+    static ReplicaRead current() {
+        return CURRENT.get();
+    }
+}
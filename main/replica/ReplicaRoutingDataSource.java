@@ -0,0 +1,99 @@
+package com.UAIC.ISMA.replica;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out replica connections to read-only transactions started by a {@link ReplicaRead} method, and primary
+ * connections to everything else.
+ * <p>
+ * A read goes to the primary instead when the {@link ReplicaLagMonitor} cannot vouch that the replica holds the
+ * client's last write ({@link ReadYourWrites}) or, for {@link ReplicaRead#afterLocalWrites()}, the last write
+ * committed through this data source by a client request. Read-write transactions started by a request record
+ * their commit time for both checks; background writes, such as the sensor status flush and scheduled jobs, are
+ * not tracked, or they would keep every {@code afterLocalWrites} read on the primary.
+ * <p>
+ * The route is decided when the connection is opened, so this must sit behind a
+ * {@link LazyConnectionDataSourceProxy}: the transaction manager asks for a connection before the transaction
+ * is marked read-only, and the proxy defers opening it until the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final int readYourWritesSeconds;
+    private final LongSupplier clock;
+    private final AtomicLong lastLocalWrite = new AtomicLong();
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryFallbacks = new AtomicLong();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    int readYourWritesSeconds) {
+        this(primary, replica, lagMonitor, readYourWritesSeconds, System::currentTimeMillis);
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                             int readYourWritesSeconds, LongSupplier clock) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesSeconds = readYourWritesSeconds;
+        this.clock = clock;
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (ReadYourWrites.inRequest()
+                    && TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new WriteRecorder());
+            }
+            return DataSourceRole.PRIMARY;
+        }
+        ReplicaRead replicaRead = ReplicaReadAspect.current();
+        if (replicaRead == null) {
+            return DataSourceRole.PRIMARY;
+        }
+        long mustSee = ReadYourWrites.lastWriteMillis(clock.getAsLong());
+        if (replicaRead.afterLocalWrites()) {
+            mustSee = Math.max(mustSee, lastLocalWrite.get());
+        }
+        if (!lagMonitor.hasCaughtUpTo(mustSee)) {
+            primaryFallbacks.incrementAndGet();
+            return DataSourceRole.PRIMARY;
+        }
+        replicaReads.incrementAndGet();
+        return DataSourceRole.REPLICA;
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("isma.replica.reads", replicaReads, AtomicLong::get)
+                .description("Replica-eligible reads, by the pool that served them")
+                .tag("target", "replica")
+                .register(registry);
+        FunctionCounter.builder("isma.replica.reads", primaryFallbacks, AtomicLong::get)
+                .description("Replica-eligible reads, by the pool that served them")
+                .tag("target", "primary")
+                .register(registry);
+    }
+
+    private final class WriteRecorder implements TransactionSynchronization {
+        @Override
+        public void afterCommit() {
+            long committedAt = clock.getAsLong();
+            lastLocalWrite.accumulateAndGet(committedAt, Math::max);
+            ReadYourWrites.recordWrite(committedAt, readYourWritesSeconds);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.UAIC.ISMA.repository;
+
+import com.UAIC.ISMA.entity.ChangeJournalEntry;
+import com.UAIC.ISMA.entity.enums.JournalEntityType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChangeJournalRepository extends JpaRepository<ChangeJournalEntry, Long> {
+
+    @Query("""
+        SELECT j FROM ChangeJournalEntry j
+        WHERE j.entityType = :entityType AND j.entityId = :entityId
+        ORDER BY j.version DESC
+    """)
+    Page<ChangeJournalEntry> findHistory(
+            @Param("entityType") JournalEntityType entityType,
+            @Param("entityId") Long entityId,
+            Pageable pageable
+    );
+
+    /**
+     * Latest snapshot at or before {@code asOf}; use with a page size of one.
+     */
+    @Query("""
+        SELECT j FROM ChangeJournalEntry j
+        WHERE j.entityType = :entityType AND j.entityId = :entityId
+          AND j.snapshot = true AND j.occurredAt <= :asOf
+        ORDER BY j.version DESC
+    """)
+    List<ChangeJournalEntry> findLatestSnapshots(
+            @Param("entityType") JournalEntityType entityType,
+            @Param("entityId") Long entityId,
+            @Param("asOf") LocalDateTime asOf,
+            Pageable pageable
+    );
+
+    @Query("""
+        SELECT j FROM ChangeJournalEntry j
+        WHERE j.entityType = :entityType AND j.entityId = :entityId
+          AND j.version > :afterVersion AND j.occurredAt <= :asOf
+        ORDER BY j.version
+    """)
+    List<ChangeJournalEntry> findEntriesAfterVersion(
+            @Param("entityType") JournalEntityType entityType,
+            @Param("entityId") Long entityId,
+            @Param("afterVersion") Long afterVersion,
+            @Param("asOf") LocalDateTime asOf
+    );
+
+    @Query("""
+        SELECT MAX(j.version) FROM ChangeJournalEntry j
+        WHERE j.entityType = :entityType AND j.entityId = :entityId
+    """)
+    Long findLatestVersion(@Param("entityType") JournalEntityType entityType, @Param("entityId") Long entityId);
+}
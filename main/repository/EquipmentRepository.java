@@ -1,20 +1,91 @@
 package com.UAIC.ISMA.repository;
 
+import com.UAIC.ISMA.dto.AccessWindowDTO;
 import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.EquipmentSummaryDTO;
 import com.UAIC.ISMA.entity.Equipment;
 import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.entity.enums.RequestStatus;
+import com.UAIC.ISMA.index.EquipmentIndexEntry;
+import com.UAIC.ISMA.index.FacetCount;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
 
+    @Override
+    @Query("SELECT e FROM Equipment e WHERE e.id = :id AND e.deletedAt IS NULL")
+    Optional<Equipment> findById(@Param("id") Long id);
+
+    @Override
+    @Query("SELECT COUNT(e) > 0 FROM Equipment e WHERE e.id = :id AND e.deletedAt IS NULL")
+    boolean existsById(@Param("id") Long id);
+
+    @Override
+    @Query("SELECT e FROM Equipment e WHERE e.deletedAt IS NULL")
+    List<Equipment> findAll();
+
+    @Override
+    default List<Equipment> findAllById(Iterable<Long> ids) {
+        List<Long> idList = new ArrayList<>();
+        ids.forEach(idList::add);
+        return idList.isEmpty() ? new ArrayList<>() : findActiveByIdIn(idList);
+    }
+
+    @Query("SELECT e FROM Equipment e WHERE e.id IN :ids AND e.deletedAt IS NULL")
+    List<Equipment> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Override
+    @Query("SELECT COUNT(e) FROM Equipment e WHERE e.deletedAt IS NULL")
+    long count();
+
+    /**
+     * Moves the inventory number to {@code deletedInventoryNumber} together with setting {@code deletedAt}, so
+     * the unique number can be given to new equipment right away while the row still records it.
+     */
+    @Modifying
+    @Query("""
+        UPDATE Equipment e
+        SET e.deletedAt = :deletedAt, e.deletedInventoryNumber = e.inventoryNumber, e.inventoryNumber = NULL
+        WHERE e.id = :id AND e.deletedAt IS NULL
+    """)
+    int softDeleteById(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Compare-and-set of the availability status in a single UPDATE: changes the row only if it still has the
+     * expected status, and bumps the version so concurrent full updates fail their optimistic check. Returns
+     * the number of rows changed (0 or 1).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE Equipment e
+        SET e.availabilityStatus = :newStatus, e.version = e.version + 1
+        WHERE e.id = :id AND e.availabilityStatus = :expectedStatus AND e.deletedAt IS NULL
+    """)
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("expectedStatus") AvailabilityStatus expectedStatus,
+                            @Param("newStatus") AvailabilityStatus newStatus);
+
+    @Query("SELECT e.id FROM Equipment e WHERE e.deletedAt < :cutoff ORDER BY e.id")
+    List<Long> findPurgeableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM AccessRequest ar WHERE ar.equipment.id IN :equipmentIds")
+    int deleteAccessRequestsByEquipmentIdIn(@Param("equipmentIds") Collection<Long> equipmentIds);
+
     @Query("""
         SELECT new com.UAIC.ISMA.dto.EquipmentDTO(
             e.id, e.name, e.photo, e.inventoryNumber,
@@ -24,6 +95,7 @@ public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
         WHERE (:name IS NULL OR LOWER(e.name) LIKE LOWER(CONCAT('%', :name, '%')))
           AND (:status IS NULL OR e.availabilityStatus = :status)
           AND (:labId IS NULL OR e.laboratory.id = :labId)
+          AND e.deletedAt IS NULL
     """)
     Page<EquipmentDTO> searchByNameStatusAndLabId(
             @Param("name") String name,
@@ -31,4 +103,153 @@ public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
             @Param("labId") Long labId,
             Pageable pageable
     );
+
+    @Query("""
+        SELECT new com.UAIC.ISMA.dto.EquipmentDTO(
+            e.id, e.name, e.photo, e.inventoryNumber,
+            e.acquisitionDate, e.availabilityStatus,
+            e.laboratory.id, e.accessRequirements)
+        FROM Equipment e
+        WHERE e.id IN :ids
+          AND e.deletedAt IS NULL
+    """)
+    List<EquipmentDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Same rows as {@link #findDTOsByIdIn}, with every field that {@code GET /equipment/{id}} returns.
+     */
+    @Query("""
+        SELECT new com.UAIC.ISMA.dto.EquipmentDTO(
+            e.id, e.name, e.inventoryNumber, e.availabilityStatus,
+            e.laboratory.id, e.accessRequirements, e.photo, e.acquisitionDate,
+            e.usage, e.material, e.description, e.isComplex, e.version)
+        FROM Equipment e
+        WHERE e.id IN :ids
+          AND e.deletedAt IS NULL
+    """)
+    List<EquipmentDTO> findDetailedDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        SELECT new com.UAIC.ISMA.index.EquipmentIndexEntry(
+            e.id, e.laboratory.id, e.availabilityStatus, e.isComplex, e.acquisitionDate)
+        FROM Equipment e
+        WHERE e.deletedAt IS NULL
+    """)
+    List<EquipmentIndexEntry> findIndexEntries();
+
+    /**
+     * Filter shared by the facet count queries; {@code isComplex} null is counted as not complex, like the index.
+     */
+    String FACET_FILTER = """
+        WHERE e.deletedAt IS NULL
+          AND (:labId IS NULL OR e.laboratory.id = :labId)
+          AND (:status IS NULL OR e.availabilityStatus = :status)
+          AND (:isComplex IS NULL OR COALESCE(e.isComplex, false) = :isComplex)
+          AND (:year IS NULL OR EXTRACT(YEAR FROM e.acquisitionDate) = :year)
+    """;
+
+    @Query("SELECT new com.UAIC.ISMA.index.FacetCount(e.availabilityStatus, COUNT(e)) FROM Equipment e "
+            + FACET_FILTER + " GROUP BY e.availabilityStatus")
+    List<FacetCount> countFacetsByAvailabilityStatus(@Param("labId") Long labId,
+                                                     @Param("status") AvailabilityStatus status,
+                                                     @Param("isComplex") Boolean isComplex,
+                                                     @Param("year") Integer year);
+
+    @Query("SELECT new com.UAIC.ISMA.index.FacetCount(e.laboratory.id, COUNT(e)) FROM Equipment e "
+            + FACET_FILTER + " GROUP BY e.laboratory.id")
+    List<FacetCount> countFacetsByLaboratory(@Param("labId") Long labId,
+                                             @Param("status") AvailabilityStatus status,
+                                             @Param("isComplex") Boolean isComplex,
+                                             @Param("year") Integer year);
+
+    @Query("SELECT new com.UAIC.ISMA.index.FacetCount(COALESCE(e.isComplex, false), COUNT(e)) FROM Equipment e "
+            + FACET_FILTER + " GROUP BY COALESCE(e.isComplex, false)")
+    List<FacetCount> countFacetsByComplexity(@Param("labId") Long labId,
+                                             @Param("status") AvailabilityStatus status,
+                                             @Param("isComplex") Boolean isComplex,
+                                             @Param("year") Integer year);
+
+    @Query("SELECT new com.UAIC.ISMA.index.FacetCount(EXTRACT(YEAR FROM e.acquisitionDate), COUNT(e)) FROM Equipment e "
+            + FACET_FILTER + " GROUP BY EXTRACT(YEAR FROM e.acquisitionDate)")
+    List<FacetCount> countFacetsByAcquisitionYear(@Param("labId") Long labId,
+                                                  @Param("status") AvailabilityStatus status,
+                                                  @Param("isComplex") Boolean isComplex,
+                                                  @Param("year") Integer year);
+
+    @Query("""
+        SELECT new com.UAIC.ISMA.dto.AccessWindowDTO(
+            ar.id, ar.equipment.id, ar.startTime, ar.endTime, ar.status)
+        FROM AccessRequest ar
+        WHERE ar.equipment.id = :equipmentId
+          AND ar.equipment.deletedAt IS NULL
+          AND ar.status IN :statuses
+    """)
+    List<AccessWindowDTO> findAccessWindows(
+            @Param("equipmentId") Long equipmentId,
+            @Param("statuses") Collection<RequestStatus> statuses
+    );
+
+    @Query("""
+        SELECT new com.UAIC.ISMA.dto.AccessWindowDTO(
+            ar.id, ar.equipment.id, ar.startTime, ar.endTime, ar.status)
+        FROM AccessRequest ar
+        WHERE ar.equipment.id IN :equipmentIds
+          AND ar.equipment.deletedAt IS NULL
+          AND ar.status IN :statuses
+    """)
+    List<AccessWindowDTO> findAccessWindowsByEquipmentIdIn(
+            @Param("equipmentIds") Collection<Long> equipmentIds,
+            @Param("statuses") Collection<RequestStatus> statuses
+    );
+
+    @Query("""
+        SELECT new com.UAIC.ISMA.dto.EquipmentSummaryDTO(
+            e.id, e.laboratory.id, e.name, e.inventoryNumber, e.availabilityStatus
+        )
+        FROM Equipment e
+        WHERE e.deletedAt IS NULL
+    """)
+    List<EquipmentSummaryDTO> findAllSummaries();
+
+    @Query("""
+        SELECT new com.UAIC.ISMA.dto.EquipmentDTO(
+            e.id, e.name, e.photo, e.inventoryNumber,
+            e.acquisitionDate, e.availabilityStatus,
+            e.laboratory.id, e.accessRequirements)
+        FROM Equipment e
+        WHERE e.inventoryNumber = :inventoryNumber
+          AND e.deletedAt IS NULL
+    """)
+    Optional<EquipmentDTO> findDTOByInventoryNumber(@Param("inventoryNumber") String inventoryNumber);
+
+    @Query("""
+        SELECT new com.UAIC.ISMA.dto.EquipmentDTO(
+            e.id, e.name, e.photo, e.inventoryNumber,
+            e.acquisitionDate, e.availabilityStatus,
+            e.laboratory.id, e.accessRequirements)
+        FROM Equipment e
+        WHERE e.inventoryNumber IN :inventoryNumbers
+          AND e.deletedAt IS NULL
+    """)
+    List<EquipmentDTO> findDTOsByInventoryNumberIn(@Param("inventoryNumbers") Collection<String> inventoryNumbers);
+
+    @Query("SELECT COUNT(ar) FROM AccessRequest ar WHERE ar.equipment.laboratory.id = :labId")
+    long countAccessRequestsByLaboratoryId(@Param("labId") Long labId);
+
+    @Query("SELECT ar.id FROM AccessRequest ar WHERE ar.equipment.laboratory.id = :labId ORDER BY ar.id")
+    List<Long> findAccessRequestIdsByLaboratoryId(@Param("labId") Long labId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM AccessRequest ar WHERE ar.id IN :ids")
+    int deleteAccessRequestsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(e) FROM Equipment e WHERE e.laboratory.id = :labId")
+    long countByLaboratoryId(@Param("labId") Long labId);
+
+    @Query("SELECT e.id FROM Equipment e WHERE e.laboratory.id = :labId ORDER BY e.id")
+    List<Long> findIdsByLaboratoryId(@Param("labId") Long labId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Equipment e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,17 +1,87 @@
 package com.UAIC.ISMA.repository;
 
+import com.UAIC.ISMA.dto.EquipmentSummaryDTO;
+import com.UAIC.ISMA.dto.LabDocumentSummaryDTO;
+import com.UAIC.ISMA.dto.LaboratoryChildIdDTO;
 import com.UAIC.ISMA.dto.LaboratoryDTO;
 import com.UAIC.ISMA.entity.Laboratory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface LaboratoryRepository extends JpaRepository<Laboratory, Long> {
 
+    @Override
+    @Query("SELECT l FROM Laboratory l WHERE l.id = :id AND l.deletedAt IS NULL")
+    Optional<Laboratory> findById(@Param("id") Long id);
+
+    @Override
+    @Query("SELECT COUNT(l) > 0 FROM Laboratory l WHERE l.id = :id AND l.deletedAt IS NULL")
+    boolean existsById(@Param("id") Long id);
+
+    @Override
+    @Query("SELECT l FROM Laboratory l WHERE l.deletedAt IS NULL")
+    List<Laboratory> findAll();
+
+    @Override
+    default List<Laboratory> findAllById(Iterable<Long> ids) {
+        List<Long> idList = new ArrayList<>();
+        ids.forEach(idList::add);
+        return idList.isEmpty() ? new ArrayList<>() : findActiveByIdIn(idList);
+    }
+
+    @Query("SELECT l FROM Laboratory l WHERE l.id IN :ids AND l.deletedAt IS NULL")
+    List<Laboratory> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Override
+    @Query("SELECT COUNT(l) FROM Laboratory l WHERE l.deletedAt IS NULL")
+    long count();
+
+    @Modifying
+    @Query("UPDATE Laboratory l SET l.deletedAt = :deletedAt WHERE l.id = :id AND l.deletedAt IS NULL")
+    int softDeleteById(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Also moves the inventory numbers aside, like {@link EquipmentRepository#softDeleteById}.
+     */
+    @Modifying
+    @Query("""
+    UPDATE Equipment e
+    SET e.deletedAt = :deletedAt, e.deletedInventoryNumber = e.inventoryNumber, e.inventoryNumber = NULL
+    WHERE e.laboratory.id = :labId AND e.deletedAt IS NULL
+""")
+    int softDeleteEquipmentByLaboratoryId(@Param("labId") Long labId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Soft-deleted laboratories past the cutoff whose equipment has already been purged.
+     */
+    @Query("""
+    SELECT l.id FROM Laboratory l
+    WHERE l.deletedAt < :cutoff
+      AND NOT EXISTS (SELECT e.id FROM Equipment e WHERE e.laboratory = l)
+    ORDER BY l.id
+""")
+    List<Long> findPurgeableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM LabDocument d WHERE d.lab.id IN :labIds")
+    int deleteLabDocumentsByLaboratoryIdIn(@Param("labIds") Collection<Long> labIds);
+
+    @Modifying
+    @Query("DELETE FROM Laboratory l WHERE l.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("""
     SELECT new com.UAIC.ISMA.dto.LaboratoryDTO(
         l.id, l.labName, l.description, l.location
@@ -19,10 +89,89 @@ public interface LaboratoryRepository extends JpaRepository<Laboratory, Long> {
     FROM Laboratory l
     WHERE (:name IS NULL OR LOWER(l.labName) LIKE LOWER(CONCAT('%', :name, '%')))
       AND (:location IS NULL OR LOWER(l.location) LIKE LOWER(CONCAT('%', :location, '%')))
+      AND l.deletedAt IS NULL
 """)
     Page<LaboratoryDTO> searchLaboratoryByNameAndLocation(
             @Param("name") String name,
             @Param("location") String location,
             Pageable pageable
     );
+
+    @Query("""
+    SELECT new com.UAIC.ISMA.dto.LaboratoryDTO(
+        l.id, l.labName, l.description, l.location
+    )
+    FROM Laboratory l
+    WHERE l.deletedAt IS NULL
+""")
+    List<LaboratoryDTO> findAllActiveDTOs();
+
+    @Query("""
+    SELECT new com.UAIC.ISMA.dto.LaboratoryDTO(
+        l.id, l.labName, l.description, l.location
+    )
+    FROM Laboratory l
+    WHERE l.id IN :ids
+      AND l.deletedAt IS NULL
+""")
+    List<LaboratoryDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+    SELECT new com.UAIC.ISMA.dto.LaboratoryChildIdDTO(e.laboratory.id, e.id)
+    FROM Equipment e
+    WHERE e.laboratory.id IN :labIds
+      AND e.deletedAt IS NULL
+    ORDER BY e.id
+""")
+    List<LaboratoryChildIdDTO> findEquipmentIdsByLaboratoryIdIn(@Param("labIds") Collection<Long> labIds);
+
+    @Query("""
+    SELECT new com.UAIC.ISMA.dto.LaboratoryChildIdDTO(d.lab.id, d.id)
+    FROM LabDocument d
+    WHERE d.lab.id IN :labIds
+    ORDER BY d.id
+""")
+    List<LaboratoryChildIdDTO> findLabDocumentIdsByLaboratoryIdIn(@Param("labIds") Collection<Long> labIds);
+
+    @Query(value = """
+    SELECT new com.UAIC.ISMA.dto.LaboratoryDTO(
+        l.id, l.labName, l.description, l.location
+    )
+    FROM Laboratory l
+    WHERE l.deletedAt IS NULL
+""", countQuery = "SELECT COUNT(l) FROM Laboratory l WHERE l.deletedAt IS NULL")
+    Page<LaboratoryDTO> findAllDTOs(Pageable pageable);
+
+    @Query("""
+    SELECT new com.UAIC.ISMA.dto.EquipmentSummaryDTO(
+        e.id, e.laboratory.id, e.name, e.inventoryNumber, e.availabilityStatus
+    )
+    FROM Equipment e
+    WHERE e.laboratory.id IN :labIds
+      AND e.deletedAt IS NULL
+    ORDER BY e.id
+""")
+    List<EquipmentSummaryDTO> findEquipmentSummariesByLaboratoryIdIn(@Param("labIds") Collection<Long> labIds);
+
+    @Query("""
+    SELECT new com.UAIC.ISMA.dto.LabDocumentSummaryDTO(d.id, d.lab.id, d.fileName)
+    FROM LabDocument d
+    WHERE d.lab.id IN :labIds
+    ORDER BY d.id
+""")
+    List<LabDocumentSummaryDTO> findLabDocumentSummariesByLaboratoryIdIn(@Param("labIds") Collection<Long> labIds);
+
+    @Query("SELECT COUNT(d) FROM LabDocument d WHERE d.lab.id = :labId")
+    long countLabDocumentsByLaboratoryId(@Param("labId") Long labId);
+
+    @Query("SELECT d.id FROM LabDocument d WHERE d.lab.id = :labId ORDER BY d.id")
+    List<Long> findLabDocumentIdsByLaboratoryId(@Param("labId") Long labId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM LabDocument d WHERE d.id IN :ids")
+    int deleteLabDocumentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Laboratory l WHERE l.id = :id")
+    int deleteLaboratoryById(@Param("id") Long id);
 }
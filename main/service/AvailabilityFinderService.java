@@ -0,0 +1,206 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.AccessWindowDTO;
+import com.UAIC.ISMA.dto.AvailabilityResultDTO;
+import com.UAIC.ISMA.dto.AvailableSlotDTO;
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.entity.enums.RequestStatus;
+import com.UAIC.ISMA.exception.InvalidInputException;
+import com.UAIC.ISMA.exception.LaboratoryNotFoundException;
+import com.UAIC.ISMA.index.AccessWindowIndex;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.UAIC.ISMA.repository.LaboratoryRepository;
+import com.UAIC.ISMA.util.StatusUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Finds free slots of matching equipment across laboratories. Candidate laboratories are searched in parallel
+ * and free windows are computed from the {@link AccessWindowIndex}; laboratories that do not answer within the
+ * latency budget are left out and the result is flagged as partial.
+ */
+@Service
+public class AvailabilityFinderService {
+
+    private static final Logger logger = LogManager.getLogger(AvailabilityFinderService.class);
+
+    private static final Comparator<AvailableSlotDTO> RANKING = Comparator
+            .comparingLong(AvailableSlotDTO::getDurationMinutes).reversed()
+            .thenComparingInt(AvailableSlotDTO::getPendingRequests)
+            .thenComparing(AvailableSlotDTO::getStart)
+            .thenComparing(AvailableSlotDTO::getEquipmentId);
+
+    private final EquipmentRepository equipmentRepository;
+    private final LaboratoryRepository laboratoryRepository;
+    private final AccessWindowIndex accessWindowIndex;
+    private final Executor executor;
+    private final long budgetMs;
+    private final int maxResults;
+
+    public AvailabilityFinderService(EquipmentRepository equipmentRepository,
+                                     LaboratoryRepository laboratoryRepository,
+                                     AccessWindowIndex accessWindowIndex,
+                                     @Qualifier("availabilityExecutor") Executor executor,
+                                     @Value("${equipment.availability.budget-ms:500}") long budgetMs,
+                                     @Value("${equipment.availability.max-results:200}") int maxResults) {
+        this.equipmentRepository = equipmentRepository;
+        this.laboratoryRepository = laboratoryRepository;
+        this.accessWindowIndex = accessWindowIndex;
+        this.executor = executor;
+        this.budgetMs = budgetMs;
+        this.maxResults = maxResults;
+    }
+
+    public AvailabilityResultDTO findAvailableSlots(String name, String status, String location, Long labId,
+                                                    LocalDateTime from, LocalDateTime to,
+                                                    Integer minDurationMinutes, Integer limit) {
+        logger.info("Finding available slots: name={}, status={}, location={}, labId={}, from={}, to={}",
+                name, status, location, labId, from, to);
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new InvalidInputException("Invalid time window: 'to' must be after 'from'");
+        }
+        AvailabilityStatus parsedStatus = StatusUtils.parseAvailabilityStatus(status);
+        Duration minDuration = Duration.ofMinutes(minDurationMinutes != null ? Math.max(minDurationMinutes, 1) : 1);
+        int resultLimit = limit != null ? Math.min(Math.max(limit, 1), maxResults) : maxResults;
+
+        List<LaboratoryDTO> laboratories = candidateLaboratories(location, labId);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+
+        List<FutureTask<List<AvailableSlotDTO>>> futures = new ArrayList<>(laboratories.size());
+        boolean partial = false;
+        for (LaboratoryDTO laboratory : laboratories) {
+            FutureTask<List<AvailableSlotDTO>> future = new FutureTask<>(
+                    () -> slotsInLaboratory(laboratory, name, parsedStatus, from, to, minDuration));
+            try {
+                executor.execute(future);
+                futures.add(future);
+            } catch (RejectedExecutionException e) {
+                partial = true;
+            }
+        }
+
+        List<AvailableSlotDTO> slots = new ArrayList<>();
+        for (FutureTask<List<AvailableSlotDTO>> future : futures) {
+            long remaining = deadline - System.nanoTime();
+            try {
+                slots.addAll(future.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // Interrupts the search, which stops at its next equipment instead of running to the end.
+                future.cancel(true);
+                partial = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                partial = true;
+                break;
+            } catch (CancellationException e) {
+                partial = true;
+            } catch (ExecutionException e) {
+                logger.error("Availability search failed for a laboratory", e.getCause());
+                partial = true;
+            }
+        }
+
+        slots.sort(RANKING);
+        List<AvailableSlotDTO> ranked = slots.size() > resultLimit ? new ArrayList<>(slots.subList(0, resultLimit)) : slots;
+        logger.info("Availability search returned {} slots from {} laboratories (partial={})",
+                ranked.size(), laboratories.size(), partial);
+        return new AvailabilityResultDTO(from, to, partial, ranked);
+    }
+
+    private List<LaboratoryDTO> candidateLaboratories(String location, Long labId) {
+        if (labId != null) {
+            LaboratoryDTO laboratory = laboratoryRepository.findById(labId)
+                    .map(l -> new LaboratoryDTO(l.getId(), l.getLabName(), l.getDescription(), l.getLocation()))
+                    .orElseThrow(() -> new LaboratoryNotFoundException(labId));
+            return List.of(laboratory);
+        }
+        return laboratoryRepository.searchLaboratoryByNameAndLocation(null, location, Pageable.unpaged()).getContent();
+    }
+
+    /**
+     * Windows of all candidates are fetched in one batch; the search gives up as soon as it is interrupted.
+     */
+    private List<AvailableSlotDTO> slotsInLaboratory(LaboratoryDTO laboratory, String name, AvailabilityStatus status,
+                                                     LocalDateTime from, LocalDateTime to, Duration minDuration)
+            throws InterruptedException {
+        List<AvailableSlotDTO> slots = new ArrayList<>();
+        List<EquipmentDTO> candidates = equipmentRepository
+                .searchByNameStatusAndLabId(name, status, laboratory.getId(), Pageable.unpaged())
+                .getContent();
+        checkInterrupted();
+        Map<Long, List<AccessWindowDTO>> windowsByEquipment = accessWindowIndex.findOverlapping(
+                candidates.stream().map(EquipmentDTO::getId).toList(), from, to);
+        for (EquipmentDTO equipment : candidates) {
+            checkInterrupted();
+            List<AccessWindowDTO> windows = windowsByEquipment.getOrDefault(equipment.getId(), List.of());
+            for (LocalDateTime[] gap : freeGaps(windows, from, to)) {
+                Duration length = Duration.between(gap[0], gap[1]);
+                if (length.compareTo(minDuration) >= 0) {
+                    slots.add(new AvailableSlotDTO(equipment.getId(), equipment.getName(), laboratory.getId(),
+                            laboratory.getLabName(), laboratory.getLocation(), gap[0], gap[1], length.toMinutes(),
+                            countPending(windows, gap[0], gap[1])));
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Availability search cancelled");
+        }
+    }
+
+    /**
+     * Splits {@code [from, to)} around the approved windows, which arrive ordered by start time.
+     */
+    static List<LocalDateTime[]> freeGaps(List<AccessWindowDTO> windows, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime[]> gaps = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (AccessWindowDTO window : windows) {
+            if (window.getStatus() != RequestStatus.APPROVED) {
+                continue;
+            }
+            if (window.getStartTime().isAfter(cursor)) {
+                LocalDateTime gapEnd = window.getStartTime().isBefore(to) ? window.getStartTime() : to;
+                gaps.add(new LocalDateTime[]{cursor, gapEnd});
+            }
+            if (window.getEndTime().isAfter(cursor)) {
+                cursor = window.getEndTime();
+            }
+            if (!cursor.isBefore(to)) {
+                return gaps;
+            }
+        }
+        gaps.add(new LocalDateTime[]{cursor, to});
+        return gaps;
+    }
+
+    private static int countPending(List<AccessWindowDTO> windows, LocalDateTime start, LocalDateTime end) {
+        return (int) windows.stream()
+                .filter(w -> w.getStatus() == RequestStatus.PENDING)
+                .filter(w -> w.getStartTime().isBefore(end) && w.getEndTime().isAfter(start))
+                .count();
+    }
+}
@@ -0,0 +1,105 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.ChangeJournalEntryDTO;
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.entity.ChangeJournalEntry;
+import com.UAIC.ISMA.entity.enums.JournalEntityType;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.exception.EquipmentNotFoundException;
+import com.UAIC.ISMA.exception.InvalidInputException;
+import com.UAIC.ISMA.repository.ChangeJournalRepository;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read side of the change journal: the change history of an equipment item and its state at a past instant,
+ * rebuilt from the latest snapshot at or before that instant plus the deltas recorded after it.
+ * <p>
+ * Only changes made since the journal was introduced are covered; equipment that has not changed since then
+ * has an empty history.
+ */
+@Service
+public class ChangeJournalService {
+
+    private static final Logger logger = LogManager.getLogger(ChangeJournalService.class);
+
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {
+    };
+
+    private final ChangeJournalRepository changeJournalRepository;
+    private final EquipmentRepository equipmentRepository;
+    private final ObjectMapper objectMapper;
+
+    public ChangeJournalService(ChangeJournalRepository changeJournalRepository,
+                                EquipmentRepository equipmentRepository,
+                                ObjectMapper objectMapper) {
+        this.changeJournalRepository = changeJournalRepository;
+        this.equipmentRepository = equipmentRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public Page<ChangeJournalEntryDTO> getEquipmentHistory(Long equipmentId, Pageable pageable) {
+        logger.info("Fetching change history for equipment ID {}", equipmentId);
+        Page<ChangeJournalEntry> entries = changeJournalRepository.findHistory(JournalEntityType.EQUIPMENT, equipmentId, pageable);
+        if (entries.getTotalElements() == 0 && !equipmentRepository.existsById(equipmentId)) {
+            logger.error("No change history for equipment ID {}", equipmentId);
+            throw new EquipmentNotFoundException(equipmentId);
+        }
+        return entries.map(this::toDTO);
+    }
+
+    public EquipmentDTO getEquipmentAsOf(Long equipmentId, LocalDateTime asOf) {
+        logger.info("Reconstructing equipment ID {} as of {}", equipmentId, asOf);
+        if (asOf == null) {
+            throw new InvalidInputException("asOf is required");
+        }
+
+        List<ChangeJournalEntry> snapshots = changeJournalRepository.findLatestSnapshots(
+                JournalEntityType.EQUIPMENT, equipmentId, asOf, PageRequest.of(0, 1));
+        if (snapshots.isEmpty()) {
+            logger.error("Equipment with ID {} has no recorded state as of {}", equipmentId, asOf);
+            throw new EquipmentNotFoundException(equipmentId);
+        }
+        ChangeJournalEntry snapshot = snapshots.get(0);
+
+        try {
+            EquipmentDTO state = objectMapper.readValue(snapshot.getPayload(), EquipmentDTO.class);
+            for (ChangeJournalEntry delta : changeJournalRepository.findEntriesAfterVersion(
+                    JournalEntityType.EQUIPMENT, equipmentId, snapshot.getVersion(), asOf)) {
+                if (EquipmentChangeEvent.Type.DELETED.name().equals(delta.getChangeType())) {
+                    state = null;
+                } else if (state != null) {
+                    state = objectMapper.readerForUpdating(state).readValue(delta.getPayload());
+                }
+            }
+            if (state == null) {
+                logger.error("Equipment with ID {} was deleted as of {}", equipmentId, asOf);
+                throw new EquipmentNotFoundException(equipmentId);
+            }
+            return state;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt change journal entry for equipment " + equipmentId, e);
+        }
+    }
+
+    private ChangeJournalEntryDTO toDTO(ChangeJournalEntry entry) {
+        try {
+            return new ChangeJournalEntryDTO(entry.getVersion(), entry.getChangeType(), entry.getOccurredAt(),
+                    entry.isSnapshot(), objectMapper.readValue(entry.getPayload(), FIELDS));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt change journal entry " + entry.getId(), e);
+        }
+    }
+}
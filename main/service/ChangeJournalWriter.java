@@ -0,0 +1,280 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.entity.enums.JournalEntityType;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.event.LaboratoryChangeEvent;
+import com.UAIC.ISMA.repository.ChangeJournalRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends committed equipment and laboratory changes to the change journal.
+ * <p>
+ * The event listeners only enqueue the change, so the write path pays for an {@code offer} and nothing else.
+ * A single background thread drains the queue and inserts each batch with one JDBC batch statement. Being the
+ * only writer, it also assigns the per-entity version numbers. Every {@code snapshotInterval}-th version (and
+ * the first one) stores the full state; the others store only the fields that changed.
+ * <p>
+ * If the queue is full the change is dropped and logged rather than blocking the request. A batch whose insert
+ * fails is kept and written again before anything newer, up to {@code maxWriteAttempts} times.
+ */
+@Service
+public class ChangeJournalWriter {
+
+    private static final Logger logger = LogManager.getLogger(ChangeJournalWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO change_journal "
+            + "(entity_type, entity_id, version, change_type, occurred_at, snapshot, payload) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int VERSION_CACHE_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeJournalRepository changeJournalRepository;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PendingChange> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int snapshotInterval;
+    private final int maxWriteAttempts;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Map<String, Long> latestVersions = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > VERSION_CACHE_SIZE;
+        }
+    };
+
+    private volatile boolean running;
+    private Thread worker;
+    private List<PendingChange> failedBatch;
+    private int failedAttempts;
+
+    public ChangeJournalWriter(JdbcTemplate jdbcTemplate,
+                               ChangeJournalRepository changeJournalRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${journal.queue-capacity:10000}") int queueCapacity,
+                               @Value("${journal.batch-size:500}") int batchSize,
+                               @Value("${journal.flush-interval-ms:200}") long flushIntervalMs,
+                               @Value("${journal.snapshot-interval:20}") int snapshotInterval,
+                               @Value("${journal.max-write-attempts:5}") int maxWriteAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeJournalRepository = changeJournalRepository;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.snapshotInterval = snapshotInterval;
+        this.maxWriteAttempts = maxWriteAttempts;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "change-journal-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        while (!queue.isEmpty() || failedBatch != null) {
+            flushPending();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEquipmentChange(EquipmentChangeEvent event) {
+        enqueue(new PendingChange(JournalEntityType.EQUIPMENT, event.getEquipmentId(), event.getType().name(),
+                event.getOccurredAt(), toJson(event.getBefore()), toJson(event.getAfter())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChange(LaboratoryChangeEvent event) {
+        enqueue(new PendingChange(JournalEntityType.LABORATORY, event.getLaboratoryId(), event.getType().name(),
+                event.getOccurredAt(), toJson(event.getBefore()), toJson(event.getAfter())));
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void enqueue(PendingChange change) {
+        if (!queue.offer(change)) {
+            long total = dropped.incrementAndGet();
+            logger.error("Change journal queue full, dropped {} change of {} {} ({} dropped so far)",
+                    change.changeType, change.entityType, change.entityId, total);
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                if (failedBatch != null) {
+                    Thread.sleep(flushIntervalMs);
+                    retryFailedBatch();
+                    continue;
+                }
+                PendingChange first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    List<PendingChange> batch = new ArrayList<>(batchSize);
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Change journal writer loop failed", e);
+            }
+        }
+    }
+
+    /**
+     * Writes one batch from the queue on the calling thread, after the batch kept from a failed write if there
+     * is one; returns the number of changes taken from the queue.
+     */
+    int flushPending() {
+        if (!retryFailedBatch()) {
+            return 0;
+        }
+        List<PendingChange> batch = new ArrayList<>(batchSize);
+        queue.drainTo(batch, batchSize);
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+        return batch.size();
+    }
+
+    private boolean retryFailedBatch() {
+        if (failedBatch == null) {
+            return true;
+        }
+        List<PendingChange> batch = failedBatch;
+        failedBatch = null;
+        return write(batch);
+    }
+
+    private boolean write(List<PendingChange> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (PendingChange change : batch) {
+            long version = nextVersion(change.entityType, change.entityId);
+            boolean snapshot = change.after != null && (version == 1 || (version - 1) % snapshotInterval == 0);
+            String payload = snapshot ? change.after.toString() : delta(change.before, change.after);
+            rows.add(new Object[]{change.entityType.name(), change.entityId, version, change.changeType,
+                    Timestamp.valueOf(LocalDateTime.ofInstant(change.occurredAt, ZoneId.systemDefault())),
+                    snapshot, payload});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            failedAttempts = 0;
+            return true;
+        } catch (RuntimeException e) {
+            // versions handed out for this batch were never stored; reload them from the table next time
+            latestVersions.clear();
+            failedAttempts++;
+            if (failedAttempts < maxWriteAttempts) {
+                failedBatch = batch;
+                logger.error("Failed to write {} change journal entries, attempt {} of {}",
+                        batch.size(), failedAttempts, maxWriteAttempts, e);
+            } else {
+                failedAttempts = 0;
+                long total = dropped.addAndGet(batch.size());
+                logger.error("Dropped {} change journal entries after {} failed attempts ({} dropped so far)",
+                        batch.size(), maxWriteAttempts, total, e);
+            }
+            return false;
+        }
+    }
+
+    private long nextVersion(JournalEntityType entityType, Long entityId) {
+        String key = entityType.name() + ':' + entityId;
+        Long latest = latestVersions.get(key);
+        if (latest == null) {
+            latest = changeJournalRepository.findLatestVersion(entityType, entityId);
+        }
+        long next = latest == null ? 1 : latest + 1;
+        latestVersions.put(key, next);
+        return next;
+    }
+
+    /**
+     * Fields of {@code after} that differ from {@code before}, as a JSON object. A deletion has no fields.
+     */
+    private String delta(ObjectNode before, ObjectNode after) {
+        ObjectNode delta = objectMapper.createObjectNode();
+        if (after != null) {
+            Iterator<Map.Entry<String, JsonNode>> fields = after.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode previous = before != null ? before.get(field.getKey()) : null;
+                if (!field.getValue().equals(previous)) {
+                    delta.set(field.getKey(), field.getValue());
+                }
+            }
+        }
+        return delta.toString();
+    }
+
+    private ObjectNode toJson(Object dto) {
+        if (dto == null) {
+            return null;
+        }
+        ObjectNode node = objectMapper.valueToTree(dto);
+        if (dto instanceof LaboratoryDTO) {
+            // relation ids change through the equipment journal, not the laboratory's own state
+            node.remove("equipmentIds");
+            node.remove("labDocumentIds");
+        }
+        return node;
+    }
+
+    private static final class PendingChange {
+        private final JournalEntityType entityType;
+        private final Long entityId;
+        private final String changeType;
+        private final Instant occurredAt;
+        private final ObjectNode before;
+        private final ObjectNode after;
+
+        private PendingChange(JournalEntityType entityType, Long entityId, String changeType,
+                              Instant occurredAt, ObjectNode before, ObjectNode after) {
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.changeType = changeType;
+            this.occurredAt = occurredAt;
+            this.before = before;
+            this.after = after;
+        }
+    }
+}
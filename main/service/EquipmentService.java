@@ -1,33 +1,84 @@
 package com.UAIC.ISMA.service;
 
+import com.UAIC.ISMA.cache.EquipmentSearchFilter;
+import com.UAIC.ISMA.cache.SearchResultCache;
 import com.UAIC.ISMA.entity.Equipment;
 import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.EquipmentFacetsDTO;
+import com.UAIC.ISMA.dto.InventoryLookupDTO;
+import com.UAIC.ISMA.dto.StatusTransitionDTO;
+import com.UAIC.ISMA.dto.SuggestionDTO;
 import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.event.LaboratoryChangeEvent;
+import com.UAIC.ISMA.exception.ConflictException;
 import com.UAIC.ISMA.exception.EquipmentNotFoundException;
 import com.UAIC.ISMA.exception.InvalidInputException;
+import com.UAIC.ISMA.exception.InventoryNumberNotFoundException;
+import com.UAIC.ISMA.index.EquipmentBitmapIndex;
+import com.UAIC.ISMA.index.EquipmentFilter;
+import com.UAIC.ISMA.index.SuggestionIndex;
+import com.UAIC.ISMA.index.SuggestionTrie;
 import com.UAIC.ISMA.mapper.EquipmentMapper;
+import com.UAIC.ISMA.replica.ReadYourWrites;
+import com.UAIC.ISMA.replica.ReplicaRead;
 import com.UAIC.ISMA.repository.EquipmentRepository;
 import com.UAIC.ISMA.repository.LaboratoryRepository;
+import com.UAIC.ISMA.util.BatchUtils;
+import com.UAIC.ISMA.util.HotPathLogging;
+import com.UAIC.ISMA.util.SingleFlight;
+import com.UAIC.ISMA.util.StatusUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class EquipmentService {
 
     private static final Logger logger = LogManager.getLogger(EquipmentService.class);
+    private static final Logger hotPathLogger = HotPathLogging.logger(EquipmentService.class);
     private final EquipmentRepository equipmentRepository;
     private final LaboratoryRepository laboratoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EquipmentBitmapIndex equipmentBitmapIndex;
+    private final SuggestionIndex suggestionIndex;
+
+    private final SearchResultCache<EquipmentSearchFilter, EquipmentDTO> searchCache;
+
+    /**
+     * Identical searches running at the same time, keyed by filter, page and the client's last write, share one
+     * query. The last write keeps a client pinned to the primary out of a replica query.
+     */
+    private final SingleFlight<List<Object>, Page<EquipmentDTO>> searchLoads = new SingleFlight<>();
 
     public EquipmentService(EquipmentRepository equipmentRepository,
-                            LaboratoryRepository laboratoryRepository) {
+                            LaboratoryRepository laboratoryRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            EquipmentBitmapIndex equipmentBitmapIndex,
+                            SuggestionIndex suggestionIndex,
+                            SearchResultCache<EquipmentSearchFilter, EquipmentDTO> searchCache) {
         this.equipmentRepository = equipmentRepository;
         this.laboratoryRepository = laboratoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.equipmentBitmapIndex = equipmentBitmapIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.searchCache = searchCache;
     }
 
     public EquipmentDTO createEquipment(EquipmentDTO dto) {
@@ -35,11 +86,14 @@ public class EquipmentService {
         Equipment equipment = EquipmentMapper.convertToEntity(dto, laboratoryRepository);
         Equipment saved = equipmentRepository.save(equipment);
         logger.info("Equipment created with ID {}", saved.getId());
-        return EquipmentMapper.convertToDTO(saved);
+        EquipmentDTO created = EquipmentMapper.convertToDTO(saved);
+        eventPublisher.publishEvent(EquipmentChangeEvent.created(created));
+        return created;
     }
 
+    @ReplicaRead
     public EquipmentDTO getEquipmentById(Long id) {
-        logger.info("Fetching equipment with ID {}", id);
+        hotPathLogger.info("Fetching equipment with ID {}", id);
         Equipment equipment = equipmentRepository.findById(id)
                 .orElseThrow(() -> {
                     logger.error("Equipment with ID {} not found", id);
@@ -48,8 +102,78 @@ public class EquipmentService {
         return EquipmentMapper.convertToDTO(equipment);
     }
 
+    @ReplicaRead
+    public EquipmentDTO getEquipmentByInventoryNumber(String inventoryNumber) {
+        hotPathLogger.info("Fetching equipment with inventory number {}", inventoryNumber);
+        return equipmentRepository.findDTOByInventoryNumber(inventoryNumber.trim())
+                .orElseThrow(() -> {
+                    logger.error("Equipment with inventory number {} not found", inventoryNumber);
+                    return new InventoryNumberNotFoundException(inventoryNumber);
+                });
+    }
+
+    /**
+     * Resolves scanned inventory numbers in chunked IN queries. Found equipment keeps the order of the input;
+     * duplicates and blank entries are ignored.
+     */
+    @ReplicaRead
+    public InventoryLookupDTO resolveInventoryNumbers(List<String> inventoryNumbers) {
+        if (inventoryNumbers == null || inventoryNumbers.isEmpty()) {
+            throw new InvalidInputException("At least one inventory number is required.");
+        }
+        if (inventoryNumbers.size() > BatchUtils.MAX_BATCH_SIZE) {
+            throw new InvalidInputException("At most " + BatchUtils.MAX_BATCH_SIZE + " inventory numbers can be resolved at once.");
+        }
+        hotPathLogger.info("Resolving {} inventory numbers", inventoryNumbers.size());
+
+        List<String> requested = BatchUtils.distinctInOrder(inventoryNumbers.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(n -> !n.isEmpty())
+                .toList());
+
+        Map<String, EquipmentDTO> byNumber = new HashMap<>();
+        for (List<String> chunk : BatchUtils.chunked(requested, BatchUtils.IN_CLAUSE_CHUNK_SIZE)) {
+            equipmentRepository.findDTOsByInventoryNumberIn(chunk)
+                    .forEach(dto -> byNumber.put(dto.getInventoryNumber(), dto));
+        }
+
+        List<EquipmentDTO> found = new ArrayList<>(byNumber.size());
+        List<String> notFound = new ArrayList<>();
+        for (String number : requested) {
+            EquipmentDTO dto = byNumber.get(number);
+            if (dto != null) {
+                found.add(dto);
+            } else {
+                notFound.add(number);
+            }
+        }
+        logger.debug("Resolved {} inventory numbers, {} not found", found.size(), notFound.size());
+        return new InventoryLookupDTO(found, notFound);
+    }
+
+    /**
+     * Loads the requested equipment in chunked IN queries, in the order of the requested ids. Unknown ids are
+     * left out of the result.
+     */
+    @ReplicaRead
+    public List<EquipmentDTO> getEquipmentsByIds(List<Long> ids) {
+        List<Long> requested = validateIds(ids);
+        hotPathLogger.info("Fetching {} equipment by ID", requested.size());
+
+        Map<Long, EquipmentDTO> byId = new HashMap<>();
+        for (List<Long> chunk : BatchUtils.chunked(requested, BatchUtils.IN_CLAUSE_CHUNK_SIZE)) {
+            equipmentRepository.findDetailedDTOsByIdIn(chunk).forEach(dto -> byId.put(dto.getId(), dto));
+        }
+        return requested.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @ReplicaRead
     public List<EquipmentDTO> getAllEquipments(Long laboratoryId) {
-        logger.info("Fetching all equipment");
+        hotPathLogger.info("Fetching all equipment");
         return equipmentRepository.findAll().stream()
                 .map(EquipmentMapper::convertToDTO)
                 .collect(Collectors.toList());
@@ -62,15 +186,54 @@ public class EquipmentService {
                     logger.error("Equipment with ID {} not found for update", id);
                     return new EquipmentNotFoundException(id);
                 });
+        // save merges onto the managed instance when a session is open, so the old state is captured first
+        EquipmentDTO before = EquipmentMapper.convertToDTO(existing);
         Equipment updated = EquipmentMapper.convertToEntity(dto, laboratoryRepository);
         updated.setId(id);
+        updated.setVersion(dto.getVersion() != null ? dto.getVersion() : existing.getVersion());
         updated.setAccessRequests(existing.getAccessRequests());
 
         Equipment saved = equipmentRepository.save(updated);
         logger.info("Equipment with ID {} updated", id);
-        return EquipmentMapper.convertToDTO(saved);
+        EquipmentDTO result = EquipmentMapper.convertToDTO(saved);
+        eventPublisher.publishEvent(EquipmentChangeEvent.updated(before, result));
+        return result;
     }
 
+    /**
+     * Moves the equipment from the expected status to the new one with a single compare-and-set UPDATE, so two
+     * people toggling the same equipment cannot overwrite each other: the second one gets a conflict.
+     */
+    @Transactional
+    public EquipmentDTO changeStatus(Long id, StatusTransitionDTO transition) {
+        AvailabilityStatus expected = transition.getExpectedStatus();
+        logger.info("Changing status of equipment with ID {} from {} to {}", id, expected, transition.getNewStatus());
+        int changed = equipmentRepository.compareAndSetStatus(id, expected, transition.getNewStatus());
+        Equipment equipment = equipmentRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.error("Equipment with ID {} not found for status change", id);
+                    return new EquipmentNotFoundException(id);
+                });
+        if (changed == 0) {
+            logger.warn("Status change of equipment with ID {} rejected: status is {}, expected {}",
+                    id, equipment.getAvailabilityStatus(), expected);
+            throw new ConflictException("Equipment " + id + " is " + equipment.getAvailabilityStatus()
+                    + ", not " + expected + ".");
+        }
+
+        EquipmentDTO result = EquipmentMapper.convertToDTO(equipment);
+        EquipmentDTO before = EquipmentMapper.convertToDTO(equipment);
+        before.setAvailabilityStatus(expected);
+        before.setVersion(equipment.getVersion() - 1);
+        eventPublisher.publishEvent(EquipmentChangeEvent.updated(before, result));
+        return result;
+    }
+
+    /**
+     * Soft delete: marks the row with {@code deletedAt} and leaves it, with its access requests, to
+     * {@link SoftDeletePurgeService}.
+     */
+    @Transactional
     public void deleteEquipment(Long id) {
         logger.info("Deleting equipment with ID {}", id);
         Equipment equipment = equipmentRepository.findById(id)
@@ -78,24 +241,91 @@ public class EquipmentService {
                     logger.error("Equipment with ID {} not found for deletion", id);
                     return new EquipmentNotFoundException(id);
                 });
-        equipmentRepository.delete(equipment);
+        equipmentRepository.softDeleteById(id, LocalDateTime.now());
         logger.info("Equipment with ID {} deleted", id);
+        eventPublisher.publishEvent(EquipmentChangeEvent.deleted(EquipmentMapper.convertToDTO(equipment)));
     }
 
+    @ReplicaRead(afterLocalWrites = true)
     public Page<EquipmentDTO> searchEquipment(String name, String status, Long labId, Pageable pageable) {
-        logger.info("Searching equipment: name={}, status={}, labId={}", name, status, labId);
-        AvailabilityStatus parsedStatus = null;
-        if (status != null) {
-            try {
-                parsedStatus = AvailabilityStatus.valueOf(status.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                logger.error("Invalid availability status: {}", status);
-                throw new InvalidInputException("Invalid availability status: " + status);
-            }
-        }
+        hotPathLogger.info("Searching equipment: name={}, status={}, labId={}", name, status, labId);
+        AvailabilityStatus parsedStatus = StatusUtils.parseAvailabilityStatus(status);
 
-        Page<EquipmentDTO> results = equipmentRepository.searchByNameStatusAndLabId(name, parsedStatus, labId, pageable);
-        logger.info("Search returned {} results", results.getTotalElements());
+        EquipmentSearchFilter filter = EquipmentSearchFilter.of(name, parsedStatus, labId);
+        Page<EquipmentDTO> results = searchCache.get(filter, pageable);
+        if (results == null) {
+            List<Object> key = Arrays.asList(filter, pageable, ReadYourWrites.currentClientWrite());
+            results = searchLoads.execute(key, () -> {
+                long epoch = searchCache.epoch();
+                Page<EquipmentDTO> page;
+                if (name == null && equipmentBitmapIndex.isReady() && equipmentBitmapIndex.supports(pageable.getSort())) {
+                    page = searchWithIndex(EquipmentFilter.of(labId, parsedStatus), pageable);
+                } else {
+                    page = equipmentRepository.searchByNameStatusAndLabId(name, parsedStatus, labId, pageable);
+                }
+                searchCache.put(filter, pageable, page, epoch);
+                return page;
+            });
+        }
+        if (name != null) {
+            suggestionIndex.recordUsage(name);
+        }
+        logger.debug("Search returned {} results", results.getTotalElements());
         return results;
     }
+
+    public List<SuggestionDTO> suggest(String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new InvalidInputException("Suggestion prefix must not be empty.");
+        }
+        int effectiveLimit = limit != null ? limit : SuggestionTrie.MAX_SUGGESTIONS;
+        if (effectiveLimit < 1 || effectiveLimit > SuggestionTrie.MAX_SUGGESTIONS) {
+            throw new InvalidInputException("Suggestion limit must be between 1 and " + SuggestionTrie.MAX_SUGGESTIONS);
+        }
+        return suggestionIndex.suggest(prefix, effectiveLimit);
+    }
+
+    public EquipmentFacetsDTO getEquipmentFacets(Long labId, String status, Boolean isComplex, Integer acquisitionYear) {
+        hotPathLogger.info("Counting equipment facets: labId={}, status={}, isComplex={}, acquisitionYear={}",
+                labId, status, isComplex, acquisitionYear);
+        return equipmentBitmapIndex.facets(new EquipmentFilter(labId, StatusUtils.parseAvailabilityStatus(status),
+                isComplex, acquisitionYear));
+    }
+
+    private Page<EquipmentDTO> searchWithIndex(EquipmentFilter filter, Pageable pageable) {
+        Page<Long> ids = equipmentBitmapIndex.findIds(filter, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, EquipmentDTO> byId = equipmentRepository.findDTOsByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(EquipmentDTO::getId, Function.identity()));
+        List<EquipmentDTO> content = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    private List<Long> validateIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidInputException("At least one ID is required.");
+        }
+        if (ids.size() > BatchUtils.MAX_BATCH_SIZE) {
+            throw new InvalidInputException("At most " + BatchUtils.MAX_BATCH_SIZE + " IDs can be fetched at once.");
+        }
+        return BatchUtils.distinctInOrder(ids);
+    }
+
+    /**
+     * Searches in flight when a change commits may have read the old state; later callers start their own.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEquipmentChange(EquipmentChangeEvent event) {
+        searchLoads.forgetAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChange(LaboratoryChangeEvent event) {
+        searchLoads.forgetAll();
+    }
 }
@@ -0,0 +1,242 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.StatusReportDTO;
+import com.UAIC.ISMA.entity.Equipment;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.exception.InvalidInputException;
+import com.UAIC.ISMA.mapper.EquipmentMapper;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.UAIC.ISMA.util.BatchUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for the status reports sent by instrument sensors.
+ * <p>
+ * Reports are kept in memory per equipment id, newest reading wins, and {@link #flush()} writes one window at a
+ * time. A flush reads the current statuses of the buffered ids, and only the equipment whose status actually
+ * differs is updated, with one JDBC batch of compare-and-set statements that also bump the optimistic-lock
+ * version. Sensors repeat the same status far more often than it changes, so most windows write nothing.
+ * Each applied change is published as an {@link EquipmentChangeEvent}, which keeps the indexes, the change
+ * journal and the SSE feed in step with the database.
+ * <p>
+ * A report that lost the compare-and-set to a concurrent change is buffered again and retried in the next
+ * window against the fresh status. Reports for unknown or deleted equipment are dropped.
+ * <p>
+ * Buffered reports are lost on a crash unless {@code status-ingest.log.enabled} is set, in which case every
+ * report is also appended to a local {@link StatusReportLog} and replayed on startup.
+ */
+@Service
+public class EquipmentStatusIngestService {
+
+    private static final Logger logger = LogManager.getLogger(EquipmentStatusIngestService.class);
+
+    private static final String UPDATE_SQL = "UPDATE equipment SET availability_status = ?, version = version + 1 "
+            + "WHERE id = ? AND availability_status = ? AND deleted_at IS NULL";
+
+    private final EquipmentRepository equipmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final StatusReportLog log;
+    private final Object lock = new Object();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    private Map<Long, StatusReportDTO> pending = new HashMap<>();
+
+    public EquipmentStatusIngestService(EquipmentRepository equipmentRepository,
+                                        JdbcTemplate jdbcTemplate,
+                                        ApplicationEventPublisher eventPublisher,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${status-ingest.log.enabled:false}") boolean logEnabled,
+                                        @Value("${status-ingest.log.path:data/status-reports.log}") String logPath,
+                                        @Value("${status-ingest.log.fsync:false}") boolean fsync) {
+        this.equipmentRepository = equipmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.log = logEnabled ? new StatusReportLog(Path.of(logPath), fsync) : null;
+    }
+
+    @PostConstruct
+    public void recover() {
+        if (log != null) {
+            synchronized (lock) {
+                log.recover().forEach(this::merge);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    /**
+     * Buffers the reports and returns immediately; the status becomes visible with the next flush.
+     */
+    public void submit(List<StatusReportDTO> reports) {
+        if (reports == null || reports.isEmpty()) {
+            throw new InvalidInputException("At least one status report is required.");
+        }
+        if (reports.size() > BatchUtils.MAX_BATCH_SIZE) {
+            throw new InvalidInputException("At most " + BatchUtils.MAX_BATCH_SIZE + " status reports can be sent at once.");
+        }
+        Instant now = Instant.now();
+        List<StatusReportDTO> accepted = new ArrayList<>(reports.size());
+        for (StatusReportDTO report : reports) {
+            if (report == null || report.getEquipmentId() == null || report.getStatus() == null) {
+                throw new InvalidInputException("Every status report needs an equipment ID and a status.");
+            }
+            accepted.add(new StatusReportDTO(report.getEquipmentId(), report.getStatus(),
+                    report.getReportedAt() != null ? report.getReportedAt() : now));
+        }
+        synchronized (lock) {
+            if (log != null) {
+                log.append(accepted);
+            }
+            accepted.forEach(this::merge);
+        }
+        received.addAndGet(accepted.size());
+    }
+
+    @Scheduled(fixedDelayString = "${status-ingest.flush-interval-ms:2000}")
+    public void flush() {
+        Map<Long, StatusReportDTO> window;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            window = pending;
+            pending = new HashMap<>();
+            if (log != null) {
+                log.rotate();
+            }
+        }
+        try {
+            int changed = write(window);
+            written.addAndGet(changed);
+            logger.debug("Flushed status reports for {} equipment, {} changed", window.size(), changed);
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush status reports for {} equipment, retrying next window", window.size(), e);
+            requeue(window.values());
+        }
+        if (log != null) {
+            log.discardRotated();
+        }
+    }
+
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    /**
+     * Number of status changes written to the database; compared to {@link #getReceivedCount()} it shows how
+     * much the buffer saves.
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private int write(Map<Long, StatusReportDTO> window) {
+        Map<Long, AvailabilityStatus> current = new HashMap<>();
+        for (List<Long> chunk : BatchUtils.chunked(new ArrayList<>(window.keySet()), BatchUtils.IN_CLAUSE_CHUNK_SIZE)) {
+            equipmentRepository.findDTOsByIdIn(chunk)
+                    .forEach(dto -> current.put(dto.getId(), dto.getAvailabilityStatus()));
+        }
+
+        List<StatusReportDTO> changes = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (StatusReportDTO report : window.values()) {
+            AvailabilityStatus status = current.get(report.getEquipmentId());
+            if (status != null && status != report.getStatus()) {
+                changes.add(report);
+                rows.add(new Object[]{report.getStatus().name(), report.getEquipmentId(), status.name()});
+            }
+        }
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        return transactionTemplate.execute(transaction -> {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+            Map<Long, AvailabilityStatus> applied = new HashMap<>();
+            List<StatusReportDTO> lost = new ArrayList<>();
+            for (int i = 0; i < changes.size(); i++) {
+                StatusReportDTO change = changes.get(i);
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                    applied.put(change.getEquipmentId(), current.get(change.getEquipmentId()));
+                } else {
+                    lost.add(change);
+                }
+            }
+            requeue(lost);
+
+            for (Equipment equipment : equipmentRepository.findAllById(applied.keySet())) {
+                EquipmentDTO after = EquipmentMapper.convertToDTO(equipment);
+                EquipmentDTO before = EquipmentMapper.convertToDTO(equipment);
+                before.setAvailabilityStatus(applied.get(equipment.getId()));
+                before.setVersion(equipment.getVersion() != null ? equipment.getVersion() - 1 : null);
+                eventPublisher.publishEvent(EquipmentChangeEvent.updated(before, after));
+            }
+            return applied.size();
+        });
+    }
+
+    /**
+     * Puts reports back for the next window unless a newer one has arrived in the meantime. They are appended
+     * to the log again, since the segment they came from is discarded after the flush.
+     */
+    private void requeue(Iterable<StatusReportDTO> reports) {
+        synchronized (lock) {
+            List<StatusReportDTO> requeued = new ArrayList<>();
+            for (StatusReportDTO report : reports) {
+                if (merge(report)) {
+                    requeued.add(report);
+                }
+            }
+            if (log != null && !requeued.isEmpty()) {
+                log.append(requeued);
+            }
+        }
+    }
+
+    private boolean merge(StatusReportDTO report) {
+        StatusReportDTO buffered = pending.get(report.getEquipmentId());
+        if (buffered != null && buffered.getReportedAt().isAfter(report.getReportedAt())) {
+            return false;
+        }
+        pending.put(report.getEquipmentId(), report);
+        return true;
+    }
+}
@@ -0,0 +1,324 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.EquipmentChangeDTO;
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed equipment changes to Server-Sent Event subscribers.
+ * <p>
+ * Each change is serialized once and shared by every subscriber. Subscribers own a bounded queue that is
+ * drained by a small shared executor, so a slow client never blocks the write path; a client whose queue
+ * overflows is disconnected and can resume from the replay buffer using the {@code Last-Event-ID} header.
+ * <p>
+ * Event ids are {@code <stream epoch>-<sequence>}, the epoch being the time this process started streaming, so
+ * an id from before a restart is never mistaken for a current one. A client that cannot be resumed - unknown
+ * id, events no longer buffered, or more missed events than its queue holds - gets a {@code reset} event and the
+ * stream is closed; it reloads its view and reconnects with the reset's id.
+ */
+@Service
+public class EquipmentStreamService {
+
+    private static final Logger logger = LogManager.getLogger(EquipmentStreamService.class);
+
+    private static final StreamedEvent HEARTBEAT = new StreamedEvent(-1L, "heartbeat", Set.of(), null);
+
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final int subscriberBufferSize;
+    private final int replayCapacity;
+    private final long emitterTimeoutMs;
+
+    private final long streamEpoch = System.currentTimeMillis();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Object publishLock = new Object();
+    private final Deque<StreamedEvent> replayBuffer = new ArrayDeque<>();
+    private final Set<Subscriber> allLaboratorySubscribers = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribersByLaboratory = new ConcurrentHashMap<>();
+
+    public EquipmentStreamService(ObjectMapper objectMapper,
+                                  @Qualifier("equipmentStreamExecutor") Executor executor,
+                                  @Value("${equipment.stream.subscriber-buffer:256}") int subscriberBufferSize,
+                                  @Value("${equipment.stream.replay-capacity:4096}") int replayCapacity,
+                                  @Value("${equipment.stream.timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.replayCapacity = replayCapacity;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    public SseEmitter subscribe(Long laboratoryId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(laboratoryId, emitter);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        synchronized (publishLock) {
+            if (replay(subscriber, lastEventId)) {
+                register(subscriber);
+            }
+        }
+        logger.info("New equipment stream subscriber for laboratoryId={}", laboratoryId);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEquipmentChange(EquipmentChangeEvent event) {
+        Set<Long> laboratoryIds = new HashSet<>(2);
+        if (event.getBefore() != null && event.getBefore().getLaboratoryId() != null) {
+            laboratoryIds.add(event.getBefore().getLaboratoryId());
+        }
+        if (event.getAfter() != null && event.getAfter().getLaboratoryId() != null) {
+            laboratoryIds.add(event.getAfter().getLaboratoryId());
+        }
+
+        synchronized (publishLock) {
+            StreamedEvent streamed = new StreamedEvent(sequence.incrementAndGet(), event.getType().name(),
+                    laboratoryIds, serialize(event));
+
+            replayBuffer.addLast(streamed);
+            if (replayBuffer.size() > replayCapacity) {
+                replayBuffer.removeFirst();
+            }
+
+            allLaboratorySubscribers.forEach(s -> s.offer(streamed));
+            for (Long laboratoryId : laboratoryIds) {
+                Set<Subscriber> subscribers = subscribersByLaboratory.get(laboratoryId);
+                if (subscribers != null) {
+                    subscribers.forEach(s -> s.offer(streamed));
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${equipment.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        allLaboratorySubscribers.forEach(s -> s.offer(HEARTBEAT));
+        subscribersByLaboratory.values().forEach(subscribers -> subscribers.forEach(s -> s.offer(HEARTBEAT)));
+    }
+
+    public int getSubscriberCount() {
+        return allLaboratorySubscribers.size()
+                + subscribersByLaboratory.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Id of the latest event, as a client would send it back in {@code Last-Event-ID}.
+     */
+    String latestEventId() {
+        return streamEpoch + "-" + sequence.get();
+    }
+
+    private void register(Subscriber subscriber) {
+        if (subscriber.laboratoryId == null) {
+            allLaboratorySubscribers.add(subscriber);
+        } else {
+            subscribersByLaboratory
+                    .computeIfAbsent(subscriber.laboratoryId, id -> ConcurrentHashMap.newKeySet())
+                    .add(subscriber);
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (subscriber.laboratoryId == null) {
+            allLaboratorySubscribers.remove(subscriber);
+        } else {
+            subscribersByLaboratory.computeIfPresent(subscriber.laboratoryId, (id, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+
+    /**
+     * Queues the events the subscriber missed, or a reset if it cannot be resumed. Returns false if the
+     * subscriber is closed after the reset.
+     */
+    private boolean replay(Subscriber subscriber, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return true;
+        }
+        long lastSequence = parseEventId(lastEventId.trim());
+        StreamedEvent oldest = replayBuffer.peekFirst();
+        long oldestSequence = oldest != null ? oldest.id : sequence.get() + 1;
+        if (lastSequence < 0 || lastSequence > sequence.get() || oldestSequence > lastSequence + 1) {
+            return resync(subscriber, lastEventId);
+        }
+        List<StreamedEvent> missed = new ArrayList<>();
+        for (StreamedEvent event : replayBuffer) {
+            if (event.id > lastSequence && subscriber.accepts(event)) {
+                missed.add(event);
+            }
+        }
+        if (missed.size() > subscriberBufferSize) {
+            return resync(subscriber, lastEventId);
+        }
+        missed.forEach(subscriber::offer);
+        return true;
+    }
+
+    private boolean resync(Subscriber subscriber, String lastEventId) {
+        logger.info("Equipment stream subscriber cannot resume from {}, sending reset", lastEventId);
+        subscriber.offerLast(new StreamedEvent(sequence.get(), "reset", Set.of(), "{}"));
+        return false;
+    }
+
+    /**
+     * Sequence number of an id issued by this process, or -1 for ids that are malformed or from another epoch.
+     */
+    private long parseEventId(String lastEventId) {
+        int separator = lastEventId.indexOf('-');
+        try {
+            if (separator < 0 || Long.parseLong(lastEventId.substring(0, separator)) != streamEpoch) {
+                return -1L;
+            }
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed Last-Event-ID: {}", lastEventId);
+            return -1L;
+        }
+    }
+
+    private String serialize(EquipmentChangeEvent event) {
+        EquipmentDTO current = event.getCurrent();
+        EquipmentChangeDTO message = new EquipmentChangeDTO(
+                event.getType().name(),
+                event.getEquipmentId(),
+                current != null ? current.getLaboratoryId() : null,
+                event.getBefore() != null ? event.getBefore().getAvailabilityStatus() : null,
+                event.getAfter(),
+                event.getOccurredAt());
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize equipment change " + event.getEquipmentId(), e);
+        }
+    }
+
+    private static final class StreamedEvent {
+        private final long id;
+        private final String name;
+        private final Set<Long> laboratoryIds;
+        private final String data;
+
+        private StreamedEvent(long id, String name, Set<Long> laboratoryIds, String data) {
+            this.id = id;
+            this.name = name;
+            this.laboratoryIds = laboratoryIds;
+            this.data = data;
+        }
+    }
+
+    private final class Subscriber {
+        private final Long laboratoryId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamedEvent> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean completeWhenDrained;
+        private volatile boolean closed;
+
+        private Subscriber(Long laboratoryId, SseEmitter emitter) {
+            this.laboratoryId = laboratoryId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(subscriberBufferSize);
+        }
+
+        private boolean accepts(StreamedEvent event) {
+            return laboratoryId == null || event.laboratoryIds.contains(laboratoryId);
+        }
+
+        private void offer(StreamedEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                if (event == HEARTBEAT) {
+                    return;
+                }
+                logger.warn("Equipment stream subscriber for laboratoryId={} fell behind, disconnecting", laboratoryId);
+                emitter.complete();
+                close();
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Sends the event, then ends the stream. The subscriber is not registered, so nothing follows it.
+         */
+        private void offerLast(StreamedEvent event) {
+            completeWhenDrained = true;
+            offer(event);
+        }
+
+        private void drain() {
+            try {
+                StreamedEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    send(event);
+                }
+                if (completeWhenDrained && !closed) {
+                    emitter.complete();
+                    close();
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                scheduled.set(false);
+                if (!closed && !queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                    executor.execute(this::drain);
+                }
+            }
+        }
+
+        private void send(StreamedEvent event) throws IOException {
+            if (event == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(streamEpoch + "-" + event.id)
+                    .name(event.name)
+                    .data(event.data, MediaType.APPLICATION_JSON));
+        }
+
+        private void close() {
+            if (!closed) {
+                closed = true;
+                queue.clear();
+                unregister(this);
+            }
+        }
+    }
+}
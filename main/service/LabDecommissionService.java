@@ -0,0 +1,253 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.DecommissionJobDTO;
+import com.UAIC.ISMA.dto.DecommissionJobDTO.Phase;
+import com.UAIC.ISMA.dto.DecommissionJobDTO.Status;
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.entity.Laboratory;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.event.LaboratoryChangeEvent;
+import com.UAIC.ISMA.exception.ConflictException;
+import com.UAIC.ISMA.exception.EntityNotFoundException;
+import com.UAIC.ISMA.exception.LaboratoryNotFoundException;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.UAIC.ISMA.repository.LaboratoryRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Removes a laboratory and everything hanging off it with set-based DELETEs instead of loading the whole graph
+ * for the JPA cascade. Rows go in dependency order (access requests, equipment, lab documents, the laboratory)
+ * and each chunk commits in its own short transaction, so row locks are held for one chunk at a time and
+ * concurrent readers are not blocked for the whole run. A job that fails part way leaves the laboratory in
+ * place and can simply be started again. Every removed equipment gets its own DELETED event, followed by the
+ * laboratory's once the laboratory row is gone.
+ */
+@Service
+public class LabDecommissionService {
+
+    private static final Logger logger = LogManager.getLogger(LabDecommissionService.class);
+
+    private final LaboratoryRepository laboratoryRepository;
+    private final EquipmentRepository equipmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final Duration retention;
+
+    private final Map<String, DecommissionJobDTO> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, String> activeJobsByLaboratory = new ConcurrentHashMap<>();
+
+    public LabDecommissionService(LaboratoryRepository laboratoryRepository,
+                                  EquipmentRepository equipmentRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier("decommissionExecutor") Executor executor,
+                                  @Value("${laboratory.decommission.chunk-size:500}") int chunkSize,
+                                  @Value("${laboratory.decommission.pause-ms:50}") long pauseMs,
+                                  @Value("${laboratory.decommission.retention-minutes:60}") long retentionMinutes) {
+        this.laboratoryRepository = laboratoryRepository;
+        this.equipmentRepository = equipmentRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    public DecommissionJobDTO startDecommission(Long laboratoryId) {
+        logger.info("Starting decommission of laboratory with ID: {}", laboratoryId);
+        if (!laboratoryRepository.existsById(laboratoryId)) {
+            logger.error("Cannot decommission. Laboratory with ID {} not found", laboratoryId);
+            throw new LaboratoryNotFoundException(laboratoryId);
+        }
+
+        DecommissionJobDTO job = new DecommissionJobDTO();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setLaboratoryId(laboratoryId);
+        job.setStatus(Status.PENDING);
+        job.setPhase(Phase.ACCESS_REQUESTS);
+        job.setStartedAt(Instant.now());
+
+        String running = activeJobsByLaboratory.putIfAbsent(laboratoryId, job.getJobId());
+        if (running != null) {
+            logger.warn("Laboratory with ID {} is already being decommissioned by job {}", laboratoryId, running);
+            throw new ConflictException("Laboratory " + laboratoryId + " is already being decommissioned by job " + running);
+        }
+        jobs.put(job.getJobId(), job);
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            activeJobsByLaboratory.remove(laboratoryId, job.getJobId());
+            throw e;
+        }
+        return snapshot(job);
+    }
+
+    public DecommissionJobDTO getJob(String jobId) {
+        DecommissionJobDTO job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("Decommission job not found with ID: " + jobId);
+        }
+        return snapshot(job);
+    }
+
+    @Scheduled(fixedDelayString = "${laboratory.decommission.cleanup-interval-ms:600000}")
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                return job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff);
+            }
+        });
+    }
+
+    private void run(DecommissionJobDTO job) {
+        Long labId = job.getLaboratoryId();
+        try {
+            Laboratory lab = laboratoryRepository.findById(labId).orElse(null);
+            if (lab == null) {
+                throw new LaboratoryNotFoundException(labId);
+            }
+            LaboratoryDTO before = new LaboratoryDTO(lab.getId(), lab.getLabName(), lab.getDescription(), lab.getLocation());
+
+            long accessRequests = equipmentRepository.countAccessRequestsByLaboratoryId(labId);
+            long equipment = equipmentRepository.countByLaboratoryId(labId);
+            long documents = laboratoryRepository.countLabDocumentsByLaboratoryId(labId);
+            synchronized (job) {
+                job.setStatus(Status.RUNNING);
+                job.setTotalAccessRequests(accessRequests);
+                job.setTotalEquipment(equipment);
+                job.setTotalLabDocuments(documents);
+            }
+            logger.info("Decommission job {} for laboratory {}: {} access requests, {} equipment, {} lab documents",
+                    job.getJobId(), labId, accessRequests, equipment, documents);
+
+            deleteInChunks(job, Phase.ACCESS_REQUESTS,
+                    page -> equipmentRepository.findAccessRequestIdsByLaboratoryId(labId, page),
+                    equipmentRepository::deleteAccessRequestsByIdIn);
+            deleteInChunks(job, Phase.EQUIPMENT,
+                    page -> equipmentRepository.findIdsByLaboratoryId(labId, page),
+                    this::deleteEquipment);
+            deleteInChunks(job, Phase.LAB_DOCUMENTS,
+                    page -> laboratoryRepository.findLabDocumentIdsByLaboratoryId(labId, page),
+                    laboratoryRepository::deleteLabDocumentsByIdIn);
+
+            setPhase(job, Phase.LABORATORY);
+            transactionTemplate.executeWithoutResult(status -> laboratoryRepository.deleteLaboratoryById(labId));
+
+            synchronized (job) {
+                job.setPhase(Phase.DONE);
+                job.setStatus(Status.COMPLETED);
+                job.setFinishedAt(Instant.now());
+            }
+            logger.info("Decommission job {} completed, laboratory with ID {} deleted", job.getJobId(), labId);
+            eventPublisher.publishEvent(LaboratoryChangeEvent.deleted(before));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(job, e);
+        } catch (RuntimeException e) {
+            fail(job, e);
+        } finally {
+            activeJobsByLaboratory.remove(labId, job.getJobId());
+        }
+    }
+
+    /**
+     * Always reads the first page: every committed chunk removes the rows it listed, so the next lookup starts
+     * from whatever is left.
+     */
+    private void deleteInChunks(DecommissionJobDTO job, Phase phase,
+                                Function<Pageable, List<Long>> nextIds,
+                                ToIntFunction<List<Long>> delete) throws InterruptedException {
+        setPhase(job, phase);
+        Pageable firstChunk = PageRequest.of(0, chunkSize);
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = nextIds.apply(firstChunk);
+                return ids.isEmpty() ? 0 : delete.applyAsInt(ids);
+            });
+            if (deleted == null || deleted == 0) {
+                return;
+            }
+            recordProgress(job, phase, deleted);
+            if (pauseMs > 0) {
+                Thread.sleep(pauseMs);
+            }
+        }
+    }
+
+    /**
+     * Publishes a DELETED event per removed equipment, inside the chunk's transaction so listeners see them
+     * once the chunk commits.
+     */
+    private int deleteEquipment(List<Long> ids) {
+        List<EquipmentDTO> removed = equipmentRepository.findDetailedDTOsByIdIn(ids);
+        int deleted = equipmentRepository.deleteByIdIn(ids);
+        removed.forEach(dto -> eventPublisher.publishEvent(EquipmentChangeEvent.deleted(dto)));
+        return deleted;
+    }
+
+    private void setPhase(DecommissionJobDTO job, Phase phase) {
+        synchronized (job) {
+            job.setPhase(phase);
+        }
+    }
+
+    private void recordProgress(DecommissionJobDTO job, Phase phase, int deleted) {
+        synchronized (job) {
+            switch (phase) {
+                case ACCESS_REQUESTS -> job.setDeletedAccessRequests(job.getDeletedAccessRequests() + deleted);
+                case EQUIPMENT -> job.setDeletedEquipment(job.getDeletedEquipment() + deleted);
+                case LAB_DOCUMENTS -> job.setDeletedLabDocuments(job.getDeletedLabDocuments() + deleted);
+                default -> { }
+            }
+        }
+    }
+
+    private void fail(DecommissionJobDTO job, Exception e) {
+        logger.error("Decommission job {} for laboratory {} failed in phase {}",
+                job.getJobId(), job.getLaboratoryId(), job.getPhase(), e);
+        synchronized (job) {
+            job.setStatus(Status.FAILED);
+            job.setError(e.getMessage());
+            job.setFinishedAt(Instant.now());
+        }
+    }
+
+    private static DecommissionJobDTO snapshot(DecommissionJobDTO job) {
+        synchronized (job) {
+            return new DecommissionJobDTO(job.getJobId(), job.getLaboratoryId(), job.getStatus(), job.getPhase(),
+                    job.getTotalAccessRequests(), job.getDeletedAccessRequests(),
+                    job.getTotalEquipment(), job.getDeletedEquipment(),
+                    job.getTotalLabDocuments(), job.getDeletedLabDocuments(),
+                    job.getStartedAt(), job.getFinishedAt(), job.getError());
+        }
+    }
+}
@@ -1,20 +1,47 @@
 package com.UAIC.ISMA.service;
 
+import com.UAIC.ISMA.cache.LaboratorySearchFilter;
+import com.UAIC.ISMA.cache.SearchResultCache;
 import com.UAIC.ISMA.dto.EquipmentDTO;
 import com.UAIC.ISMA.entity.Laboratory;
+import com.UAIC.ISMA.dto.EquipmentSummaryDTO;
+import com.UAIC.ISMA.dto.LabDocumentSummaryDTO;
+import com.UAIC.ISMA.dto.LaboratoryChildIdDTO;
 import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.dto.LaboratoryDetailsDTO;
+import com.UAIC.ISMA.dto.LaboratoryInclude;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.event.LaboratoryChangeEvent;
 import com.UAIC.ISMA.exception.InvalidInputException;
 import com.UAIC.ISMA.exception.LaboratoryNotFoundException;
 import com.UAIC.ISMA.mapper.EquipmentMapper;
 import com.UAIC.ISMA.mapper.LaboratoryMapper;
+import com.UAIC.ISMA.replica.ReadYourWrites;
+import com.UAIC.ISMA.replica.ReplicaRead;
 import com.UAIC.ISMA.repository.LaboratoryRepository;
+import com.UAIC.ISMA.util.BatchUtils;
+import com.UAIC.ISMA.util.HotPathLogging;
+import com.UAIC.ISMA.util.SingleFlight;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -22,39 +49,159 @@ import java.util.stream.Collectors;
 public class LaboratoryService {
 
     private static final Logger logger = LogManager.getLogger(LaboratoryService.class);
+    private static final Logger hotPathLogger = HotPathLogging.logger(LaboratoryService.class);
 
     public final LaboratoryRepository laboratoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SearchResultCache<LaboratorySearchFilter, LaboratoryDTO> searchCache;
 
-    public LaboratoryService(LaboratoryRepository laboratoryRepository) {
+    /**
+     * Concurrent requests for the same laboratory, e.g. a whole class opening it at once, share one load. The key
+     * holds the client's last write as well, so a client pinned to the primary never joins a replica load.
+     */
+    private final SingleFlight<List<Long>, LaboratoryDTO> laboratoryLoads = new SingleFlight<>();
+    private final SingleFlight<List<Long>, List<EquipmentDTO>> laboratoryEquipmentLoads = new SingleFlight<>();
+
+    public LaboratoryService(LaboratoryRepository laboratoryRepository, ApplicationEventPublisher eventPublisher,
+                             SearchResultCache<LaboratorySearchFilter, LaboratoryDTO> searchCache) {
         this.laboratoryRepository = laboratoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchCache = searchCache;
     }
 
+    @ReplicaRead
     public List<LaboratoryDTO> getAlLaboratories() {
-        logger.info("Fetching all laboratories...");
+        hotPathLogger.info("Fetching all laboratories...");
 
         return laboratoryRepository.findAll().stream()
                 .map(LaboratoryMapper::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @ReplicaRead
     public LaboratoryDTO getLaboratoryById(Long id) {
-        logger.info("Fetching laboratory with ID: {}", id);
+        hotPathLogger.info("Fetching laboratory with ID: {}", id);
 
-        Laboratory lab = laboratoryRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.error("Laboratory with ID {} not found", id);
-                    return new LaboratoryNotFoundException(id);
-                });
-        return LaboratoryMapper.convertToDTO(lab);
+        List<Long> key = List.of(id, ReadYourWrites.currentClientWrite());
+        return laboratoryLoads.execute(key, () -> {
+            Laboratory lab = laboratoryRepository.findById(id)
+                    .orElseThrow(() -> {
+                        logger.error("Laboratory with ID {} not found", id);
+                        return new LaboratoryNotFoundException(id);
+                    });
+            return LaboratoryMapper.convertToDTO(lab);
+        });
     }
 
-    public List<EquipmentDTO> getEquipmentByLaboratoryId(Long labId) {
-        Laboratory laboratory = laboratoryRepository.findById(labId)
-                .orElseThrow(() -> new LaboratoryNotFoundException(labId));
+    /**
+     * Loads the requested laboratories in chunked IN queries, in the order of the requested ids. Unknown ids are
+     * left out of the result.
+     */
+    @ReplicaRead
+    public List<LaboratoryDTO> getLaboratoriesByIds(List<Long> ids) {
+        return new ArrayList<>(getLaboratoryDetailsByIds(ids, EnumSet.noneOf(LaboratoryInclude.class)));
+    }
 
-        return laboratory.getEquipments().stream()
-                .map(EquipmentMapper::convertToDTO)
+    @ReplicaRead
+    public List<LaboratoryDetailsDTO> getLaboratoryDetailsByIds(List<Long> ids, Set<LaboratoryInclude> includes) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidInputException("At least one ID is required.");
+        }
+        if (ids.size() > BatchUtils.MAX_BATCH_SIZE) {
+            throw new InvalidInputException("At most " + BatchUtils.MAX_BATCH_SIZE + " IDs can be fetched at once.");
+        }
+        List<Long> requested = BatchUtils.distinctInOrder(ids);
+        hotPathLogger.info("Fetching {} laboratories by ID with includes {}", requested.size(), includes);
+
+        Map<Long, LaboratoryDTO> byId = new HashMap<>();
+        for (List<Long> chunk : BatchUtils.chunked(requested, BatchUtils.IN_CLAUSE_CHUNK_SIZE)) {
+            laboratoryRepository.findDTOsByIdIn(chunk).forEach(dto -> byId.put(dto.getId(), dto));
+        }
+        List<LaboratoryDTO> ordered = requested.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return withRelations(ordered, includes);
+    }
+
+    @ReplicaRead
+    public LaboratoryDetailsDTO getLaboratoryDetails(Long id, Set<LaboratoryInclude> includes) {
+        hotPathLogger.info("Fetching laboratory with ID: {} and includes {}", id, includes);
+        List<LaboratoryDTO> found = laboratoryRepository.findDTOsByIdIn(List.of(id));
+        if (found.isEmpty()) {
+            logger.error("Laboratory with ID {} not found", id);
+            throw new LaboratoryNotFoundException(id);
+        }
+        return withRelations(found, includes).get(0);
+    }
+
+    @ReplicaRead
+    public Page<LaboratoryDetailsDTO> getLaboratoryDetailsPage(Set<LaboratoryInclude> includes, Pageable pageable) {
+        hotPathLogger.info("Fetching laboratories page {} with includes {}", pageable, includes);
+        Page<LaboratoryDTO> page = laboratoryRepository.findAllDTOs(pageable);
+        return new PageImpl<>(withRelations(page.getContent(), includes), pageable, page.getTotalElements());
+    }
+
+    /**
+     * Fills equipment and document ids, plus the requested summaries, with one query per relation and chunk of
+     * laboratories, so the statement count does not depend on how many laboratories are returned.
+     */
+    private List<LaboratoryDetailsDTO> withRelations(List<LaboratoryDTO> laboratories, Set<LaboratoryInclude> includes) {
+        Map<Long, LaboratoryDetailsDTO> byId = new LinkedHashMap<>();
+        for (LaboratoryDTO laboratory : laboratories) {
+            LaboratoryDetailsDTO details = LaboratoryDetailsDTO.from(laboratory);
+            details.setEquipmentIds(new ArrayList<>());
+            details.setLabDocumentIds(new ArrayList<>());
+            if (includes.contains(LaboratoryInclude.EQUIPMENT)) {
+                details.setEquipment(new ArrayList<>());
+            }
+            if (includes.contains(LaboratoryInclude.DOCUMENTS)) {
+                details.setDocuments(new ArrayList<>());
+            }
+            byId.put(details.getId(), details);
+        }
+
+        for (List<Long> chunk : BatchUtils.chunked(new ArrayList<>(byId.keySet()), BatchUtils.IN_CLAUSE_CHUNK_SIZE)) {
+            if (includes.contains(LaboratoryInclude.EQUIPMENT)) {
+                for (EquipmentSummaryDTO summary : laboratoryRepository.findEquipmentSummariesByLaboratoryIdIn(chunk)) {
+                    LaboratoryDetailsDTO details = byId.get(summary.getLaboratoryId());
+                    details.getEquipment().add(summary);
+                    details.getEquipmentIds().add(summary.getId());
+                }
+            } else {
+                for (LaboratoryChildIdDTO pair : laboratoryRepository.findEquipmentIdsByLaboratoryIdIn(chunk)) {
+                    byId.get(pair.getLaboratoryId()).getEquipmentIds().add(pair.getChildId());
+                }
+            }
+
+            if (includes.contains(LaboratoryInclude.DOCUMENTS)) {
+                for (LabDocumentSummaryDTO summary : laboratoryRepository.findLabDocumentSummariesByLaboratoryIdIn(chunk)) {
+                    LaboratoryDetailsDTO details = byId.get(summary.getLaboratoryId());
+                    details.getDocuments().add(summary);
+                    details.getLabDocumentIds().add(summary.getId());
+                }
+            } else {
+                for (LaboratoryChildIdDTO pair : laboratoryRepository.findLabDocumentIdsByLaboratoryIdIn(chunk)) {
+                    byId.get(pair.getLaboratoryId()).getLabDocumentIds().add(pair.getChildId());
+                }
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    @ReplicaRead
+    public List<EquipmentDTO> getEquipmentByLaboratoryId(Long labId) {
+        hotPathLogger.info("Fetching equipment for laboratory with ID: {}", labId);
+        List<Long> key = List.of(labId, ReadYourWrites.currentClientWrite());
+        return laboratoryEquipmentLoads.execute(key, () -> {
+            Laboratory laboratory = laboratoryRepository.findById(labId)
+                    .orElseThrow(() -> new LaboratoryNotFoundException(labId));
+
+            return laboratory.getEquipments().stream()
+                    .filter(equipment -> equipment.getDeletedAt() == null)
+                    .map(EquipmentMapper::convertToDTO)
+                    .collect(Collectors.toList());
+        });
     }
 
     public LaboratoryDTO createLaboratory(LaboratoryDTO laboratoryDTO) {
@@ -63,7 +210,9 @@ public class LaboratoryService {
 
         Laboratory savedLaboratory = laboratoryRepository.save(laboratory);
         logger.info("Laboratory created with ID: {}", savedLaboratory.getId());
-        return LaboratoryMapper.convertToDTO(savedLaboratory);
+        LaboratoryDTO created = LaboratoryMapper.convertToDTO(savedLaboratory);
+        eventPublisher.publishEvent(LaboratoryChangeEvent.created(created));
+        return created;
     }
 
     public LaboratoryDTO updateLaboratory(Long id, LaboratoryDTO laboratoryDTO) {
@@ -74,6 +223,14 @@ public class LaboratoryService {
                     logger.error("Cannot update. Laboratory with ID {} not found", id);
                     return new LaboratoryNotFoundException(id);
                 });
+        // Hibernate ignores a version set on a managed entity, so the client's version is compared here
+        if (laboratoryDTO.getVersion() != null && !laboratoryDTO.getVersion().equals(existing.getVersion())) {
+            logger.warn("Cannot update. Laboratory with ID {} is at version {}, request was based on version {}",
+                    id, existing.getVersion(), laboratoryDTO.getVersion());
+            throw new OptimisticLockingFailureException("Laboratory " + id + " was modified by someone else");
+        }
+        LaboratoryDTO before = new LaboratoryDTO(existing.getId(), existing.getLabName(),
+                existing.getDescription(), existing.getLocation());
 
         existing.setLabName(laboratoryDTO.getLabName());
         existing.setDescription(laboratoryDTO.getDescription());
@@ -81,9 +238,16 @@ public class LaboratoryService {
 
         Laboratory updated = laboratoryRepository.save(existing);
         logger.info("Laboratory with ID {} updated successfully", id);
-        return LaboratoryMapper.convertToDTO(updated);
+        LaboratoryDTO result = LaboratoryMapper.convertToDTO(updated);
+        eventPublisher.publishEvent(LaboratoryChangeEvent.updated(before, result));
+        return result;
     }
 
+    /**
+     * Soft delete: marks the laboratory and its equipment with {@code deletedAt} in two bulk UPDATEs. The rows
+     * are removed later by {@link SoftDeletePurgeService}.
+     */
+    @Transactional
     public void deleteLaboratory(Long id) {
         logger.info("Deleting laboratory with ID: {}", id);
 
@@ -92,12 +256,25 @@ public class LaboratoryService {
                     logger.error("Cannot delete. Laboratory with ID {} not found", id);
                     return new LaboratoryNotFoundException(id);
                 });
-        laboratoryRepository.delete(lab);
-        logger.info("Laboratory with ID {} deleted successfully", id);
+        LaboratoryDTO before = new LaboratoryDTO(lab.getId(), lab.getLabName(), lab.getDescription(), lab.getLocation());
+        List<EquipmentDTO> removedEquipment = new ArrayList<>();
+        if (lab.getEquipments() != null) {
+            lab.getEquipments().stream()
+                    .filter(equipment -> equipment.getDeletedAt() == null)
+                    .map(EquipmentMapper::convertToDTO)
+                    .forEach(removedEquipment::add);
+        }
+        LocalDateTime deletedAt = LocalDateTime.now();
+        laboratoryRepository.softDeleteById(id, deletedAt);
+        int equipmentCount = laboratoryRepository.softDeleteEquipmentByLaboratoryId(id, deletedAt);
+        logger.info("Laboratory with ID {} deleted successfully together with {} equipment", id, equipmentCount);
+        removedEquipment.forEach(dto -> eventPublisher.publishEvent(EquipmentChangeEvent.deleted(dto)));
+        eventPublisher.publishEvent(LaboratoryChangeEvent.deleted(before));
     }
 
+    @ReplicaRead(afterLocalWrites = true)
     public Page<LaboratoryDTO> searchLaboratories(String name, String location, Pageable pageable) {
-        logger.info("Searching laboratories with filters - name: {}, location: {}", name, location);
+        hotPathLogger.info("Searching laboratories with filters - name: {}, location: {}", name, location);
 
         if (name != null && name.trim().isEmpty()) {
             logger.warn("Invalid lab name received: blank string");
@@ -109,8 +286,29 @@ public class LaboratoryService {
             throw new InvalidInputException("Invalid location format: " + location);
         }
 
-        Page<LaboratoryDTO> results = laboratoryRepository.searchLaboratoryByNameAndLocation(name, location, pageable);
-        logger.info("Search completed. Found {} laboratories", results.getTotalElements());
+        LaboratorySearchFilter filter = LaboratorySearchFilter.of(name, location);
+        Page<LaboratoryDTO> results = searchCache.get(filter, pageable);
+        if (results == null) {
+            long epoch = searchCache.epoch();
+            results = laboratoryRepository.searchLaboratoryByNameAndLocation(name, location, pageable);
+            searchCache.put(filter, pageable, results, epoch);
+        }
+        logger.debug("Search completed. Found {} laboratories", results.getTotalElements());
         return results;
     }
+
+    /**
+     * Loads in flight when a change commits may have read the old state; later callers start their own.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLaboratoryChange(LaboratoryChangeEvent event) {
+        laboratoryLoads.forgetAll();
+        laboratoryEquipmentLoads.forgetAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEquipmentChange(EquipmentChangeEvent event) {
+        laboratoryLoads.forgetAll();
+        laboratoryEquipmentLoads.forgetAll();
+    }
 }
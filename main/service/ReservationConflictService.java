@@ -0,0 +1,73 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.AccessWindowDTO;
+import com.UAIC.ISMA.dto.ConflictCheckDTO;
+import com.UAIC.ISMA.entity.enums.RequestStatus;
+import com.UAIC.ISMA.exception.ConflictException;
+import com.UAIC.ISMA.exception.EquipmentNotFoundException;
+import com.UAIC.ISMA.exception.InvalidInputException;
+import com.UAIC.ISMA.index.AccessWindowIndex;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+public class ReservationConflictService {
+
+    private static final Logger logger = LogManager.getLogger(ReservationConflictService.class);
+
+    private final EquipmentRepository equipmentRepository;
+    private final AccessWindowIndex accessWindowIndex;
+
+    public ReservationConflictService(EquipmentRepository equipmentRepository, AccessWindowIndex accessWindowIndex) {
+        this.equipmentRepository = equipmentRepository;
+        this.accessWindowIndex = accessWindowIndex;
+    }
+
+    /**
+     * Lists the approved and pending windows overlapping {@code [from, to)}. The equipment is available when
+     * none of them is approved; pending overlaps are reported so the caller can warn about competing requests.
+     */
+    public ConflictCheckDTO checkConflicts(Long equipmentId, LocalDateTime from, LocalDateTime to) {
+        logger.info("Checking reservation conflicts for equipment ID {} between {} and {}", equipmentId, from, to);
+        validateWindow(from, to);
+        if (!equipmentRepository.existsById(equipmentId)) {
+            logger.error("Equipment with ID {} not found for conflict check", equipmentId);
+            throw new EquipmentNotFoundException(equipmentId);
+        }
+
+        List<AccessWindowDTO> conflicts = accessWindowIndex.findOverlapping(equipmentId, from, to);
+        boolean available = conflicts.stream().noneMatch(w -> w.getStatus() == RequestStatus.APPROVED);
+        return new ConflictCheckDTO(equipmentId, from, to, available, conflicts);
+    }
+
+    /**
+     * Guard for the approval path: fails if another approved window of the equipment overlaps {@code [from, to)}.
+     */
+    public void assertNoApprovedConflict(Long equipmentId, LocalDateTime from, LocalDateTime to, Long accessRequestId) {
+        validateWindow(from, to);
+        List<Long> conflicting = accessWindowIndex.findOverlapping(equipmentId, from, to).stream()
+                .filter(w -> w.getStatus() == RequestStatus.APPROVED)
+                .map(AccessWindowDTO::getAccessRequestId)
+                .filter(id -> !Objects.equals(id, accessRequestId))
+                .collect(Collectors.toList());
+        if (!conflicting.isEmpty()) {
+            logger.warn("Access request {} overlaps approved requests {} on equipment ID {}",
+                    accessRequestId, conflicting, equipmentId);
+            throw new ConflictException("Equipment " + equipmentId + " is already reserved between " + from
+                    + " and " + to + " by access requests " + conflicting);
+        }
+    }
+
+    private void validateWindow(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new InvalidInputException("Invalid time window: 'to' must be after 'from'");
+        }
+    }
+}
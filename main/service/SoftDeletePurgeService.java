@@ -0,0 +1,120 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.UAIC.ISMA.repository.LaboratoryRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Physically removes soft-deleted equipment and laboratories once they are older than the retention period.
+ * Runs on a cron restricted to the off-peak window and works in small batches, each in its own transaction
+ * with a pause in between, so a run never holds locks for long. Equipment goes first (with its access
+ * requests); a laboratory is only purged once none of its equipment rows are left.
+ */
+@Service
+public class SoftDeletePurgeService {
+
+    private static final Logger logger = LogManager.getLogger(SoftDeletePurgeService.class);
+
+    private final EquipmentRepository equipmentRepository;
+    private final LaboratoryRepository laboratoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseMs;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SoftDeletePurgeService(EquipmentRepository equipmentRepository,
+                                  LaboratoryRepository laboratoryRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${soft-delete.purge.retention-days:30}") int retentionDays,
+                                  @Value("${soft-delete.purge.batch-size:200}") int batchSize,
+                                  @Value("${soft-delete.purge.max-batches-per-run:50}") int maxBatchesPerRun,
+                                  @Value("${soft-delete.purge.pause-ms:200}") long pauseMs) {
+        this.equipmentRepository = equipmentRepository;
+        this.laboratoryRepository = laboratoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseMs = pauseMs;
+    }
+
+    @Scheduled(cron = "${soft-delete.purge.cron:0 */10 1-5 * * *}")
+    public void purge() {
+        if (!running.compareAndSet(false, true)) {
+            logger.debug("Soft delete purge already running, skipping");
+            return;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+            int batches = 0;
+            int equipment = 0;
+            int laboratories = 0;
+            while (batches < maxBatchesPerRun) {
+                int purged = purgeBatch(page -> equipmentRepository.findPurgeableIds(cutoff, page), ids -> {
+                    equipmentRepository.deleteAccessRequestsByEquipmentIdIn(ids);
+                    equipmentRepository.deleteByIdIn(ids);
+                });
+                if (purged == 0) {
+                    break;
+                }
+                equipment += purged;
+                batches++;
+                pause();
+            }
+            while (batches < maxBatchesPerRun) {
+                int purged = purgeBatch(page -> laboratoryRepository.findPurgeableIds(cutoff, page), ids -> {
+                    laboratoryRepository.deleteLabDocumentsByLaboratoryIdIn(ids);
+                    laboratoryRepository.deleteByIdIn(ids);
+                });
+                if (purged == 0) {
+                    break;
+                }
+                laboratories += purged;
+                batches++;
+                pause();
+            }
+            if (equipment > 0 || laboratories > 0) {
+                logger.info("Purged {} equipment and {} laboratories deleted before {}", equipment, laboratories, cutoff);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Soft delete purge failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int purgeBatch(Function<Pageable, List<Long>> nextIds, Consumer<List<Long>> delete) {
+        Integer purged = transactionTemplate.execute(status -> {
+            List<Long> ids = nextIds.apply(PageRequest.of(0, batchSize));
+            if (!ids.isEmpty()) {
+                delete.accept(ids);
+            }
+            return ids.size();
+        });
+        return purged != null ? purged : 0;
+    }
+
+    private void pause() throws InterruptedException {
+        if (pauseMs > 0) {
+            Thread.sleep(pauseMs);
+        }
+    }
+}
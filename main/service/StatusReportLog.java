@@ -0,0 +1,156 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.StatusReportDTO;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Local append log backing the buffered status reports, one {@code id,STATUS,epochMillis} line per report.
+ * Before a flush the file is moved aside to {@code <path>.flushing} and a fresh one is started, so reports
+ * arriving during the flush are never lost; the moved-aside segment is deleted once the flush has committed.
+ * <p>
+ * Every append reaches the operating system before the request returns, which survives a process crash. With
+ * {@code fsync} it is also forced to disk, which survives a power loss at the cost of one sync per request.
+ * Not thread-safe; {@link EquipmentStatusIngestService} serialises access.
+ */
+class StatusReportLog {
+
+    private static final Logger logger = LogManager.getLogger(StatusReportLog.class);
+
+    private final Path path;
+    private final Path flushing;
+    private final boolean fsync;
+    private FileChannel channel;
+
+    StatusReportLog(Path path, boolean fsync) {
+        this.path = path;
+        this.flushing = path.resolveSibling(path.getFileName() + ".flushing");
+        this.fsync = fsync;
+    }
+
+    /**
+     * Reads the reports left by a previous run, from both the current file and an interrupted flush, then
+     * rewrites them into a single fresh file and opens it for appending.
+     */
+    List<StatusReportDTO> recover() {
+        try {
+            List<StatusReportDTO> reports = new ArrayList<>();
+            read(flushing, reports);
+            read(path, reports);
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path rewritten = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(rewritten, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                write(out, reports);
+                out.force(false);
+            }
+            Files.move(rewritten, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(flushing);
+            channel = open();
+            if (!reports.isEmpty()) {
+                logger.info("Recovered {} buffered status reports from {}", reports.size(), path);
+            }
+            return reports;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover status report log " + path, e);
+        }
+    }
+
+    void append(Collection<StatusReportDTO> reports) {
+        try {
+            write(channel, reports);
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to status report log " + path, e);
+        }
+    }
+
+    /**
+     * Moves the current file aside for the flush that is about to start and opens a fresh one.
+     */
+    void rotate() {
+        try {
+            channel.close();
+            Files.move(path, flushing, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rotate status report log " + path, e);
+        }
+    }
+
+    void discardRotated() {
+        try {
+            Files.deleteIfExists(flushing);
+        } catch (IOException e) {
+            logger.warn("Cannot delete flushed status report log {}", flushing, e);
+        }
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Cannot close status report log {}", path, e);
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static void write(FileChannel out, Collection<StatusReportDTO> reports) throws IOException {
+        StringBuilder lines = new StringBuilder(reports.size() * 32);
+        for (StatusReportDTO report : reports) {
+            lines.append(report.getEquipmentId()).append(',')
+                    .append(report.getStatus().name()).append(',')
+                    .append(report.getReportedAt().toEpochMilli()).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static void read(Path file, List<StatusReportDTO> reports) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    // a torn last line from a crash mid-write
+                    continue;
+                }
+                try {
+                    reports.add(new StatusReportDTO(Long.parseLong(fields[0]), AvailabilityStatus.valueOf(fields[1]),
+                            Instant.ofEpochMilli(Long.parseLong(fields[2]))));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Skipping unreadable status report log line in {}: {}", file, line);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.UAIC.ISMA.sql;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Blob;
+import java.sql.Clob;
+
+/**
+ * Turns a bind value into the text kept in the slow-query log. Declare a bean of this type to mask values
+ * that must not leave the database, for instance by matching the column name in the SQL.
+ */
+@FunctionalInterface
+public interface BindValueRedactor {
+
+    int MAX_LENGTH = 64;
+
+    /**
+     * Keeps scalar values, truncates long strings and hides binary and streamed content.
+     */
+    BindValueRedactor DEFAULT = (sql, index, value) -> {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof byte[] || value instanceof Blob || value instanceof Clob
+                || value instanceof InputStream || value instanceof Reader) {
+            return "<binary>";
+        }
+        String text = String.valueOf(value);
+        return text.length() > MAX_LENGTH ? text.substring(0, MAX_LENGTH) + "..." : text;
+    };
+
+    /**
+     * @param index 1-based parameter index, as in JDBC
+     */
+    String redact(String sql, int index, Object value);
+}
@@ -0,0 +1,23 @@
+package com.UAIC.ISMA.sql;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+
+/**
+ * Session-factory interceptor counting the entities Hibernate hydrates for the current request. DTO
+ * projections do not load entities, so a high count next to a low statement count usually means a query that
+ * should have been a projection.
+ */
+@Component
+public class EntityLoadCounter implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.recordEntityLoad();
+        }
+        return false;
+    }
+}
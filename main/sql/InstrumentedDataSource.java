@@ -0,0 +1,256 @@
+package com.UAIC.ISMA.sql;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a {@link DataSource} in JDK proxies down to the connection, statement and result set level, and
+ * reports every executed statement to the {@link QueryListener}s. Only {@code execute*}, parameter setters,
+ * {@code next()} and {@code close()} do extra work; everything else is passed through, including
+ * {@code unwrap}, so pool metrics still find the Hikari pool behind the proxy.
+ */
+public final class InstrumentedDataSource {
+
+    private static final Logger logger = LogManager.getLogger(InstrumentedDataSource.class);
+
+    /** SQL reported for a plain statement batch, whose individual statements are not tracked. */
+    static final String BATCH = "<batch>";
+
+    private InstrumentedDataSource() {
+    }
+
+    public static DataSource wrap(DataSource target, Supplier<List<QueryListener>> listeners) {
+        return proxy(DataSource.class, new DataSourceHandler(target, listeners));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static void publish(Supplier<List<QueryListener>> listeners, QueryExecution execution) {
+        if (!execution.complete()) {
+            return;
+        }
+        for (QueryListener listener : listeners.get()) {
+            try {
+                listener.onQuery(execution);
+            } catch (RuntimeException e) {
+                logger.warn("Query listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+
+        final Object target;
+        final Supplier<List<QueryListener>> listeners;
+
+        DelegatingHandler(Object target, Supplier<List<QueryListener>> listeners) {
+            this.target = target;
+            this.listeners = listeners;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Instrumented[" + target + "]";
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : delegate(method, args);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || (Boolean) delegate(method, args);
+                default:
+                    return handle(proxy, method, args);
+            }
+        }
+
+        abstract Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+
+        Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class DataSourceHandler extends DelegatingHandler {
+
+        DataSourceHandler(DataSource target, Supplier<List<QueryListener>> listeners) {
+            super(target, listeners);
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if (result instanceof Connection connection) {
+                return proxy(Connection.class, new ConnectionHandler(connection, listeners));
+            }
+            return result;
+        }
+    }
+
+    private static final class ConnectionHandler extends DelegatingHandler {
+
+        ConnectionHandler(Connection target, Supplier<List<QueryListener>> listeners) {
+            super(target, listeners);
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return proxy(method.getReturnType(), new StatementHandler(statement, sql, listeners));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler extends DelegatingHandler {
+
+        private final String preparedSql;
+        private final List<Object> parameters = new ArrayList<>();
+        private QueryExecution open;
+
+        StatementHandler(Statement target, String preparedSql, Supplier<List<QueryListener>> listeners) {
+            super(target, listeners);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(name, method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("close")) {
+                finishOpen();
+            } else if (name.equals("getResultSet")) {
+                Object result = delegate(method, args);
+                if (result instanceof ResultSet resultSet && open != null) {
+                    return proxy(ResultSet.class, new ResultSetHandler(resultSet, open, listeners));
+                }
+                return result;
+            }
+            return delegate(method, args);
+        }
+
+        private Object execute(String name, Method method, Object[] args) throws Throwable {
+            finishOpen();
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            if (sql == null) {
+                sql = BATCH;
+            }
+            QueryExecution execution = new QueryExecution(sql, new ArrayList<>(parameters));
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = delegate(method, args);
+            } catch (Throwable e) {
+                execution.addElapsed(System.nanoTime() - start);
+                execution.markFailed();
+                publish(listeners, execution);
+                throw e;
+            }
+            execution.addElapsed(System.nanoTime() - start);
+
+            if (result instanceof ResultSet resultSet) {
+                open = execution;
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, execution, listeners));
+            }
+            if (name.equals("execute") && Boolean.TRUE.equals(result)) {
+                open = execution;
+                return result;
+            }
+            execution.addRows(updateCount(result));
+            publish(listeners, execution);
+            return result;
+        }
+
+        private void bind(int index, Object value) {
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value);
+        }
+
+        private void finishOpen() {
+            if (open != null) {
+                publish(listeners, open);
+                open = null;
+            }
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Number count) {
+                return Math.max(count.longValue(), 0);
+            }
+            long total = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    total += Math.max(count, 0);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    total += Math.max(count, 0);
+                }
+            }
+            return total;
+        }
+    }
+
+    private static final class ResultSetHandler extends DelegatingHandler {
+
+        private final QueryExecution execution;
+
+        ResultSetHandler(ResultSet target, QueryExecution execution, Supplier<List<QueryListener>> listeners) {
+            super(target, listeners);
+            this.execution = execution;
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    long start = System.nanoTime();
+                    Object hasRow = delegate(method, args);
+                    execution.addElapsed(System.nanoTime() - start);
+                    if (Boolean.TRUE.equals(hasRow)) {
+                        execution.addRows(1);
+                    }
+                    return hasRow;
+                }
+                case "close": {
+                    Object result = delegate(method, args);
+                    publish(listeners, execution);
+                    return result;
+                }
+                default:
+                    return delegate(method, args);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.UAIC.ISMA.sql;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One statement execution as seen by {@link InstrumentedDataSource}: the SQL text, the bound parameters in
+ * index order, the rows read or updated and the time spent in the driver (execution plus result set fetching).
+ */
+public final class QueryExecution {
+
+    private final String sql;
+    private final List<Object> parameters;
+    private long elapsedNanos;
+    private long rows;
+    private boolean failed;
+    private boolean completed;
+
+    QueryExecution(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = Collections.unmodifiableList(parameters);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    void addElapsed(long nanos) {
+        elapsedNanos += nanos;
+    }
+
+    void addRows(long count) {
+        rows += count;
+    }
+
+    void markFailed() {
+        failed = true;
+    }
+
+    /**
+     * Returns {@code true} the first time it is called, so listeners are notified once even when both the
+     * result set and its statement are closed.
+     */
+    boolean complete() {
+        if (completed) {
+            return false;
+        }
+        completed = true;
+        return true;
+    }
+}
@@ -0,0 +1,10 @@
+package com.UAIC.ISMA.sql;
+
+/**
+ * Notified by {@link InstrumentedDataSource} once a statement has finished: right after an update or batch,
+ * or when the result set of a query is closed. Called on the thread that ran the statement.
+ */
+public interface QueryListener {
+
+    void onQuery(QueryExecution execution);
+}
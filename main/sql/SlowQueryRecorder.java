@@ -0,0 +1,149 @@
+package com.UAIC.ISMA.sql;
+
+import com.UAIC.ISMA.aop.QueryOriginAspect;
+import com.UAIC.ISMA.aop.RequestTags;
+import com.UAIC.ISMA.dto.SlowQueryDTO;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the last {@code sql.slow-query.capacity} statements slower than {@code sql.slow-query.threshold-ms}
+ * in a ring buffer, with the endpoint, the repository method that issued them, redacted bind values, row count
+ * and elapsed time. SELECTs slower than {@code sql.slow-query.explain-threshold-ms} are also run through
+ * {@code EXPLAIN} on a background thread with the original bind values, which are not kept afterwards.
+ */
+@Component
+public class SlowQueryRecorder implements QueryListener {
+
+    private static final Logger logger = LogManager.getLogger(SlowQueryRecorder.class);
+
+    static final String EXPLAIN_PREFIX = "EXPLAIN ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor explainExecutor;
+    private final BindValueRedactor redactor;
+    private final long thresholdNanos;
+    private final long explainThresholdNanos;
+    private final int capacity;
+    private final ArrayDeque<SlowQueryDTO> entries;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SlowQueryRecorder(JdbcTemplate jdbcTemplate,
+                             @Qualifier("slowQueryExplainExecutor") Executor explainExecutor,
+                             ObjectProvider<BindValueRedactor> redactor,
+                             @Value("${sql.slow-query.threshold-ms:250}") long thresholdMs,
+                             @Value("${sql.slow-query.explain-threshold-ms:1000}") long explainThresholdMs,
+                             @Value("${sql.slow-query.capacity:200}") int capacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.explainExecutor = explainExecutor;
+        this.redactor = redactor.getIfAvailable(() -> BindValueRedactor.DEFAULT);
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.explainThresholdNanos = explainThresholdMs < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(explainThresholdMs);
+        this.capacity = capacity;
+        this.entries = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public void onQuery(QueryExecution execution) {
+        String sql = execution.getSql();
+        if (execution.getElapsedNanos() < thresholdNanos || sql.regionMatches(true, 0, EXPLAIN_PREFIX, 0, EXPLAIN_PREFIX.length())) {
+            return;
+        }
+        SlowQueryDTO entry = new SlowQueryDTO(sequence.incrementAndGet(), LocalDateTime.now(), RequestTags.endpoint(),
+                QueryOriginAspect.current(), sql, redact(sql, execution.getParameters()), execution.getRows(),
+                execution.getElapsedNanos() / 1_000_000.0, execution.isFailed(), null);
+        synchronized (entries) {
+            if (entries.size() == capacity) {
+                entries.removeFirst();
+            }
+            entries.addLast(entry);
+        }
+        logger.warn("Slow query #{} from {} on {}: {} rows in {} ms", entry.getId(), entry.getOrigin(),
+                entry.getEndpoint(), entry.getRows(), String.format(Locale.ROOT, "%.1f", entry.getElapsedMillis()));
+
+        if (execution.getElapsedNanos() >= explainThresholdNanos && !execution.isFailed() && isSelect(sql)) {
+            List<Object> parameters = execution.getParameters();
+            explainExecutor.execute(() -> explain(entry.getId(), sql, parameters));
+        }
+    }
+
+    /**
+     * Captured slow queries, most recent first.
+     */
+    public List<SlowQueryDTO> getRecent(int limit) {
+        List<SlowQueryDTO> recent = new ArrayList<>(Math.min(limit, capacity));
+        synchronized (entries) {
+            Iterator<SlowQueryDTO> newestFirst = entries.descendingIterator();
+            while (newestFirst.hasNext() && recent.size() < limit) {
+                SlowQueryDTO entry = newestFirst.next();
+                recent.add(new SlowQueryDTO(entry.getId(), entry.getCapturedAt(), entry.getEndpoint(), entry.getOrigin(),
+                        entry.getSql(), entry.getParameters(), entry.getRows(), entry.getElapsedMillis(),
+                        entry.isFailed(), entry.getPlan()));
+            }
+        }
+        return recent;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    void explain(long entryId, String sql, List<Object> parameters) {
+        String plan;
+        try {
+            plan = jdbcTemplate.query(EXPLAIN_PREFIX + sql, statement -> {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+            }, resultSet -> {
+                StringBuilder text = new StringBuilder();
+                while (resultSet.next()) {
+                    text.append(resultSet.getString(1)).append('\n');
+                }
+                return text.toString();
+            });
+        } catch (DataAccessException e) {
+            logger.warn("Could not explain slow query #{}: {}", entryId, e.getMessage());
+            return;
+        }
+        synchronized (entries) {
+            for (SlowQueryDTO entry : entries) {
+                if (entry.getId() == entryId) {
+                    entry.setPlan(plan);
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<String> redact(String sql, List<Object> parameters) {
+        List<String> redacted = new ArrayList<>(parameters.size());
+        for (int i = 0; i < parameters.size(); i++) {
+            redacted.add(redactor.redact(sql, i + 1, parameters.get(i)));
+        }
+        return redacted;
+    }
+
+    private static boolean isSelect(String sql) {
+        String trimmed = sql.stripLeading();
+        return trimmed.regionMatches(true, 0, "select", 0, 6) || trimmed.regionMatches(true, 0, "with", 0, 4);
+    }
+}
@@ -0,0 +1,32 @@
+package com.UAIC.ISMA.sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Upper bounds on the database work a single request to the annotated endpoint may do. Exceeding them is
+ * logged as a warning, and fails the request when {@code sql.budget.mode=fail} (the test profile), so a
+ * change that adds queries to an endpoint shows up in the integration tests.
+ * <p>
+ * Budgets are meant for endpoints whose query plan does not depend on the data; set them to what the
+ * endpoint does today rather than to a comfortable margin.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SqlBudget {
+
+    int UNLIMITED = -1;
+
+    /** Maximum number of statements executed. */
+    int statements();
+
+    /** Maximum number of rows read or updated, or {@link #UNLIMITED}. */
+    long rows() default UNLIMITED;
+
+    /** Maximum number of entities loaded by Hibernate, or {@link #UNLIMITED}. */
+    long entities() default UNLIMITED;
+}
@@ -0,0 +1,103 @@
+package com.UAIC.ISMA.sql;
+
+import com.UAIC.ISMA.aop.RequestTags;
+import com.UAIC.ISMA.exception.SqlBudgetExceededException;
+import com.UAIC.ISMA.util.HotPathLogging;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.StringMapMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Opens the {@link SqlRequestStats} of each handled request, checks them against the handler's
+ * {@link SqlBudget} and writes one structured log line per request. With {@code sql.budget.mode=fail} an
+ * overrun fails the request before its body is written; otherwise it is only logged as a warning.
+ */
+@Component
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String STATS_HEADER = "X-SQL-Stats";
+    public static final String DEBUG_REQUEST_HEADER = "X-Debug-SQL";
+
+    private static final Logger logger = LogManager.getLogger(SqlBudgetInterceptor.class);
+    private static final Logger hotPathLogger = HotPathLogging.logger(SqlBudgetInterceptor.class);
+
+    private final boolean failOnViolation;
+    private final int repeatThreshold;
+    private final boolean alwaysExposeHeader;
+
+    public SqlBudgetInterceptor(@Value("${sql.budget.mode:warn}") String mode,
+                                @Value("${sql.budget.repeat-threshold:10}") int repeatThreshold,
+                                @Value("${sql.budget.debug-header:false}") boolean alwaysExposeHeader) {
+        this.failOnViolation = "fail".equalsIgnoreCase(mode);
+        this.repeatThreshold = repeatThreshold;
+        this.alwaysExposeHeader = alwaysExposeHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlBudget budget = handler instanceof HandlerMethod method ? method.getMethodAnnotation(SqlBudget.class) : null;
+        SqlRequestStats.begin(RequestTags.endpoint(), budget);
+        return true;
+    }
+
+    /**
+     * Called just before the response body is serialized, while headers can still be set. Statements run
+     * later, while serializing lazy associations, are only reflected in the log line.
+     */
+    void beforeBody(HttpServletRequest request, HttpHeaders headers) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats == null) {
+            return;
+        }
+        if (alwaysExposeHeader || request.getHeader(DEBUG_REQUEST_HEADER) != null) {
+            headers.set(STATS_HEADER, stats.toHeaderValue());
+        }
+        if (failOnViolation) {
+            List<String> violations = stats.violations(repeatThreshold);
+            if (!violations.isEmpty() && !stats.markEnforced()) {
+                throw new SqlBudgetExceededException(stats.getEndpoint(), String.join("; ", violations));
+            }
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlRequestStats.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlRequestStats stats = SqlRequestStats.end();
+        if (stats == null) {
+            return;
+        }
+        StringMapMessage message = new StringMapMessage()
+                .with("event", "sql.request")
+                .with("endpoint", stats.getEndpoint())
+                .with("status", response.getStatus())
+                .with("statements", stats.getStatements())
+                .with("rows", stats.getRows())
+                .with("entities", stats.getEntities())
+                .with("dbMs", String.format(Locale.ROOT, "%.2f", stats.getDbMillis()));
+        if (stats.getBudget() != null) {
+            message.with("budgetStatements", stats.getBudget().statements());
+        }
+
+        List<String> violations = stats.violations(repeatThreshold);
+        if (violations.isEmpty()) {
+            hotPathLogger.info(message);
+        } else {
+            logger.warn(message.with("violations", String.join("; ", violations)));
+        }
+    }
+}
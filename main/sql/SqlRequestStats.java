@@ -0,0 +1,132 @@
+package com.UAIC.ISMA.sql;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Database work done on behalf of the current request: statements, rows, entities loaded by Hibernate and
+ * time spent in the driver. Bound to the request thread between {@link #begin} and {@link #end}; statements
+ * run on other threads (async executors, scheduled jobs) are not attributed to any request.
+ */
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private final String endpoint;
+    private final SqlBudget budget;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long entities;
+    private long dbNanos;
+    private String mostRepeatedSql;
+    private int mostRepeatedCount;
+    private boolean enforced;
+
+    SqlRequestStats(String endpoint, SqlBudget budget) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+    }
+
+    public static SqlRequestStats begin(String endpoint, SqlBudget budget) {
+        SqlRequestStats stats = new SqlRequestStats(endpoint, budget);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stats of the request served by this thread, or {@code null} outside a request.
+     */
+    public static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    public static SqlRequestStats end() {
+        SqlRequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    void record(QueryExecution execution) {
+        statements++;
+        rows += execution.getRows();
+        dbNanos += execution.getElapsedNanos();
+        int count = executionsBySql.merge(execution.getSql(), 1, Integer::sum);
+        if (count > mostRepeatedCount) {
+            mostRepeatedCount = count;
+            mostRepeatedSql = execution.getSql();
+        }
+    }
+
+    void recordEntityLoad() {
+        entities++;
+    }
+
+    /**
+     * Budget overruns and, once one statement has been executed {@code repeatThreshold} times, the N+1 suspect.
+     * Empty when the request is within bounds.
+     */
+    public List<String> violations(int repeatThreshold) {
+        List<String> violations = new ArrayList<>();
+        if (budget != null) {
+            if (statements > budget.statements()) {
+                violations.add("statements " + statements + " > " + budget.statements());
+            }
+            if (budget.rows() != SqlBudget.UNLIMITED && rows > budget.rows()) {
+                violations.add("rows " + rows + " > " + budget.rows());
+            }
+            if (budget.entities() != SqlBudget.UNLIMITED && entities > budget.entities()) {
+                violations.add("entities " + entities + " > " + budget.entities());
+            }
+        }
+        if (mostRepeatedCount >= repeatThreshold) {
+            violations.add("N+1 suspect: executed " + mostRepeatedCount + " times: " + mostRepeatedSql);
+        }
+        return violations;
+    }
+
+    /**
+     * Marks the stats as enforced and returns whether they already were, so a request is failed at most once.
+     */
+    boolean markEnforced() {
+        boolean already = enforced;
+        enforced = true;
+        return already;
+    }
+
+    public String toHeaderValue() {
+        return "statements=" + statements + ";rows=" + rows + ";entities=" + entities
+                + ";db-ms=" + String.format(Locale.ROOT, "%.2f", getDbMillis());
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public SqlBudget getBudget() {
+        return budget;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getEntities() {
+        return entities;
+    }
+
+    public double getDbMillis() {
+        return dbNanos / 1_000_000.0;
+    }
+
+    public int getMostRepeatedCount() {
+        return mostRepeatedCount;
+    }
+}
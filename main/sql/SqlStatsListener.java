@@ -0,0 +1,18 @@
+package com.UAIC.ISMA.sql;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds every executed statement to the {@link SqlRequestStats} of the request running on the same thread.
+ */
+@Component
+public class SqlStatsListener implements QueryListener {
+
+    @Override
+    public void onQuery(QueryExecution execution) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.record(execution);
+        }
+    }
+}
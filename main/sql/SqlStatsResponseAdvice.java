@@ -0,0 +1,38 @@
+package com.UAIC.ISMA.sql;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Hands each response body to {@link SqlBudgetInterceptor#beforeBody} while the headers are still writable.
+ */
+@RestControllerAdvice
+public class SqlStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final SqlBudgetInterceptor sqlBudgetInterceptor;
+
+    public SqlStatsResponseAdvice(SqlBudgetInterceptor sqlBudgetInterceptor) {
+        this.sqlBudgetInterceptor = sqlBudgetInterceptor;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            sqlBudgetInterceptor.beforeBody(servletRequest.getServletRequest(), response.getHeaders());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,65 @@
+package com.UAIC.ISMA.tracing;
+
+/**
+ * Statements run during one traced repository call: count, rows, driver time and the slowest statement, which
+ * ends up on the span so a slow trace points at the exact query.
+ */
+final class DbCallStats {
+
+    private static final ThreadLocal<DbCallStats> CURRENT = new ThreadLocal<>();
+
+    private final DbCallStats parent;
+    private int statements;
+    private long rows;
+    private long nanos;
+    private long slowestNanos = -1;
+    private String slowestSql;
+
+    private DbCallStats(DbCallStats parent) {
+        this.parent = parent;
+    }
+
+    static DbCallStats open() {
+        DbCallStats stats = new DbCallStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static DbCallStats current() {
+        return CURRENT.get();
+    }
+
+    void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    void record(String sql, long rowCount, long elapsedNanos) {
+        statements++;
+        rows += rowCount;
+        nanos += elapsedNanos;
+        if (elapsedNanos > slowestNanos) {
+            slowestNanos = elapsedNanos;
+            slowestSql = sql;
+        }
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    double getMillis() {
+        return nanos / 1_000_000.0;
+    }
+
+    String getSlowestSql() {
+        return slowestSql;
+    }
+}
@@ -0,0 +1,20 @@
+package com.UAIC.ISMA.tracing;
+
+import com.UAIC.ISMA.sql.QueryExecution;
+import com.UAIC.ISMA.sql.QueryListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attributes executed statements to the repository span open on the same thread, if any.
+ */
+@Component
+public class DbSpanListener implements QueryListener {
+
+    @Override
+    public void onQuery(QueryExecution execution) {
+        DbCallStats stats = DbCallStats.current();
+        if (stats != null) {
+            stats.record(execution.getSql(), execution.getRows(), execution.getElapsedNanos());
+        }
+    }
+}
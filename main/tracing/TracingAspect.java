@@ -0,0 +1,90 @@
+package com.UAIC.ISMA.tracing;
+
+import com.UAIC.ISMA.aop.RequestTags;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Opens a child span of the HTTP server span for every controller handler, service method and repository
+ * call. Repository spans also carry the statements they ran ({@code db.statements}, {@code db.rows},
+ * {@code db.time_ms}) and the text of the slowest one ({@code db.statement}), so a tail-latency trace leads to
+ * the exact query.
+ * <p>
+ * Unsampled requests get no-op spans and skip attribute computation. Without a tracing bridge on the classpath,
+ * or with {@code management.tracing.enabled=false}, {@link Tracer#NOOP} is used.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "tracing.spans.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingAspect {
+
+    private final Tracer tracer;
+
+    public TracingAspect(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    @Around("com.UAIC.ISMA.aop.Pointcuts.controllerMethods()")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "controller", false);
+    }
+
+    @Around("com.UAIC.ISMA.aop.Pointcuts.serviceMethods()")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service", false);
+    }
+
+    @Around("com.UAIC.ISMA.aop.Pointcuts.repositoryMethods()")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "repository", true);
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String layer, boolean database) throws Throwable {
+        Span span = tracer.nextSpan();
+        if (span.isNoop()) {
+            return joinPoint.proceed();
+        }
+        String type = RequestTags.declaringType(joinPoint);
+        String method = joinPoint.getSignature().getName();
+        span.name(type + "." + method)
+                .tag("isma.layer", layer)
+                .tag("code.namespace", type)
+                .tag("code.function", method)
+                .tag("isma.endpoint", RequestTags.endpoint())
+                .tag("isma.filter", RequestTags.filterShape(joinPoint));
+        Long entityId = RequestTags.entityId(joinPoint);
+        if (entityId != null) {
+            span.tag("isma.entity_id", entityId);
+        }
+
+        DbCallStats stats = database ? DbCallStats.open() : null;
+        span.start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            Object result = joinPoint.proceed();
+            span.tag("isma.rows", RequestTags.resultSize(result));
+            return result;
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            if (stats != null) {
+                stats.close();
+                span.tag("db.statements", stats.getStatements())
+                        .tag("db.rows", stats.getRows())
+                        .tag("db.time_ms", String.format(Locale.ROOT, "%.2f", stats.getMillis()));
+                if (stats.getSlowestSql() != null) {
+                    span.tag("db.statement", stats.getSlowestSql());
+                }
+            }
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.UAIC.ISMA.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public final class BatchUtils {
+
+    /**
+     * Keeps IN lists well below the bind-parameter limits of the supported databases.
+     */
+    public static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    private BatchUtils() {
+    }
+
+    public static <T> List<List<T>> chunked(List<T> values, int chunkSize) {
+        List<List<T>> chunks = new ArrayList<>((values.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            chunks.add(values.subList(from, Math.min(from + chunkSize, values.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Drops nulls and duplicates while keeping the first-seen order.
+     */
+    public static <T> List<T> distinctInOrder(Collection<T> values) {
+        return new ArrayList<>(values.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.UAIC.ISMA.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Loggers for per-request read-path messages. They live under the {@value #CATEGORY} category, which
+ * {@code log4j2-spring.xml} rate-limits with a burst filter, so at high request rates only a sample of these
+ * lines is written. Warnings and errors logged through them are never filtered.
+ */
+public final class HotPathLogging {
+
+    public static final String CATEGORY = "hotpath";
+
+    private HotPathLogging() {
+    }
+
+    public static Logger logger(Class<?> type) {
+        return LogManager.getLogger(CATEGORY + "." + type.getName());
+    }
+}
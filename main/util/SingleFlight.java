@@ -0,0 +1,70 @@
+package com.UAIC.ISMA.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical loads into one. The first caller for a key runs the loader on its own
+ * thread; callers arriving with the same key while it runs wait for it and get the same result, or the same
+ * exception. Nothing is kept once the load finishes, so the next caller always loads again.
+ * <p>
+ * The result instance is shared between the callers and must not be modified by them.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong shared = new AtomicLong();
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            shared.incrementAndGet();
+            return await(leader);
+        }
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Makes callers arriving from now on start a new load instead of joining the ones in flight, whose
+     * result may predate a change that has just been committed. Callers already waiting still get it.
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * Number of calls answered by another caller's load.
+     */
+    public long getSharedCount() {
+        return shared.get();
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.UAIC.ISMA.util;
+
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.exception.InvalidInputException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Locale;
+
+public final class StatusUtils {
+
+    private static final Logger logger = LogManager.getLogger(StatusUtils.class);
+
+    private StatusUtils() {
+    }
+
+    /**
+     * Parses an availability status filter case-insensitively; null means no filter.
+     */
+    public static AvailabilityStatus parseAvailabilityStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return AvailabilityStatus.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid availability status: {}", status);
+            throw new InvalidInputException("Invalid availability status: " + status);
+        }
+    }
+}
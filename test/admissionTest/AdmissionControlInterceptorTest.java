@@ -0,0 +1,85 @@
+package com.UAIC.ISMA.admission;
+
+import com.UAIC.ISMA.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControlInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("admission.search.initial-limit", "1")
+                .withProperty("admission.search.min-limit", "1")
+                .withProperty("admission.retry-after-seconds", "3");
+        interceptor = new AdmissionControlInterceptor(environment, meterRegistry);
+    }
+
+    @Test
+    void testFullSearchBulkheadRejectsSearchButAdmitsCrud() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), handler("search")));
+
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class, () ->
+                interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler("search")));
+        assertEquals(3, rejected.getRetryAfterSeconds());
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler("getById")));
+        assertEquals(1, interceptor.getLimiter(TrafficClass.CRUD).getInFlight());
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), handler("search"), null);
+        assertEquals(0, interceptor.getLimiter(TrafficClass.SEARCH).getInFlight());
+        assertEquals(1.0, meterRegistry.get("isma.admission.rejected").tag("bulkhead", "search")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testServerErrorBacksOffLimit() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler("getById"));
+        response.setStatus(503);
+
+        interceptor.afterCompletion(request, response, handler("getById"), null);
+
+        assertEquals(45, interceptor.getLimiter(TrafficClass.CRUD).getLimit());
+        assertEquals(45.0, meterRegistry.get("isma.admission.limit").tag("bulkhead", "crud").gauge().value());
+    }
+
+    @Test
+    void testAsyncRequestReleasesWithoutSample() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler("getById"));
+
+        interceptor.afterConcurrentHandlingStarted(request, new MockHttpServletResponse(), handler("getById"));
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler("getById"), null);
+
+        assertEquals(0, interceptor.getLimiter(TrafficClass.CRUD).getInFlight());
+        assertEquals(50, interceptor.getLimiter(TrafficClass.CRUD).getLimit());
+    }
+
+    private static HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new SampleController(), SampleController.class.getMethod(method));
+    }
+
+    static class SampleController {
+
+        @Bulkhead(TrafficClass.SEARCH)
+        public void search() {
+        }
+
+        public void getById() {
+        }
+    }
+}
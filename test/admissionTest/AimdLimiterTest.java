@@ -0,0 +1,64 @@
+package com.UAIC.ISMA.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AimdLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void testTryAcquire_RejectsOverLimit() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, THRESHOLD, 0.5);
+
+        assertEquals(1, limiter.tryAcquire());
+        assertEquals(2, limiter.tryAcquire());
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(1, limiter.getRejectedCount());
+
+        limiter.release();
+        assertEquals(2, limiter.tryAcquire());
+    }
+
+    @Test
+    void testRelease_FastBusyRequestsRaiseLimit() {
+        AimdLimiter limiter = new AimdLimiter(4, 1, 5, THRESHOLD, 0.5);
+
+        int inFlight = 0;
+        for (int i = 0; i < 4; i++) {
+            inFlight = limiter.tryAcquire();
+        }
+        limiter.release(inFlight, TimeUnit.MILLISECONDS.toNanos(10), false);
+        assertEquals(5, limiter.getLimit());
+
+        limiter.release(limiter.tryAcquire(), TimeUnit.MILLISECONDS.toNanos(10), false);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void testRelease_IdleRequestsKeepLimit() {
+        AimdLimiter limiter = new AimdLimiter(10, 1, 20, THRESHOLD, 0.5);
+
+        limiter.release(limiter.tryAcquire(), TimeUnit.MILLISECONDS.toNanos(10), false);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void testRelease_SlowOrFailedRequestsBackOffToMinimum() {
+        AimdLimiter limiter = new AimdLimiter(10, 2, 20, THRESHOLD, 0.5);
+
+        limiter.release(limiter.tryAcquire(), TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertEquals(5, limiter.getLimit());
+
+        limiter.release(limiter.tryAcquire(), TimeUnit.MILLISECONDS.toNanos(1), true);
+        assertEquals(2, limiter.getLimit());
+
+        limiter.release(limiter.tryAcquire(), TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
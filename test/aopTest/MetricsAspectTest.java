@@ -0,0 +1,77 @@
+package com.UAIC.ISMA.aop;
+
+import com.UAIC.ISMA.exception.EquipmentNotFoundException;
+import com.UAIC.ISMA.service.EquipmentService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class MetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private MetricsAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        aspect = new MetricsAspect(registry);
+    }
+
+    @Test
+    void testTimeService_TagsFilterShapeAndOutcome() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("searchEquipment",
+                new String[]{"name", "status", "labId", "pageable"},
+                new Object[]{"scope", null, 3L, PageRequest.of(0, 20)});
+        when(joinPoint.proceed()).thenReturn("result");
+
+        assertEquals("result", aspect.timeService(joinPoint));
+
+        Timer timer = registry.find(MetricsAspect.SERVICE_TIMER)
+                .tags("class", "EquipmentService", "method", "searchEquipment",
+                        "filter", "name+labId", "outcome", "success", "endpoint", RequestTags.NONE)
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testTimeService_RecordsFailures() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("getEquipmentById", new String[]{"id"}, new Object[]{9L});
+        when(joinPoint.proceed()).thenThrow(new EquipmentNotFoundException(9L));
+
+        assertThrows(EquipmentNotFoundException.class, () -> aspect.timeService(joinPoint));
+
+        Timer timer = registry.find(MetricsAspect.SERVICE_TIMER)
+                .tags("method", "getEquipmentById", "outcome", "EquipmentNotFoundException", "filter", "id")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testFilterShape_NoFilters() {
+        ProceedingJoinPoint joinPoint = joinPoint("searchEquipment",
+                new String[]{"name", "status", "labId", "pageable"},
+                new Object[]{null, null, null, PageRequest.of(0, 20)});
+
+        assertEquals(RequestTags.NONE, RequestTags.filterShape(joinPoint));
+    }
+
+    private ProceedingJoinPoint joinPoint(String method, String[] parameterNames, Object[] args) {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getName()).thenReturn(method);
+        when(signature.getParameterNames()).thenReturn(parameterNames);
+        when(signature.getDeclaringType()).thenReturn(EquipmentService.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        return joinPoint;
+    }
+}
@@ -0,0 +1,153 @@
+package com.UAIC.ISMA.cache;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.event.LaboratoryChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchResultCacheTest {
+
+    private final Pageable firstPage = PageRequest.of(0, 20);
+
+    private SearchResultCache<EquipmentSearchFilter, EquipmentDTO> equipmentCache;
+    private SearchResultCache<LaboratorySearchFilter, LaboratoryDTO> laboratoryCache;
+    private SearchCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        equipmentCache = new SearchResultCache<>("equipment", 1000, 0);
+        laboratoryCache = new SearchResultCache<>("laboratory", 1000, 0);
+        invalidator = new SearchCacheInvalidator(equipmentCache, laboratoryCache);
+    }
+
+    @Test
+    void testGet_NameIsMatchedCaseInsensitively() {
+        Page<EquipmentDTO> page = page(equipment(1L, "Microscope", AvailabilityStatus.AVAILABLE, 10L));
+        equipmentCache.put(EquipmentSearchFilter.of("Micro", null, null), firstPage, page, equipmentCache.epoch());
+
+        assertSame(page, equipmentCache.get(EquipmentSearchFilter.of("micro", null, null), firstPage));
+        assertNull(equipmentCache.get(EquipmentSearchFilter.of("micro", null, null), PageRequest.of(1, 20)));
+    }
+
+    @Test
+    void testStatusChange_DropsOnlyAffectedLabAndStatus() {
+        EquipmentSearchFilter availableInLab10 = EquipmentSearchFilter.of(null, AvailabilityStatus.AVAILABLE, 10L);
+        EquipmentSearchFilter inUseInLab10 = EquipmentSearchFilter.of(null, AvailabilityStatus.IN_USE, 10L);
+        EquipmentSearchFilter maintenanceInLab10 = EquipmentSearchFilter.of(null, AvailabilityStatus.MAINTENANCE, 10L);
+        EquipmentSearchFilter availableInLab20 = EquipmentSearchFilter.of(null, AvailabilityStatus.AVAILABLE, 20L);
+        EquipmentSearchFilter otherName = EquipmentSearchFilter.of("centrifuge", null, null);
+        for (EquipmentSearchFilter filter : List.of(availableInLab10, inUseInLab10, maintenanceInLab10,
+                availableInLab20, otherName)) {
+            equipmentCache.put(filter, firstPage, page(), equipmentCache.epoch());
+        }
+
+        EquipmentDTO before = equipment(1L, "Microscope", AvailabilityStatus.AVAILABLE, 10L);
+        EquipmentDTO after = equipment(1L, "Microscope", AvailabilityStatus.IN_USE, 10L);
+        invalidator.onEquipmentChange(EquipmentChangeEvent.updated(before, after));
+
+        assertNull(equipmentCache.get(availableInLab10, firstPage));
+        assertNull(equipmentCache.get(inUseInLab10, firstPage));
+        assertNotNull(equipmentCache.get(maintenanceInLab10, firstPage));
+        assertNotNull(equipmentCache.get(availableInLab20, firstPage));
+        assertNotNull(equipmentCache.get(otherName, firstPage));
+    }
+
+    @Test
+    void testLaboratoryDeletion_DropsItsEquipmentPagesAndUnfilteredOnes() {
+        EquipmentSearchFilter lab10 = EquipmentSearchFilter.of(null, null, 10L);
+        EquipmentSearchFilter lab20 = EquipmentSearchFilter.of(null, null, 20L);
+        EquipmentSearchFilter any = EquipmentSearchFilter.of(null, null, null);
+        for (EquipmentSearchFilter filter : List.of(lab10, lab20, any)) {
+            equipmentCache.put(filter, firstPage, page(), equipmentCache.epoch());
+        }
+        LaboratoryDTO laboratory = new LaboratoryDTO();
+        laboratory.setId(10L);
+        laboratory.setLabName("Physics Lab");
+
+        invalidator.onLaboratoryChange(LaboratoryChangeEvent.deleted(laboratory));
+
+        assertNull(equipmentCache.get(lab10, firstPage));
+        assertNull(equipmentCache.get(any, firstPage));
+        assertNotNull(equipmentCache.get(lab20, firstPage));
+    }
+
+    @Test
+    void testPut_SkipsResultReadBeforeAffectingWrite() {
+        EquipmentSearchFilter lab10 = EquipmentSearchFilter.of(null, null, 10L);
+        EquipmentSearchFilter lab20 = EquipmentSearchFilter.of(null, null, 20L);
+        long started = equipmentCache.epoch();
+
+        EquipmentDTO changed = equipment(1L, "Microscope", AvailabilityStatus.AVAILABLE, 10L);
+        invalidator.onEquipmentChange(EquipmentChangeEvent.deleted(changed));
+        equipmentCache.put(lab10, firstPage, page(), started);
+        equipmentCache.put(lab20, firstPage, page(), started);
+
+        assertNull(equipmentCache.get(lab10, firstPage));
+        assertNotNull(equipmentCache.get(lab20, firstPage));
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsedByRows() {
+        SearchResultCache<EquipmentSearchFilter, EquipmentDTO> cache = new SearchResultCache<>("equipment", 10, 0);
+        EquipmentSearchFilter first = EquipmentSearchFilter.of("a", null, null);
+        EquipmentSearchFilter second = EquipmentSearchFilter.of("b", null, null);
+        EquipmentSearchFilter third = EquipmentSearchFilter.of("c", null, null);
+        cache.put(first, firstPage, rows(4), cache.epoch());
+        cache.put(second, firstPage, rows(4), cache.epoch());
+        cache.get(first, firstPage);
+        cache.put(third, firstPage, rows(4), cache.epoch());
+
+        assertNotNull(cache.get(first, firstPage));
+        assertNull(cache.get(second, firstPage));
+        assertNotNull(cache.get(third, firstPage));
+        assertEquals(10, cache.weight());
+    }
+
+    @Test
+    void testGet_ExpiresEntriesOlderThanMaxAge() {
+        AtomicLong clock = new AtomicLong();
+        SearchResultCache<EquipmentSearchFilter, EquipmentDTO> cache =
+                new SearchResultCache<>("equipment", 100, 1000, clock::get);
+        EquipmentSearchFilter filter = EquipmentSearchFilter.of("a", null, null);
+        cache.put(filter, firstPage, rows(4), cache.epoch());
+
+        clock.set(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertNotNull(cache.get(filter, firstPage));
+
+        clock.set(TimeUnit.MILLISECONDS.toNanos(1001));
+        assertNull(cache.get(filter, firstPage));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    private static Page<EquipmentDTO> page(EquipmentDTO... content) {
+        return new PageImpl<>(List.of(content));
+    }
+
+    private static Page<EquipmentDTO> rows(int count) {
+        return new PageImpl<>(Collections.nCopies(count, new EquipmentDTO()));
+    }
+
+    private static EquipmentDTO equipment(Long id, String name, AvailabilityStatus status, Long laboratoryId) {
+        EquipmentDTO equipment = new EquipmentDTO();
+        equipment.setId(id);
+        equipment.setName(name);
+        equipment.setAvailabilityStatus(status);
+        equipment.setLaboratoryId(laboratoryId);
+        return equipment;
+    }
+}
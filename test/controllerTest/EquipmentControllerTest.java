@@ -2,6 +2,7 @@ package com.UAIC.ISMA.controller;
 
 import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
 import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.StatusTransitionDTO;
 import com.UAIC.ISMA.exception.EquipmentNotFoundException;
 import com.UAIC.ISMA.exception.InvalidInputException;
 import com.UAIC.ISMA.service.EquipmentService;
@@ -81,6 +82,18 @@ public class EquipmentControllerTest {
         assertEquals("Oscilloscope", response.getBody().getName());
     }
 
+    @Test
+    void testChangeEquipmentStatus_Success() {
+        StatusTransitionDTO transition = new StatusTransitionDTO(AvailabilityStatus.AVAILABLE, AvailabilityStatus.IN_USE);
+        equipmentDTO.setAvailabilityStatus(AvailabilityStatus.IN_USE);
+        when(equipmentService.changeStatus(1L, transition)).thenReturn(equipmentDTO);
+
+        ResponseEntity<EquipmentDTO> response = equipmentController.changeEquipmentStatus(1L, transition);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(AvailabilityStatus.IN_USE, response.getBody().getAvailabilityStatus());
+    }
+
     @Test
     void testGetEquipmentById_NotFound() {
         when(equipmentService.getEquipmentById(1L)).thenThrow(EquipmentNotFoundException.class);
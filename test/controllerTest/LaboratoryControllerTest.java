@@ -1,8 +1,10 @@
 package com.UAIC.ISMA.controller;
 
+import com.UAIC.ISMA.dto.DecommissionJobDTO;
 import com.UAIC.ISMA.dto.LaboratoryDTO;
 import com.UAIC.ISMA.exception.InvalidInputException;
 import com.UAIC.ISMA.exception.LaboratoryNotFoundException;
+import com.UAIC.ISMA.service.LabDecommissionService;
 import com.UAIC.ISMA.service.LaboratoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +28,9 @@ public class LaboratoryControllerTest {
     @Mock
     private LaboratoryService laboratoryService;
 
+    @Mock
+    private LabDecommissionService labDecommissionService;
+
     @InjectMocks
     private LaboratoryController laboratoryController;
 
@@ -258,5 +263,18 @@ public class LaboratoryControllerTest {
                 laboratoryController.searchLaboratories(invalidName, null, pageable));
     }
 
-
+    @Test
+    void testDecommissionLaboratory_Accepted() {
+        DecommissionJobDTO job = new DecommissionJobDTO();
+        job.setJobId("job-1");
+        job.setLaboratoryId(1L);
+        job.setStatus(DecommissionJobDTO.Status.PENDING);
+        when(labDecommissionService.startDecommission(1L)).thenReturn(job);
+
+        ResponseEntity<DecommissionJobDTO> response = laboratoryController.decommissionLaboratory(1L);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/laboratories/decommission-jobs/job-1", response.getHeaders().getLocation().toString());
+        assertEquals(job, response.getBody());
+    }
 }
@@ -0,0 +1,57 @@
+package com.UAIC.ISMA.index;
+
+import com.UAIC.ISMA.dto.AccessWindowDTO;
+import com.UAIC.ISMA.entity.enums.RequestStatus;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class AccessWindowIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 3, 0, 0);
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(equipmentRepository.findAccessWindows(eq(10L), any())).thenReturn(
+                List.of(new AccessWindowDTO(1L, 10L, DAY.withHour(9), DAY.withHour(10), RequestStatus.APPROVED)),
+                List.of(new AccessWindowDTO(1L, 10L, DAY.withHour(9), DAY.withHour(10), RequestStatus.APPROVED),
+                        new AccessWindowDTO(2L, 10L, DAY.withHour(11), DAY.withHour(12), RequestStatus.PENDING)));
+    }
+
+    @Test
+    void testFindOverlapping_UsesLoadedTreeWhileFresh() {
+        AccessWindowIndex index = new AccessWindowIndex(equipmentRepository, 600_000, 60_000, 100);
+
+        index.findOverlapping(10L, DAY, DAY.plusDays(1));
+        List<AccessWindowDTO> windows = index.findOverlapping(10L, DAY, DAY.plusDays(1));
+
+        assertEquals(1, windows.size());
+        verify(equipmentRepository, times(1)).findAccessWindows(eq(10L), any());
+    }
+
+    @Test
+    void testFindOverlapping_ReloadsTreeOlderThanMaxAge() throws InterruptedException {
+        AccessWindowIndex index = new AccessWindowIndex(equipmentRepository, 600_000, 0, 100);
+
+        index.findOverlapping(10L, DAY, DAY.plusDays(1));
+        Thread.sleep(2);
+        List<AccessWindowDTO> windows = index.findOverlapping(10L, DAY, DAY.plusDays(1));
+
+        assertEquals(List.of(1L, 2L), windows.stream().map(AccessWindowDTO::getAccessRequestId).toList());
+        verify(equipmentRepository, times(2)).findAccessWindows(eq(10L), any());
+    }
+}
@@ -0,0 +1,199 @@
+package com.UAIC.ISMA.index;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.EquipmentFacetsDTO;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class EquipmentBitmapIndexTest {
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    private EquipmentBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(equipmentRepository.findIndexEntries()).thenReturn(List.of(
+                new EquipmentIndexEntry(1L, 10L, AvailabilityStatus.AVAILABLE, true, LocalDateTime.of(2020, 1, 1, 0, 0)),
+                new EquipmentIndexEntry(2L, 10L, AvailabilityStatus.IN_USE, false, LocalDateTime.of(2021, 1, 1, 0, 0)),
+                new EquipmentIndexEntry(3L, 20L, AvailabilityStatus.AVAILABLE, null, null),
+                new EquipmentIndexEntry(4L, 10L, AvailabilityStatus.AVAILABLE, false, LocalDateTime.of(2020, 6, 1, 0, 0))
+        ));
+
+        index = new EquipmentBitmapIndex(equipmentRepository, true);
+        index.rebuild();
+    }
+
+    @Test
+    void testCount_CombinesDimensions() {
+        assertTrue(index.isReady());
+        assertEquals(4, index.count(EquipmentFilter.of(null, null)));
+        assertEquals(2, index.count(EquipmentFilter.of(10L, AvailabilityStatus.AVAILABLE)));
+        assertEquals(1, index.count(new EquipmentFilter(10L, AvailabilityStatus.AVAILABLE, false, 2020)));
+        assertEquals(0, index.count(EquipmentFilter.of(99L, null)));
+    }
+
+    @Test
+    void testFindIds_PagesInIdOrder() {
+        Page<Long> firstPage = index.findIds(EquipmentFilter.of(null, AvailabilityStatus.AVAILABLE), PageRequest.of(0, 2));
+        Page<Long> lastPage = index.findIds(EquipmentFilter.of(null, AvailabilityStatus.AVAILABLE),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertEquals(3, firstPage.getTotalElements());
+        assertEquals(List.of(1L, 3L), firstPage.getContent());
+        assertEquals(List.of(4L, 3L), lastPage.getContent());
+    }
+
+    @Test
+    void testFacets_CountsEveryDimension() {
+        EquipmentFacetsDTO facets = index.facets(EquipmentFilter.of(10L, null));
+
+        assertEquals(3, facets.getTotal());
+        assertEquals(2L, facets.getByAvailabilityStatus().get(AvailabilityStatus.AVAILABLE));
+        assertEquals(3L, facets.getByLaboratory().get(10L));
+        assertNull(facets.getByLaboratory().get(20L));
+        assertEquals(2L, facets.getByAcquisitionYear().get(2020));
+    }
+
+    @Test
+    void testChangeEvents_KeepIndexInSync() {
+        EquipmentDTO before = new EquipmentDTO();
+        before.setId(2L);
+        before.setLaboratoryId(10L);
+        before.setAvailabilityStatus(AvailabilityStatus.IN_USE);
+        EquipmentDTO after = new EquipmentDTO();
+        after.setId(2L);
+        after.setLaboratoryId(20L);
+        after.setAvailabilityStatus(AvailabilityStatus.AVAILABLE);
+
+        index.onEquipmentChange(EquipmentChangeEvent.updated(before, after));
+        index.onEquipmentChange(EquipmentChangeEvent.deleted(new EquipmentDTO(1L, null, null, null, null,
+                AvailabilityStatus.AVAILABLE, 10L, null)));
+
+        assertEquals(2, index.count(EquipmentFilter.of(20L, AvailabilityStatus.AVAILABLE)));
+        assertEquals(1, index.count(EquipmentFilter.of(10L, null)));
+    }
+
+    @Test
+    void testFacets_GroupedQueriesWhileNotReady() {
+        EquipmentBitmapIndex loading = new EquipmentBitmapIndex(equipmentRepository, true);
+        when(equipmentRepository.countFacetsByComplexity(10L, null, null, null))
+                .thenReturn(List.of(new FacetCount(true, 1L), new FacetCount(false, 2L)));
+        when(equipmentRepository.countFacetsByAvailabilityStatus(10L, null, null, null))
+                .thenReturn(List.of(new FacetCount(AvailabilityStatus.AVAILABLE, 2L), new FacetCount(AvailabilityStatus.IN_USE, 1L)));
+        when(equipmentRepository.countFacetsByLaboratory(10L, null, null, null))
+                .thenReturn(List.of(new FacetCount(10L, 3L)));
+        when(equipmentRepository.countFacetsByAcquisitionYear(10L, null, null, null))
+                .thenReturn(List.of(new FacetCount(2020, 2L), new FacetCount(2021, 1L), new FacetCount(null, 0L)));
+
+        EquipmentFacetsDTO facets = loading.facets(EquipmentFilter.of(10L, null));
+
+        assertEquals(index.facets(EquipmentFilter.of(10L, null)), facets);
+        verify(equipmentRepository, times(1)).findIndexEntries();
+    }
+
+    @Test
+    void testChangeDuringRebuild_IsAppliedAfterIt() throws Exception {
+        EquipmentDTO added = new EquipmentDTO();
+        added.setId(5L);
+        added.setLaboratoryId(20L);
+        added.setAvailabilityStatus(AvailabilityStatus.MAINTENANCE);
+        AtomicReference<Thread> writer = new AtomicReference<>();
+        when(equipmentRepository.findIndexEntries()).thenAnswer(invocation -> {
+            Thread thread = new Thread(() -> index.onEquipmentChange(EquipmentChangeEvent.created(added)));
+            writer.set(thread);
+            thread.start();
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+            return List.of(new EquipmentIndexEntry(1L, 10L, AvailabilityStatus.AVAILABLE, true, null));
+        });
+
+        index.rebuild();
+        writer.get().join();
+
+        assertEquals(2, index.count(EquipmentFilter.of(null, null)));
+        assertEquals(1, index.count(EquipmentFilter.of(20L, AvailabilityStatus.MAINTENANCE)));
+    }
+
+    @Test
+    void testRefresh_ReconcilesExternalWritesAndKeepsNewerEvents() {
+        EquipmentDTO before = new EquipmentDTO();
+        before.setId(2L);
+        before.setLaboratoryId(10L);
+        before.setAvailabilityStatus(AvailabilityStatus.IN_USE);
+        EquipmentDTO after = new EquipmentDTO();
+        after.setId(2L);
+        after.setLaboratoryId(10L);
+        after.setAvailabilityStatus(AvailabilityStatus.AVAILABLE);
+        when(equipmentRepository.findIndexEntries()).thenAnswer(invocation -> {
+            index.onEquipmentChange(EquipmentChangeEvent.updated(before, after));
+            return List.of(
+                    new EquipmentIndexEntry(1L, 10L, AvailabilityStatus.AVAILABLE, true, LocalDateTime.of(2020, 1, 1, 0, 0)),
+                    new EquipmentIndexEntry(2L, 10L, AvailabilityStatus.IN_USE, false, LocalDateTime.of(2021, 1, 1, 0, 0)),
+                    new EquipmentIndexEntry(4L, 10L, AvailabilityStatus.MAINTENANCE, false, LocalDateTime.of(2020, 6, 1, 0, 0)),
+                    new EquipmentIndexEntry(6L, 20L, AvailabilityStatus.AVAILABLE, false, null));
+        });
+
+        index.refresh();
+
+        assertEquals(4, index.count(EquipmentFilter.of(null, null)));
+        assertEquals(List.of(1L, 2L), index.findIds(EquipmentFilter.of(10L, AvailabilityStatus.AVAILABLE),
+                PageRequest.of(0, 10)).getContent());
+        assertEquals(1, index.count(EquipmentFilter.of(10L, AvailabilityStatus.MAINTENANCE)));
+        assertEquals(List.of(6L), index.findIds(EquipmentFilter.of(20L, null), PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    void testCompressedBitmap_MatchesBitSetAcrossContainerKinds() {
+        Random random = new Random(42);
+        CompressedBitmap left = new CompressedBitmap();
+        CompressedBitmap right = new CompressedBitmap();
+        BitSet expectedLeft = new BitSet();
+        BitSet expectedRight = new BitSet();
+
+        for (int i = 0; i < 50_000; i++) {
+            int value = random.nextInt(200_000);
+            left.add(value);
+            expectedLeft.set(value);
+            int other = random.nextInt(200_000);
+            right.add(other);
+            expectedRight.set(other);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(200_000);
+            left.remove(value);
+            expectedLeft.clear(value);
+        }
+
+        BitSet expectedAnd = (BitSet) expectedLeft.clone();
+        expectedAnd.and(expectedRight);
+        CompressedBitmap and = left.and(right);
+
+        assertEquals(expectedLeft.cardinality(), left.cardinality());
+        assertEquals(expectedAnd.cardinality(), and.cardinality());
+        assertEquals(expectedAnd.cardinality(), left.andCardinality(right));
+        assertEquals(expectedAnd.nextSetBit(0), and.select(0));
+        assertEquals(expectedLeft.previousSetBit(Integer.MAX_VALUE - 1), left.select(left.cardinality() - 1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.UAIC.ISMA.index;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.EquipmentSummaryDTO;
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.dto.SuggestionDTO;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.UAIC.ISMA.repository.LaboratoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SuggestionIndexTest {
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    @Mock
+    private LaboratoryRepository laboratoryRepository;
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new SuggestionIndex(equipmentRepository, laboratoryRepository, 3_600_000);
+        when(laboratoryRepository.findAllActiveDTOs()).thenReturn(List.of(new LaboratoryDTO(1L, "Optics Lab", null, null)));
+    }
+
+    @Test
+    void testChangeSeenByRebuildQuery_IsNotCountedTwice() {
+        EquipmentDTO created = equipment(5L, "Oscilloscope", "OS-005");
+        when(equipmentRepository.findAllSummaries()).thenAnswer(invocation -> {
+            index.onEquipmentChange(EquipmentChangeEvent.created(created));
+            return List.of(new EquipmentSummaryDTO(5L, 1L, "Oscilloscope", "OS-005", null));
+        });
+
+        index.rebuild();
+
+        List<SuggestionDTO> suggestions = index.suggest("osc", 10);
+        assertEquals(1, suggestions.size());
+        assertEquals(1, suggestions.get(0).getWeight());
+
+        index.onEquipmentChange(EquipmentChangeEvent.deleted(created));
+        assertTrue(index.suggest("osc", 10).isEmpty());
+        assertTrue(index.suggest("os-", 10).isEmpty());
+    }
+
+    @Test
+    void testRenameDuringRebuild_KeepsOnlyTheNewName() {
+        EquipmentDTO before = equipment(5L, "Oscilloscope", "OS-005");
+        EquipmentDTO after = equipment(5L, "Osmometer", "OS-005");
+        when(equipmentRepository.findAllSummaries()).thenAnswer(invocation -> {
+            index.onEquipmentChange(EquipmentChangeEvent.updated(before, after));
+            return List.of(new EquipmentSummaryDTO(5L, 1L, "Oscilloscope", "OS-005", null));
+        });
+
+        index.rebuild();
+
+        assertTrue(index.suggest("osc", 10).isEmpty());
+        assertEquals("Osmometer", index.suggest("osm", 10).get(0).getText());
+    }
+
+    @Test
+    void testRecordUsage_IsFoldedInOnFlush() {
+        when(equipmentRepository.findAllSummaries()).thenReturn(List.of(
+                new EquipmentSummaryDTO(5L, 1L, "Oscilloscope", "OS-005", null),
+                new EquipmentSummaryDTO(6L, 1L, "Osmometer", "OS-006", null)));
+        index.rebuild();
+
+        index.recordUsage("osmometer");
+        index.recordUsage(" Osmometer ");
+        assertEquals(1, index.suggest("osm", 10).get(0).getWeight());
+
+        index.flushUsage();
+
+        assertEquals(3, index.suggest("osm", 10).get(0).getWeight());
+    }
+
+    private static EquipmentDTO equipment(Long id, String name, String inventoryNumber) {
+        EquipmentDTO dto = new EquipmentDTO();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setInventoryNumber(inventoryNumber);
+        dto.setLaboratoryId(1L);
+        return dto;
+    }
+}
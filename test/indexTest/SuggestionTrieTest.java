@@ -0,0 +1,72 @@
+package com.UAIC.ISMA.index;
+
+import com.UAIC.ISMA.dto.SuggestionDTO;
+import com.UAIC.ISMA.index.SuggestionTrie.TermType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuggestionTrieTest {
+
+    private SuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new SuggestionTrie();
+        trie.add(TermType.EQUIPMENT_NAME, "Oscilloscope");
+        trie.add(TermType.EQUIPMENT_NAME, "Oscilloscope");
+        trie.add(TermType.EQUIPMENT_NAME, "Osmometer");
+        trie.add(TermType.INVENTORY_NUMBER, "OS-001");
+        trie.add(TermType.LAB_NAME, "Optics Lab");
+    }
+
+    @Test
+    void testSuggest_OrdersByWeight() {
+        List<SuggestionDTO> suggestions = trie.suggest("os", 10);
+
+        assertEquals(3, suggestions.size());
+        assertEquals("Oscilloscope", suggestions.get(0).getText());
+        assertEquals(2, suggestions.get(0).getWeight());
+    }
+
+    @Test
+    void testSuggest_IsCaseInsensitiveAndRespectsLimit() {
+        List<SuggestionDTO> suggestions = trie.suggest("O", 2);
+
+        assertEquals(2, suggestions.size());
+        assertTrue(trie.suggest("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void testRecordUsage_PromotesTerm() {
+        trie.recordUsage("osmometer");
+        trie.recordUsage("osmometer");
+        trie.recordUsage("osmometer");
+
+        assertEquals("Osmometer", trie.suggest("os", 10).get(0).getText());
+    }
+
+    @Test
+    void testRemove_DropsTermOnceNoItemCarriesIt() {
+        trie.remove(TermType.EQUIPMENT_NAME, "Oscilloscope");
+        assertEquals(1, trie.suggest("osc", 10).get(0).getWeight());
+
+        trie.remove(TermType.EQUIPMENT_NAME, "Oscilloscope");
+        assertTrue(trie.suggest("osc", 10).isEmpty());
+        assertEquals(2, trie.suggest("os", 10).size());
+    }
+
+    @Test
+    void testCopyUsageFrom_KeepsWeightsAcrossRebuild() {
+        trie.recordUsage("Optics Lab");
+        SuggestionTrie rebuilt = new SuggestionTrie();
+        rebuilt.add(TermType.LAB_NAME, "Optics Lab");
+
+        rebuilt.copyUsageFrom(trie);
+
+        assertEquals(2, rebuilt.suggest("opt", 1).get(0).getWeight());
+    }
+}
@@ -1,9 +1,11 @@
 package com.UAIC.ISMA.integration;
 
+import com.UAIC.ISMA.cache.SearchResultCache;
 import com.UAIC.ISMA.dto.EquipmentDTO;
 import com.UAIC.ISMA.entity.Equipment;
 import com.UAIC.ISMA.entity.Laboratory;
 import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
 import com.UAIC.ISMA.mapper.EquipmentMapper;
 import com.UAIC.ISMA.repository.EquipmentRepository;
 import com.UAIC.ISMA.repository.LaboratoryRepository;
@@ -18,11 +20,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.test.web.servlet.MockMvc;
 
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -33,6 +39,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RecordApplicationEvents
 class EquipmentIntegrationTest {
 
     @Autowired
@@ -41,13 +48,20 @@ class EquipmentIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private List<SearchResultCache<?, ?>> searchCaches;
+
     @Autowired
     private EquipmentRepository equipmentRepository;
 
     @Autowired
     private LaboratoryRepository laboratoryRepository;
 
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
     private Laboratory testLab;
+    private Laboratory otherLab;
 
     @BeforeAll
     void setup() {
@@ -56,11 +70,17 @@ class EquipmentIntegrationTest {
         testLab.setLabName("Test Lab");
         testLab.setLocation("Building A");
         laboratoryRepository.save(testLab);
+        otherLab = new Laboratory();
+        otherLab.setLabName("Other Lab");
+        otherLab.setLocation("Building B");
+        laboratoryRepository.save(otherLab);
     }
 
     @AfterEach
     void tearDown() {
         equipmentRepository.deleteAll();
+        // fixtures are written through the repositories, which publish no events to invalidate cached searches
+        searchCaches.forEach(cache -> cache.invalidate(filter -> true));
     }
 
     @Test
@@ -113,6 +133,35 @@ class EquipmentIntegrationTest {
                 .andExpect(jsonPath("$.name").value("Updated Eq"));
     }
 
+    @Test
+    void shouldPublishPreviousStateWhenUpdating() throws Exception {
+        Equipment eq = new Equipment();
+        eq.setName("Spectrometer");
+        eq.setInventoryNumber("INV007");
+        eq.setAvailabilityStatus(AvailabilityStatus.AVAILABLE);
+        eq.setLaboratory(testLab);
+        eq.setAcquisitionDate(LocalDateTime.now());
+        Equipment saved = equipmentRepository.save(eq);
+
+        EquipmentDTO updateDto = EquipmentMapper.convertToDTO(saved);
+        updateDto.setAvailabilityStatus(AvailabilityStatus.IN_USE);
+        updateDto.setLaboratoryId(otherLab.getId());
+
+        mockMvc.perform(put("/equipment/" + saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk());
+
+        List<EquipmentChangeEvent> events = applicationEvents.stream(EquipmentChangeEvent.class).toList();
+        assertEquals(1, events.size());
+        EquipmentChangeEvent event = events.get(0);
+        assertEquals(EquipmentChangeEvent.Type.STATUS_CHANGED, event.getType());
+        assertEquals(AvailabilityStatus.AVAILABLE, event.getBefore().getAvailabilityStatus());
+        assertEquals(testLab.getId(), event.getBefore().getLaboratoryId());
+        assertEquals(AvailabilityStatus.IN_USE, event.getAfter().getAvailabilityStatus());
+        assertEquals(otherLab.getId(), event.getAfter().getLaboratoryId());
+    }
+
     @Test
     void shouldDeleteEquipment() throws Exception {
         Equipment eq = new Equipment();
@@ -128,6 +177,30 @@ class EquipmentIntegrationTest {
         assertFalse(equipmentRepository.findById(saved.getId()).isPresent());
     }
 
+    @Test
+    void shouldReturnSameFieldsInBatchAsInSingleGet() throws Exception {
+        Equipment eq = new Equipment();
+        eq.setName("Centrifuge");
+        eq.setInventoryNumber("INV006");
+        eq.setAvailabilityStatus(AvailabilityStatus.AVAILABLE);
+        eq.setLaboratory(testLab);
+        eq.setAcquisitionDate(LocalDateTime.now());
+        eq.setUsage("Wear gloves");
+        eq.setMaterial("Tubes");
+        eq.setDescription("Benchtop centrifuge");
+        eq.setIsComplex(true);
+        Equipment saved = equipmentRepository.save(eq);
+
+        String single = mockMvc.perform(get("/equipment/" + saved.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String batch = mockMvc.perform(get("/equipment").param("ids", String.valueOf(saved.getId())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.readTree(single), objectMapper.readTree(batch).get(0));
+    }
+
     @Test
     void shouldSearchByNameAndStatus() throws Exception {
         Equipment eq = new Equipment();
@@ -144,6 +217,47 @@ class EquipmentIntegrationTest {
                 .andExpect(jsonPath("$.content[0].name").value("Scanner"));
     }
 
+    @Test
+    void shouldNotServeStaleSearchPagesAfterUpdate() throws Exception {
+        Equipment eq = new Equipment();
+        eq.setName("Pipette");
+        eq.setInventoryNumber("INV008");
+        eq.setAvailabilityStatus(AvailabilityStatus.AVAILABLE);
+        eq.setLaboratory(testLab);
+        eq.setAcquisitionDate(LocalDateTime.now());
+        Equipment saved = equipmentRepository.save(eq);
+
+        mockMvc.perform(get("/equipment/search")
+                        .param("name", "Pipette")
+                        .param("availabilityStatus", "AVAILABLE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Pipette"));
+        mockMvc.perform(get("/equipment/search")
+                        .param("name", "Pipette")
+                        .param("laboratoryId", String.valueOf(testLab.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Pipette"));
+
+        EquipmentDTO updateDto = EquipmentMapper.convertToDTO(saved);
+        updateDto.setAvailabilityStatus(AvailabilityStatus.IN_USE);
+        updateDto.setLaboratoryId(otherLab.getId());
+        mockMvc.perform(put("/equipment/" + saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/equipment/search")
+                        .param("name", "Pipette")
+                        .param("availabilityStatus", "AVAILABLE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+        mockMvc.perform(get("/equipment/search")
+                        .param("name", "Pipette")
+                        .param("laboratoryId", String.valueOf(testLab.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
     @Test
     void shouldNotUpdateNonExistingEquipment() throws Exception {
         EquipmentDTO updateDto = new EquipmentDTO();
@@ -18,6 +18,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -62,7 +63,8 @@ public class LaboratoryEquipmentIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].name").value("Microscope"))
-                .andExpect(jsonPath("$[1].name").value("Spectrometer"));
+                .andExpect(jsonPath("$[1].name").value("Spectrometer"))
+                .andExpect(header().string("X-SQL-Stats", startsWith("statements=2;")));
     }
 
     @Test
@@ -1,5 +1,6 @@
 package com.UAIC.ISMA.integration;
 
+import com.UAIC.ISMA.cache.SearchResultCache;
 import com.UAIC.ISMA.dto.LaboratoryDTO;
 import com.UAIC.ISMA.entity.Laboratory;
 import com.UAIC.ISMA.mapper.LaboratoryMapper;
@@ -17,6 +18,8 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,20 +36,25 @@ class LaboratoryIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private List<SearchResultCache<?, ?>> searchCaches;
+
     @Autowired
     private LaboratoryRepository laboratoryRepository;
 
     @BeforeEach
     void setup() {
         laboratoryRepository.deleteAll();
-        laboratoryRepository.save(new Laboratory(1L, "Physics Lab", "Advanced Physics Lab", "Building A"));
-        laboratoryRepository.save(new Laboratory(2L, "Chemistry Lab", "Organic Chemistry", "Building B"));
-        laboratoryRepository.save(new Laboratory(3L, "Math Lab", "Algebra focus", "Building A"));
+        laboratoryRepository.save(new Laboratory("Physics Lab", "Advanced Physics Lab", "Building A"));
+        laboratoryRepository.save(new Laboratory("Chemistry Lab", "Organic Chemistry", "Building B"));
+        laboratoryRepository.save(new Laboratory("Math Lab", "Algebra focus", "Building A"));
     }
 
     @AfterEach
     void tearDown() {
         laboratoryRepository.deleteAll();
+        // fixtures are written through the repositories, which publish no events to invalidate cached searches
+        searchCaches.forEach(cache -> cache.invalidate(filter -> true));
     }
 
     @Test
@@ -91,6 +99,25 @@ class LaboratoryIntegrationTest {
                 .andExpect(jsonPath("$.labName").value("Updated Lab"));
     }
 
+    @Test
+    void shouldRejectUpdateBasedOnStaleVersion() throws Exception {
+        Laboratory saved = laboratoryRepository.save(new Laboratory("Optics Lab", "Lasers", "Building F"));
+        LaboratoryDTO stale = LaboratoryMapper.convertToDTO(saved);
+
+        LaboratoryDTO first = LaboratoryMapper.convertToDTO(saved);
+        first.setLabName("Optics Lab 2");
+        mockMvc.perform(put("/laboratories/" + saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isOk());
+
+        stale.setLocation("Building G");
+        mockMvc.perform(put("/laboratories/" + saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stale)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void shouldDeleteLaboratory() throws Exception {
         Laboratory lab = new Laboratory();
@@ -0,0 +1,112 @@
+package com.UAIC.ISMA.jfr;
+
+import com.UAIC.ISMA.entity.Laboratory;
+import com.UAIC.ISMA.mapper.LaboratoryMapper;
+import com.UAIC.ISMA.service.EquipmentService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JfrEventAspectTest {
+
+    private final JfrEventAspect aspect = new JfrEventAspect();
+    private Recording recording;
+    private Path dump;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dump = Files.createTempFile("isma-jfr", ".jfr");
+        recording = new Recording();
+        recording.enable(ServiceCallEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(MapperConversionEvent.class).withThreshold(Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        recording.close();
+        Files.deleteIfExists(dump);
+    }
+
+    @Test
+    void testServiceCall_RecordsFilterEntityAndRows() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("searchEquipment",
+                new String[]{"name", "status", "labId", "pageable"},
+                new Object[]{"scope", null, 7L, PageRequest.of(0, 20)});
+        when(joinPoint.proceed()).thenReturn(new PageImpl<>(List.of("a", "b", "c")));
+
+        recording.start();
+        aspect.recordService(joinPoint);
+        recording.stop();
+
+        RecordedEvent event = single("com.UAIC.ISMA.ServiceCall");
+        assertEquals("EquipmentService", event.getString("service"));
+        assertEquals("searchEquipment", event.getString("method"));
+        assertEquals("name+labId", event.getString("filter"));
+        assertEquals(7L, event.getLong("entityId"));
+        assertEquals(3L, event.getLong("rows"));
+        assertEquals("success", event.getString("outcome"));
+    }
+
+    @Test
+    void testServiceCall_NotRecordingStillProceeds() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("getEquipmentById", new String[]{"id"}, new Object[]{1L});
+        when(joinPoint.proceed()).thenReturn("result");
+
+        assertEquals("result", aspect.recordService(joinPoint));
+        verify(joinPoint, never()).getSignature();
+    }
+
+    @Test
+    void testMapperConversion_RecordsChildren() throws Exception {
+        Laboratory lab = new Laboratory();
+        lab.setId(4L);
+        lab.setLabName("Physics Lab");
+        lab.setEquipments(new ArrayList<>());
+        lab.setLabDocuments(new ArrayList<>());
+
+        recording.start();
+        LaboratoryMapper.convertToDTO(lab);
+        recording.stop();
+
+        RecordedEvent event = single("com.UAIC.ISMA.MapperConversion");
+        assertEquals("LaboratoryMapper.convertToDTO", event.getString("mapper"));
+        assertEquals(4L, event.getLong("entityId"));
+        assertEquals(0L, event.getLong("children"));
+    }
+
+    private RecordedEvent single(String name) throws Exception {
+        recording.dump(dump);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, events.size());
+        return events.get(0);
+    }
+
+    private static ProceedingJoinPoint joinPoint(String method, String[] parameterNames, Object[] args) {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(signature.getName()).thenReturn(method);
+        when(signature.getParameterNames()).thenReturn(parameterNames);
+        when(signature.getDeclaringType()).thenReturn(EquipmentService.class);
+        return joinPoint;
+    }
+}
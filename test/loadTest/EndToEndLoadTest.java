@@ -0,0 +1,166 @@
+package com.UAIC.ISMA.load;
+
+import com.UAIC.ISMA.cache.SearchResultCache;
+import com.UAIC.ISMA.index.EquipmentBitmapIndex;
+import com.UAIC.ISMA.index.SuggestionIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+
+/**
+ * Scripted load against the real controllers, services and database, driven through MockMvc so the full
+ * Spring MVC and security filter chain runs without network noise.
+ * <p>
+ * Run with {@code -Dloadtest=true}; dataset size, threads and durations come from
+ * {@code application-loadtest.properties}. The first run (or {@code -Dloadtest.update-baseline=true}) writes the
+ * baseline; later runs fail if any endpoint's throughput or p99 regresses beyond the tolerance.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class EndToEndLoadTest {
+
+    private static final Logger logger = LogManager.getLogger(EndToEndLoadTest.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EquipmentBitmapIndex equipmentBitmapIndex;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private List<SearchResultCache<?, ?>> searchCaches;
+
+    @Value("${loadtest.seed}")
+    private long seed;
+    @Value("${loadtest.labs}")
+    private int labs;
+    @Value("${loadtest.equipment}")
+    private int equipment;
+    @Value("${loadtest.access-requests-per-equipment}")
+    private int accessRequestsPerEquipment;
+    @Value("${loadtest.access-request-table}")
+    private String accessRequestTable;
+    @Value("${loadtest.threads}")
+    private int threads;
+    @Value("${loadtest.warmup-seconds}")
+    private int warmupSeconds;
+    @Value("${loadtest.duration-seconds}")
+    private int durationSeconds;
+    @Value("${loadtest.baseline}")
+    private String baseline;
+    @Value("${loadtest.tolerance}")
+    private double tolerance;
+
+    private SyntheticDataGenerator.Dataset dataset;
+
+    /**
+     * The generator writes with plain JDBC, so no change events reach the in-memory indexes and caches that
+     * were filled at startup; they are rebuilt and cleared before the workload starts.
+     */
+    @BeforeAll
+    void generateDataset() {
+        dataset = new SyntheticDataGenerator(jdbcTemplate, seed)
+                .generate(labs, equipment, accessRequestsPerEquipment, accessRequestTable);
+        equipmentBitmapIndex.rebuild();
+        suggestionIndex.rebuild();
+        searchCaches.forEach(cache -> cache.invalidate(filter -> true));
+    }
+
+    @Test
+    void runWorkloadAgainstBaseline() throws Exception {
+        WorkloadMix mix = new WorkloadMix(dataset);
+        LatencyReport report = new LatencyReport();
+
+        drive(mix, report, warmupSeconds);
+        report.reset();
+        long start = System.nanoTime();
+        drive(mix, report, durationSeconds);
+        Map<String, LatencyReport.EndpointStats> stats = report.summarize((System.nanoTime() - start) / 1e9);
+
+        logger.info("Load test results ({} threads, {} s):{}{}", threads, durationSeconds,
+                System.lineSeparator(), LatencyReport.format(stats));
+
+        Path baselinePath = Path.of(baseline);
+        if (!Files.exists(baselinePath) || Boolean.getBoolean("loadtest.update-baseline")) {
+            LatencyReport.writeBaseline(baselinePath, stats);
+            logger.info("Baseline written to {}", baselinePath.toAbsolutePath());
+            return;
+        }
+        List<String> regressions = LatencyReport.regressions(stats, LatencyReport.readBaseline(baselinePath), tolerance);
+        assertTrue(regressions.isEmpty(), "Regressions against " + baselinePath + ": " + regressions);
+    }
+
+    private void drive(WorkloadMix mix, LatencyReport report, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> callers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                WorkloadMix.Caller caller = new WorkloadMix.Caller(seed, t);
+                callers.add(pool.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        execute(mix.next(caller), caller, report);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> caller : callers) {
+                caller.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void execute(WorkloadMix.Operation operation, WorkloadMix.Caller caller, LatencyReport report) throws Exception {
+        long start = System.nanoTime();
+        MockHttpServletResponse response = mockMvc.perform(operation.request.apply(caller)
+                        .with(user("loadtest").authorities(() -> "ADMIN")))
+                .andReturn().getResponse();
+        report.record(operation.endpoint, System.nanoTime() - start);
+
+        if (response.getStatus() >= 500) {
+            report.recordError(operation.endpoint);
+        } else if (response.getStatus() == 201) {
+            JsonNode created = objectMapper.readTree(response.getContentAsString());
+            caller.recordCreated(created.get("id").asLong());
+        }
+    }
+}
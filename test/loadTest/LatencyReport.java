@@ -0,0 +1,121 @@
+package com.UAIC.ISMA.load;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint latency recording (HdrHistogram, so p999 is exact to three significant digits) and comparison
+ * against a stored baseline.
+ */
+class LatencyReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final ConcurrentMap<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> errors = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos) {
+        recorders.computeIfAbsent(endpoint, k -> new Recorder(3)).recordValue(nanos);
+    }
+
+    void recordError(String endpoint) {
+        errors.merge(endpoint, 1L, Long::sum);
+    }
+
+    /**
+     * Drops everything recorded so far, e.g. at the end of the warm-up.
+     */
+    void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.clear();
+    }
+
+    Map<String, EndpointStats> summarize(double elapsedSeconds) {
+        Map<String, EndpointStats> stats = new TreeMap<>();
+        recorders.forEach((endpoint, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            stats.put(endpoint, new EndpointStats(
+                    histogram.getTotalCount(),
+                    errors.getOrDefault(endpoint, 0L),
+                    histogram.getTotalCount() / elapsedSeconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9))));
+        });
+        return stats;
+    }
+
+    static String format(Map<String, EndpointStats> stats) {
+        StringBuilder table = new StringBuilder(String.format("%-34s %9s %7s %10s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms"));
+        stats.forEach((endpoint, s) -> table.append(String.format("%-34s %9d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                endpoint, s.getCount(), s.getErrors(), s.getThroughput(), s.getP50Ms(), s.getP99Ms(), s.getP999Ms())));
+        return table.toString();
+    }
+
+    /**
+     * Endpoints whose throughput dropped, or whose p99 grew, by more than {@code tolerance} (0.2 = 20%)
+     * relative to the baseline. Endpoints missing from either side are ignored.
+     */
+    static List<String> regressions(Map<String, EndpointStats> current, Map<String, EndpointStats> baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        current.forEach((endpoint, now) -> {
+            EndpointStats before = baseline.get(endpoint);
+            if (before == null) {
+                return;
+            }
+            if (now.getThroughput() < before.getThroughput() * (1 - tolerance)) {
+                regressions.add(String.format("%s throughput %.1f req/s, baseline %.1f", endpoint, now.getThroughput(), before.getThroughput()));
+            }
+            if (now.getP99Ms() > before.getP99Ms() * (1 + tolerance)) {
+                regressions.add(String.format("%s p99 %.2f ms, baseline %.2f", endpoint, now.getP99Ms(), before.getP99Ms()));
+            }
+        });
+        return regressions;
+    }
+
+    static Map<String, EndpointStats> readBaseline(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), new TypeReference<TreeMap<String, EndpointStats>>() {
+        });
+    }
+
+    static void writeBaseline(Path path, Map<String, EndpointStats> stats) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MAPPER.writeValue(path.toFile(), stats);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class EndpointStats {
+        private long count;
+        private long errors;
+        private double throughput;
+        private double p50Ms;
+        private double p99Ms;
+        private double p999Ms;
+    }
+}
@@ -0,0 +1,125 @@
+package com.UAIC.ISMA.load;
+
+import com.UAIC.ISMA.entity.Equipment;
+import com.UAIC.ISMA.entity.Laboratory;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.UAIC.ISMA.repository.LaboratoryRepository;
+import com.UAIC.ISMA.util.HotPathLogging;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures read throughput with application logging on and off. Skipped unless run with
+ * {@code -Dloadtest=true}; the numbers are printed, not asserted, since they depend on the machine.
+ */
+@WithMockUser(authorities = "ADMIN")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LoggingLoadTest {
+
+    private static final int EQUIPMENT_COUNT = 500;
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 2_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private LaboratoryRepository laboratoryRepository;
+
+    private final List<Long> equipmentIds = new ArrayList<>();
+
+    @BeforeAll
+    void setup() {
+        Laboratory lab = laboratoryRepository.save(new Laboratory("Load Lab", "Load test laboratory", "Building L"));
+        for (int i = 0; i < EQUIPMENT_COUNT; i++) {
+            Equipment equipment = new Equipment("Load Equipment " + i, "LOAD-" + i, LocalDateTime.now(),
+                    AvailabilityStatus.AVAILABLE, lab);
+            equipmentIds.add(equipmentRepository.save(equipment).getId());
+        }
+    }
+
+    @AfterAll
+    void tearDown() {
+        setApplicationLogLevel(Level.INFO);
+        equipmentRepository.deleteAll();
+        laboratoryRepository.deleteAll();
+    }
+
+    @Test
+    void compareThroughputWithLoggingOnAndOff() throws Exception {
+        setApplicationLogLevel(Level.INFO);
+        run();
+        double withLogging = run();
+
+        setApplicationLogLevel(Level.OFF);
+        run();
+        double withoutLogging = run();
+
+        System.out.printf("GET /equipment/{id}: %.0f req/s with logging, %.0f req/s without (%.1f%% difference)%n",
+                withLogging, withoutLogging, (withoutLogging - withLogging) * 100 / withoutLogging);
+        assertTrue(withLogging > 0 && withoutLogging > 0);
+    }
+
+    /**
+     * Requests per second over {@link #THREADS} concurrent callers.
+     */
+    private double run() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> callers = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                callers.add(pool.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        Long id = equipmentIds.get(ThreadLocalRandom.current().nextInt(equipmentIds.size()));
+                        mockMvc.perform(get("/equipment/" + id)).andExpect(status().isOk());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> caller : callers) {
+                caller.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return THREADS * REQUESTS_PER_THREAD / seconds;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void setApplicationLogLevel(Level level) {
+        Configurator.setLevel(Map.of("com.UAIC.ISMA", level, HotPathLogging.CATEGORY, level));
+    }
+}
@@ -0,0 +1,212 @@
+package com.UAIC.ISMA.load;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bulk-loads a reproducible synthetic dataset with plain JDBC batches, bypassing JPA so a million rows take
+ * seconds rather than minutes. The same seed always produces the same rows.
+ * <p>
+ * Distributions: laboratory sizes follow a power law (a few large labs, many small ones), equipment names
+ * combine a type vocabulary with manufacturers and model numbers, and statuses are mostly
+ * {@code AVAILABLE}. Each equipment item gets a history of access requests spread over the past year.
+ */
+class SyntheticDataGenerator {
+
+    private static final Logger logger = LogManager.getLogger(SyntheticDataGenerator.class);
+
+    private static final int BATCH_SIZE = 5_000;
+
+    static final String[] EQUIPMENT_TYPES = {
+            "Oscilloscope", "Microscope", "Spectrometer", "Centrifuge", "Multimeter", "Signal Generator",
+            "Power Supply", "3D Printer", "Thermal Camera", "Logic Analyzer", "Incubator", "Fume Hood",
+            "Soldering Station", "Laser Cutter", "pH Meter", "Autoclave", "Balance", "Pipette", "Raspberry Pi",
+            "FPGA Board", "Robot Arm", "Spectrum Analyzer", "Calorimeter", "Chromatograph", "Projector"
+    };
+
+    private static final String[] MANUFACTURERS = {
+            "Keysight", "Tektronix", "Rigol", "Zeiss", "Olympus", "Thermo", "Fluke", "Siglent", "Prusa", "Bosch"
+    };
+
+    private static final String[] STATUSES = {"AVAILABLE", "IN_USE", "MAINTENANCE"};
+    private static final double[] STATUS_WEIGHTS = {0.72, 0.20, 0.08};
+
+    private static final String[] REQUEST_STATUSES = {"APPROVED", "PENDING"};
+    private static final double[] REQUEST_STATUS_WEIGHTS = {0.75, 0.25};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+
+    SyntheticDataGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates the dataset unless the database already holds at least {@code equipmentCount} equipment rows,
+     * in which case the existing rows are reused. A smaller dataset, e.g. left by an interrupted run, is deleted
+     * first so the generated inventory numbers do not collide with it.
+     */
+    Dataset generate(int labCount, int equipmentCount, int accessRequestsPerEquipment, String accessRequestTable) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM equipment WHERE deleted_at IS NULL", Long.class);
+        if (existing == null || existing < equipmentCount) {
+            long start = System.nanoTime();
+            deleteExisting(accessRequestTable);
+            insertLaboratories(labCount);
+            long[] labIds = ids("SELECT id FROM laboratories ORDER BY id");
+            insertEquipment(equipmentCount, labIds);
+            if (accessRequestsPerEquipment > 0) {
+                insertAccessRequests(ids("SELECT id FROM equipment ORDER BY id"), accessRequestsPerEquipment, accessRequestTable);
+            }
+            logger.info("Generated {} laboratories and {} equipment in {} s",
+                    labCount, equipmentCount, (System.nanoTime() - start) / 1_000_000_000);
+        } else {
+            logger.info("Reusing existing dataset with {} equipment", existing);
+        }
+        return new Dataset(
+                ids("SELECT id FROM laboratories WHERE deleted_at IS NULL ORDER BY id"),
+                ids("SELECT id FROM equipment WHERE deleted_at IS NULL ORDER BY id"));
+    }
+
+    private void deleteExisting(String accessRequestTable) {
+        int accessRequests = jdbcTemplate.update("DELETE FROM " + accessRequestTable);
+        int equipment = jdbcTemplate.update("DELETE FROM equipment");
+        int laboratories = jdbcTemplate.update("DELETE FROM laboratories");
+        if (equipment > 0 || laboratories > 0) {
+            logger.info("Deleted incomplete dataset: {} laboratories, {} equipment, {} access requests",
+                    laboratories, equipment, accessRequests);
+        }
+    }
+
+    private void insertLaboratories(int labCount) {
+        for (int from = 0; from < labCount; from += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, labCount - from);
+            int offset = from;
+            jdbcTemplate.batchUpdate("INSERT INTO laboratories (lab_name, description, location) VALUES (?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int n = offset + i;
+                            ps.setString(1, "Lab " + n + " " + EQUIPMENT_TYPES[n % EQUIPMENT_TYPES.length].split(" ")[0]);
+                            ps.setString(2, "Synthetic laboratory " + n);
+                            ps.setString(3, "Building " + (char) ('A' + n % 12) + ", floor " + (n % 5));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    });
+        }
+    }
+
+    private void insertEquipment(int equipmentCount, long[] labIds) {
+        double[] cumulative = powerLawCumulative(labIds.length, 0.9);
+        LocalDateTime base = LocalDateTime.of(2015, 1, 1, 8, 0);
+        for (int from = 0; from < equipmentCount; from += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, equipmentCount - from);
+            int offset = from;
+            jdbcTemplate.batchUpdate("INSERT INTO equipment (name, inventory_number, acquisition_date, availability_status, "
+                            + "access_requirements, lab_id, is_complex) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int n = offset + i;
+                            String type = EQUIPMENT_TYPES[random.nextInt(EQUIPMENT_TYPES.length)];
+                            ps.setString(1, MANUFACTURERS[random.nextInt(MANUFACTURERS.length)] + " " + type + " " + (100 + random.nextInt(900)));
+                            ps.setString(2, "LT-" + n);
+                            ps.setTimestamp(3, Timestamp.valueOf(base.plusDays(random.nextInt(3650))));
+                            ps.setString(4, pick(STATUSES, STATUS_WEIGHTS));
+                            ps.setString(5, random.nextInt(4) == 0 ? "Safety training required" : null);
+                            ps.setLong(6, labIds[sample(cumulative)]);
+                            ps.setBoolean(7, random.nextInt(5) == 0);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    });
+        }
+    }
+
+    private void insertAccessRequests(long[] equipmentIds, int perEquipment, String table) {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        int total = equipmentIds.length * perEquipment;
+        for (int from = 0; from < total; from += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, total - from);
+            int offset = from;
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (equipment_id, start_time, end_time, status) VALUES (?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int n = offset + i;
+                            LocalDateTime start = now.minusHours(random.nextInt(24 * 365)).plusDays(30);
+                            ps.setLong(1, equipmentIds[n / perEquipment]);
+                            ps.setTimestamp(2, Timestamp.valueOf(start));
+                            ps.setTimestamp(3, Timestamp.valueOf(start.plusHours(1 + random.nextInt(8))));
+                            ps.setString(4, pick(REQUEST_STATUSES, REQUEST_STATUS_WEIGHTS));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    });
+        }
+    }
+
+    private long[] ids(String sql) {
+        List<Long> ids = jdbcTemplate.queryForList(sql, Long.class);
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static double[] powerLawCumulative(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private int sample(double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private String pick(String[] values, double[] weights) {
+        double r = random.nextDouble();
+        for (int i = 0; i < values.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    static final class Dataset {
+        final long[] laboratoryIds;
+        final long[] equipmentIds;
+
+        Dataset(long[] laboratoryIds, long[] equipmentIds) {
+            this.laboratoryIds = laboratoryIds;
+            this.equipmentIds = equipmentIds;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.UAIC.ISMA.load;
+
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Weighted mix of reads, searches and writes, roughly matching production traffic. Each caller thread owns
+ * one {@link Caller}, so the equipment it creates and later updates never collide with other threads.
+ */
+class WorkloadMix {
+
+    private static final String[] SEARCH_TERMS = {"scope", "micro", "Keysight", "printer", "analyzer", "pi", "lab"};
+    private static final String[] STATUSES = {"AVAILABLE", "IN_USE", "MAINTENANCE"};
+
+    private final List<Operation> operations;
+    private final double totalWeight;
+
+    WorkloadMix(SyntheticDataGenerator.Dataset dataset) {
+        operations = List.of(
+                new Operation("GET /equipment/{id}", 30,
+                        c -> get("/equipment/" + c.equipmentId(dataset))),
+                new Operation("GET /equipment/search", 20,
+                        c -> get("/equipment/search")
+                                .param("name", c.pick(SEARCH_TERMS))
+                                .param("status", c.random.nextBoolean() ? c.pick(STATUSES) : "")
+                                .param("size", "20")),
+                new Operation("GET /equipment/search?labId", 10,
+                        c -> get("/equipment/search")
+                                .param("labId", String.valueOf(c.laboratoryId(dataset)))
+                                .param("status", c.pick(STATUSES))
+                                .param("size", "20")),
+                new Operation("GET /equipment/suggest", 10,
+                        c -> get("/equipment/suggest").param("prefix", c.pick(SEARCH_TERMS).substring(0, 2))),
+                new Operation("GET /equipment/facets", 5,
+                        c -> get("/equipment/facets").param("laboratoryId", String.valueOf(c.laboratoryId(dataset)))),
+                new Operation("GET /laboratories/{id}?include", 10,
+                        c -> get("/laboratories/" + c.laboratoryId(dataset)).param("include", "equipment")),
+                new Operation("GET /equipment/by-inventory/{n}", 5,
+                        c -> get("/equipment/by-inventory/LT-" + c.random.nextInt(dataset.equipmentIds.length))),
+                new Operation("POST /equipment", 4,
+                        c -> post("/equipment").contentType(MediaType.APPLICATION_JSON)
+                                .content(c.newEquipmentJson(dataset))),
+                new Operation("PUT /equipment/{id}", 6,
+                        c -> c.created.isEmpty()
+                                ? post("/equipment").contentType(MediaType.APPLICATION_JSON).content(c.newEquipmentJson(dataset))
+                                : put("/equipment/" + c.created.peekLast()).contentType(MediaType.APPLICATION_JSON)
+                                        .content(c.updatedEquipmentJson()))
+        );
+        totalWeight = operations.stream().mapToDouble(o -> o.weight).sum();
+    }
+
+    Operation next(Caller caller) {
+        double r = caller.random.nextDouble() * totalWeight;
+        for (Operation operation : operations) {
+            r -= operation.weight;
+            if (r < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    static final class Operation {
+        final String endpoint;
+        final double weight;
+        final Function<Caller, MockHttpServletRequestBuilder> request;
+
+        Operation(String endpoint, double weight, Function<Caller, MockHttpServletRequestBuilder> request) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+
+    /**
+     * Per-thread state: its own random stream and the equipment it created, most recent last.
+     */
+    static final class Caller {
+        final Random random;
+        final int threadIndex;
+        final Deque<Long> created = new ArrayDeque<>();
+        private int sequence;
+        private String lastInventoryNumber;
+        private long lastLaboratoryId;
+
+        Caller(long seed, int threadIndex) {
+            this.random = new Random(seed + threadIndex);
+            this.threadIndex = threadIndex;
+        }
+
+        long equipmentId(SyntheticDataGenerator.Dataset dataset) {
+            return dataset.equipmentIds[random.nextInt(dataset.equipmentIds.length)];
+        }
+
+        long laboratoryId(SyntheticDataGenerator.Dataset dataset) {
+            return dataset.laboratoryIds[random.nextInt(dataset.laboratoryIds.length)];
+        }
+
+        String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+
+        void recordCreated(long id) {
+            created.addLast(id);
+            if (created.size() > 100) {
+                created.removeFirst();
+            }
+        }
+
+        String newEquipmentJson(SyntheticDataGenerator.Dataset dataset) {
+            lastInventoryNumber = "LTW-" + threadIndex + "-" + System.nanoTime() + "-" + sequence++;
+            lastLaboratoryId = laboratoryId(dataset);
+            return equipmentJson(pick(SyntheticDataGenerator.EQUIPMENT_TYPES) + " " + sequence, lastInventoryNumber,
+                    "AVAILABLE", lastLaboratoryId);
+        }
+
+        String updatedEquipmentJson() {
+            return equipmentJson("Updated equipment " + sequence++, lastInventoryNumber, pick(STATUSES), lastLaboratoryId);
+        }
+
+        private static String equipmentJson(String name, String inventoryNumber, String status, long labId) {
+            return "{\"name\":\"" + name + "\",\"inventoryNumber\":\"" + inventoryNumber
+                    + "\",\"availabilityStatus\":\"" + status + "\",\"laboratoryId\":" + labId + "}";
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.UAIC.ISMA.replica;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.Cookie;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two embedded H2 databases stand in for the primary and the replica; each knows its own role, and the replica
+ * reports the lag the test gives it.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MILLIS = 2000;
+    private static final long CHECK_INTERVAL_MILLIS = 1000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final ReplicaReadAspect aspect = new ReplicaReadAspect();
+
+    private JdbcTemplate primaryDb;
+    private JdbcTemplate replicaDb;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = database("primary");
+        DriverManagerDataSource replica = database("replica");
+        primaryDb = new JdbcTemplate(primary);
+        replicaDb = new JdbcTemplate(replica);
+        replicaDb.execute("CREATE TABLE replica_lag (seconds DOUBLE)");
+        replicaDb.update("INSERT INTO replica_lag VALUES (0.5)");
+
+        lagMonitor = new ReplicaLagMonitor(replica, "SELECT seconds FROM replica_lag", MAX_LAG_MILLIS,
+                CHECK_INTERVAL_MILLIS, clock::get);
+        lagMonitor.check();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, lagMonitor, 5, clock::get));
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        primaryDb.execute("DROP ALL OBJECTS");
+        replicaDb.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testReplicaRead_UsesReplica() throws Throwable {
+        assertEquals("replica", replicaRead(false));
+    }
+
+    @Test
+    void testReadOnlyTransactionOutsideReplicaRead_UsesPrimary() {
+        assertEquals("primary", readOnly.execute(status -> role()));
+    }
+
+    @Test
+    void testReadWriteTransactionInsideReplicaRead_UsesPrimary() throws Throwable {
+        assertEquals("primary", withReplicaRead(false, () -> readWrite.execute(status -> role())));
+    }
+
+    @Test
+    void testLaggingReplica_FallsBackToPrimary() throws Throwable {
+        replicaDb.update("UPDATE replica_lag SET seconds = 10");
+        lagMonitor.check();
+
+        assertEquals("primary", replicaRead(false));
+        assertEquals(10_000, lagMonitor.getLagMillis());
+    }
+
+    @Test
+    void testUnreachableReplica_FallsBackToPrimary() throws Throwable {
+        replicaDb.execute("DROP TABLE replica_lag");
+        lagMonitor.check();
+
+        assertEquals("primary", replicaRead(false));
+        assertEquals(-1, lagMonitor.getLagMillis());
+    }
+
+    @Test
+    void testStaleMeasurement_FallsBackToPrimary() throws Throwable {
+        clock.addAndGet(3 * CHECK_INTERVAL_MILLIS + 1);
+
+        assertEquals("primary", replicaRead(false));
+    }
+
+    @Test
+    void testWrite_PinsClientToPrimaryUntilReplicaCatchesUp() throws Throwable {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE role SET name = name"));
+        Cookie cookie = response.getCookie(ReadYourWrites.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertEquals(String.valueOf(clock.get()), cookie.getValue());
+
+        clock.addAndGet(400);
+        lagMonitor.check();
+        assertEquals("primary", replicaRead(false));
+
+        clock.addAndGet(200);
+        lagMonitor.check();
+        nextRequest(cookie);
+        assertEquals("replica", replicaRead(false));
+    }
+
+    @Test
+    void testOtherClientsWrite_PinsOnlyLocalWriteReads() throws Throwable {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE role SET name = name"));
+        clock.addAndGet(100);
+        lagMonitor.check();
+        nextRequest(null);
+
+        assertEquals("replica", replicaRead(false));
+        assertEquals("primary", replicaRead(true));
+    }
+
+    @Test
+    void testBackgroundWrite_DoesNotPinLocalWriteReads() throws Throwable {
+        RequestContextHolder.resetRequestAttributes();
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE role SET name = name"));
+        clock.addAndGet(100);
+        lagMonitor.check();
+        nextRequest(null);
+
+        assertEquals("replica", replicaRead(true));
+    }
+
+    @Test
+    void testRolledBackTransaction_DoesNotPin() throws Throwable {
+        readWrite.executeWithoutResult(status -> {
+            role();
+            status.setRollbackOnly();
+        });
+
+        assertNull(response.getCookie(ReadYourWrites.COOKIE_NAME));
+        assertEquals("replica", replicaRead(true));
+    }
+
+    private String replicaRead(boolean afterLocalWrites) throws Throwable {
+        return withReplicaRead(afterLocalWrites, () -> readOnly.execute(status -> role()));
+    }
+
+    private String withReplicaRead(boolean afterLocalWrites, ThrowingSupplier action) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.proceed()).thenAnswer(invocation -> action.get());
+        return (String) aspect.allowReplica(joinPoint, annotation(afterLocalWrites));
+    }
+
+    private String role() {
+        return jdbcTemplate.queryForObject("SELECT name FROM role", String.class);
+    }
+
+    private void nextRequest(Cookie cookie) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    private static DriverManagerDataSource database(String role) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:replica-routing-" + role + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE role (name VARCHAR(16))");
+        template.update("INSERT INTO role VALUES (?)", role);
+        return dataSource;
+    }
+
+    private static ReplicaRead annotation(boolean afterLocalWrites) {
+        return new ReplicaRead() {
+            @Override
+            public boolean afterLocalWrites() {
+                return afterLocalWrites;
+            }
+
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return ReplicaRead.class;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier {
+        Object get() throws Throwable;
+    }
+}
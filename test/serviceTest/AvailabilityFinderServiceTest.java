@@ -0,0 +1,130 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.AccessWindowDTO;
+import com.UAIC.ISMA.dto.AvailabilityResultDTO;
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.entity.enums.RequestStatus;
+import com.UAIC.ISMA.exception.InvalidInputException;
+import com.UAIC.ISMA.index.AccessWindowIndex;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.UAIC.ISMA.repository.LaboratoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class AvailabilityFinderServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 10, 0, 0);
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    @Mock
+    private LaboratoryRepository laboratoryRepository;
+
+    @Mock
+    private AccessWindowIndex accessWindowIndex;
+
+    private AvailabilityFinderService availabilityFinderService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        availabilityFinderService = new AvailabilityFinderService(equipmentRepository, laboratoryRepository,
+                accessWindowIndex, Runnable::run, 1000L, 50);
+
+        when(laboratoryRepository.searchLaboratoryByNameAndLocation(isNull(), eq("Building A"), any()))
+                .thenReturn(new PageImpl<>(List.of(
+                        new LaboratoryDTO(1L, "Optics", null, "Building A"),
+                        new LaboratoryDTO(2L, "Chemistry", null, "Building A"))));
+        when(equipmentRepository.searchByNameStatusAndLabId(eq("Spectro"), eq(AvailabilityStatus.AVAILABLE), eq(1L), any()))
+                .thenReturn(new PageImpl<>(List.of(new EquipmentDTO(10L, "Spectrometer", null, "INV10", null,
+                        AvailabilityStatus.AVAILABLE, 1L, null))));
+        when(equipmentRepository.searchByNameStatusAndLabId(eq("Spectro"), eq(AvailabilityStatus.AVAILABLE), eq(2L), any()))
+                .thenReturn(new PageImpl<>(List.of(new EquipmentDTO(20L, "Spectrometer", null, "INV20", null,
+                        AvailabilityStatus.AVAILABLE, 2L, null))));
+    }
+
+    @Test
+    void testFindAvailableSlots_RanksLongestFreeSlotFirst() {
+        when(accessWindowIndex.findOverlapping(eq(List.of(10L)), any(), any())).thenReturn(Map.of(10L, List.of(
+                new AccessWindowDTO(1L, 10L, DAY.withHour(10).withMinute(30), DAY.withHour(11), RequestStatus.APPROVED))));
+        when(accessWindowIndex.findOverlapping(eq(List.of(20L)), any(), any())).thenReturn(Map.of());
+
+        AvailabilityResultDTO result = availabilityFinderService.findAvailableSlots("Spectro", "AVAILABLE", "Building A",
+                null, DAY.withHour(10), DAY.withHour(12), 30, null);
+
+        assertFalse(result.isPartial());
+        assertEquals(3, result.getSlots().size());
+        assertEquals(20L, result.getSlots().get(0).getEquipmentId());
+        assertEquals(120, result.getSlots().get(0).getDurationMinutes());
+        assertEquals(60, result.getSlots().get(1).getDurationMinutes());
+        assertEquals(30, result.getSlots().get(2).getDurationMinutes());
+        verify(accessWindowIndex, never()).findOverlapping(anyLong(), any(), any());
+    }
+
+    @Test
+    void testFindAvailableSlots_SkipsSlotsShorterThanMinimum() {
+        when(accessWindowIndex.findOverlapping(eq(List.of(10L)), any(), any())).thenReturn(Map.of(10L, List.of(
+                new AccessWindowDTO(1L, 10L, DAY.withHour(10).withMinute(15), DAY.withHour(12), RequestStatus.APPROVED))));
+        when(accessWindowIndex.findOverlapping(eq(List.of(20L)), any(), any())).thenReturn(Map.of(20L, List.of(
+                new AccessWindowDTO(2L, 20L, DAY.withHour(9), DAY.withHour(13), RequestStatus.APPROVED))));
+
+        AvailabilityResultDTO result = availabilityFinderService.findAvailableSlots("Spectro", "AVAILABLE", "Building A",
+                null, DAY.withHour(10), DAY.withHour(12), 30, null);
+
+        assertTrue(result.getSlots().isEmpty());
+    }
+
+    @Test
+    void testFindAvailableSlots_InterruptsLaboratoryOverBudget() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(equipmentRepository.searchByNameStatusAndLabId(eq("Spectro"), eq(AvailabilityStatus.AVAILABLE), eq(2L), any()))
+                .thenAnswer(invocation -> {
+                    try {
+                        Thread.sleep(60_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                    return new PageImpl<>(List.of());
+                });
+        when(accessWindowIndex.findOverlapping(eq(List.of(10L)), any(), any())).thenReturn(Map.of());
+        try {
+            AvailabilityFinderService budgeted = new AvailabilityFinderService(equipmentRepository,
+                    laboratoryRepository, accessWindowIndex, executor, 200L, 50);
+
+            AvailabilityResultDTO result = budgeted.findAvailableSlots("Spectro", "AVAILABLE", "Building A",
+                    null, DAY.withHour(10), DAY.withHour(12), 30, null);
+
+            assertTrue(result.isPartial());
+            assertEquals(1, result.getSlots().size());
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFindAvailableSlots_InvalidWindow() {
+        assertThrows(InvalidInputException.class, () -> availabilityFinderService.findAvailableSlots(
+                null, null, null, null, DAY.withHour(12), DAY.withHour(10), null, null));
+    }
+}
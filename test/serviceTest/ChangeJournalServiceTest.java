@@ -0,0 +1,130 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.ChangeJournalEntryDTO;
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.entity.ChangeJournalEntry;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.entity.enums.JournalEntityType;
+import com.UAIC.ISMA.exception.EquipmentNotFoundException;
+import com.UAIC.ISMA.repository.ChangeJournalRepository;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ChangeJournalServiceTest {
+
+    @Mock
+    private ChangeJournalRepository changeJournalRepository;
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    private ChangeJournalService changeJournalService;
+
+    private final LocalDateTime t0 = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        changeJournalService = new ChangeJournalService(changeJournalRepository, equipmentRepository, objectMapper);
+    }
+
+    @Test
+    void testGetEquipmentAsOf_AppliesDeltasAfterSnapshot() {
+        ChangeJournalEntry snapshot = entry(1L, "CREATED", t0, true,
+                "{\"id\":5,\"name\":\"Microscope\",\"inventoryNumber\":\"INV-5\",\"availabilityStatus\":\"AVAILABLE\",\"laboratoryId\":1}");
+        ChangeJournalEntry rename = entry(2L, "UPDATED", t0.plusDays(1), false, "{\"name\":\"Microscope X\"}");
+        ChangeJournalEntry status = entry(3L, "STATUS_CHANGED", t0.plusDays(2), false, "{\"availabilityStatus\":\"MAINTENANCE\"}");
+        LocalDateTime asOf = t0.plusDays(3);
+
+        when(changeJournalRepository.findLatestSnapshots(eq(JournalEntityType.EQUIPMENT), eq(5L), eq(asOf), any(Pageable.class)))
+                .thenReturn(List.of(snapshot));
+        when(changeJournalRepository.findEntriesAfterVersion(JournalEntityType.EQUIPMENT, 5L, 1L, asOf))
+                .thenReturn(List.of(rename, status));
+
+        EquipmentDTO result = changeJournalService.getEquipmentAsOf(5L, asOf);
+
+        assertEquals(5L, result.getId());
+        assertEquals("Microscope X", result.getName());
+        assertEquals("INV-5", result.getInventoryNumber());
+        assertEquals(AvailabilityStatus.MAINTENANCE, result.getAvailabilityStatus());
+        assertEquals(1L, result.getLaboratoryId());
+    }
+
+    @Test
+    void testGetEquipmentAsOf_DeletedBeforeInstant() {
+        ChangeJournalEntry snapshot = entry(1L, "CREATED", t0, true, "{\"id\":5,\"name\":\"Microscope\"}");
+        ChangeJournalEntry deleted = entry(2L, "DELETED", t0.plusDays(1), false, "{}");
+        LocalDateTime asOf = t0.plusDays(2);
+
+        when(changeJournalRepository.findLatestSnapshots(eq(JournalEntityType.EQUIPMENT), eq(5L), eq(asOf), any(Pageable.class)))
+                .thenReturn(List.of(snapshot));
+        when(changeJournalRepository.findEntriesAfterVersion(JournalEntityType.EQUIPMENT, 5L, 1L, asOf))
+                .thenReturn(List.of(deleted));
+
+        assertThrows(EquipmentNotFoundException.class, () -> changeJournalService.getEquipmentAsOf(5L, asOf));
+    }
+
+    @Test
+    void testGetEquipmentAsOf_BeforeFirstEntry() {
+        when(changeJournalRepository.findLatestSnapshots(eq(JournalEntityType.EQUIPMENT), eq(5L), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertThrows(EquipmentNotFoundException.class, () -> changeJournalService.getEquipmentAsOf(5L, t0.minusDays(1)));
+    }
+
+    @Test
+    void testGetEquipmentHistory_Success() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ChangeJournalEntry rename = entry(2L, "UPDATED", t0.plusDays(1), false, "{\"name\":\"Microscope X\"}");
+        when(changeJournalRepository.findHistory(JournalEntityType.EQUIPMENT, 5L, pageable))
+                .thenReturn(new PageImpl<>(List.of(rename), pageable, 1));
+
+        Page<ChangeJournalEntryDTO> result = changeJournalService.getEquipmentHistory(5L, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("UPDATED", result.getContent().get(0).getChangeType());
+        assertEquals("Microscope X", result.getContent().get(0).getChanges().get("name"));
+    }
+
+    @Test
+    void testGetEquipmentHistory_NotFound() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(changeJournalRepository.findHistory(JournalEntityType.EQUIPMENT, 5L, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+        assertThrows(EquipmentNotFoundException.class, () -> changeJournalService.getEquipmentHistory(5L, pageable));
+    }
+
+    @Test
+    void testGetEquipmentHistory_EmptyForUnchangedEquipment() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(changeJournalRepository.findHistory(JournalEntityType.EQUIPMENT, 5L, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+        when(equipmentRepository.existsById(5L)).thenReturn(true);
+
+        Page<ChangeJournalEntryDTO> result = changeJournalService.getEquipmentHistory(5L, pageable);
+
+        assertEquals(0, result.getTotalElements());
+    }
+
+    private ChangeJournalEntry entry(Long version, String changeType, LocalDateTime occurredAt, boolean snapshot, String payload) {
+        return new ChangeJournalEntry(version, JournalEntityType.EQUIPMENT, 5L, version, changeType, occurredAt, snapshot, payload);
+    }
+}
@@ -0,0 +1,144 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.entity.enums.JournalEntityType;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.repository.ChangeJournalRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ChangeJournalWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ChangeJournalRepository changeJournalRepository;
+
+    private ChangeJournalWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        writer = new ChangeJournalWriter(jdbcTemplate, changeJournalRepository, objectMapper, 100, 50, 200, 2, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_WritesSnapshotsAndDeltasInOneBatch() {
+        EquipmentDTO created = equipment("Microscope", AvailabilityStatus.AVAILABLE);
+        EquipmentDTO renamed = equipment("Microscope X", AvailabilityStatus.AVAILABLE);
+        EquipmentDTO inMaintenance = equipment("Microscope X", AvailabilityStatus.MAINTENANCE);
+
+        writer.onEquipmentChange(EquipmentChangeEvent.created(created));
+        writer.onEquipmentChange(EquipmentChangeEvent.updated(created, renamed));
+        writer.onEquipmentChange(EquipmentChangeEvent.updated(renamed, inMaintenance));
+        writer.onEquipmentChange(EquipmentChangeEvent.deleted(inMaintenance));
+
+        assertEquals(4, writer.flushPending());
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        verify(changeJournalRepository, times(1)).findLatestVersion(JournalEntityType.EQUIPMENT, 5L);
+
+        List<Object[]> written = rows.getValue();
+        assertEquals(4, written.size());
+
+        assertEquals(1L, written.get(0)[2]);
+        assertEquals(true, written.get(0)[5]);
+        assertTrue(((String) written.get(0)[6]).contains("\"inventoryNumber\":\"INV-5\""));
+
+        assertEquals(2L, written.get(1)[2]);
+        assertEquals(false, written.get(1)[5]);
+        assertEquals("{\"name\":\"Microscope X\"}", written.get(1)[6]);
+
+        assertEquals("STATUS_CHANGED", written.get(2)[3]);
+        assertEquals(true, written.get(2)[5]);
+
+        assertEquals("DELETED", written.get(3)[3]);
+        assertEquals(false, written.get(3)[5]);
+        assertEquals("{}", written.get(3)[6]);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_ContinuesFromStoredVersion() {
+        when(changeJournalRepository.findLatestVersion(JournalEntityType.EQUIPMENT, 5L)).thenReturn(7L);
+        EquipmentDTO before = equipment("Microscope", AvailabilityStatus.AVAILABLE);
+        EquipmentDTO after = equipment("Microscope X", AvailabilityStatus.AVAILABLE);
+
+        writer.onEquipmentChange(EquipmentChangeEvent.updated(before, after));
+        writer.flushPending();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(8L, rows.getValue().get(0)[2]);
+        assertEquals(false, rows.getValue().get(0)[5]);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_KeepsFailedBatchForNextFlush() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(new int[]{1})
+                .thenReturn(new int[]{1});
+        EquipmentDTO created = equipment("Microscope", AvailabilityStatus.AVAILABLE);
+
+        writer.onEquipmentChange(EquipmentChangeEvent.created(created));
+        assertEquals(1, writer.flushPending());
+        writer.onEquipmentChange(EquipmentChangeEvent.deleted(created));
+        assertEquals(1, writer.flushPending());
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), rows.capture());
+        assertEquals("CREATED", rows.getAllValues().get(1).get(0)[3]);
+        assertEquals(1L, rows.getAllValues().get(1).get(0)[2]);
+        assertEquals("DELETED", rows.getAllValues().get(2).get(0)[3]);
+        assertEquals(2L, rows.getAllValues().get(2).get(0)[2]);
+        assertEquals(0, writer.getDroppedCount());
+    }
+
+    @Test
+    void testFlush_DropsBatchAfterMaxAttempts() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new IllegalStateException("disk full"));
+
+        writer.onEquipmentChange(EquipmentChangeEvent.created(equipment("Microscope", AvailabilityStatus.AVAILABLE)));
+        writer.flushPending();
+        writer.flushPending();
+
+        assertEquals(1, writer.getDroppedCount());
+        assertEquals(0, writer.flushPending());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void testFlush_NothingQueued() {
+        assertEquals(0, writer.flushPending());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private EquipmentDTO equipment(String name, AvailabilityStatus status) {
+        EquipmentDTO dto = new EquipmentDTO();
+        dto.setId(5L);
+        dto.setName(name);
+        dto.setInventoryNumber("INV-5");
+        dto.setAvailabilityStatus(status);
+        dto.setLaboratoryId(1L);
+        return dto;
+    }
+}
@@ -1,11 +1,21 @@
 package com.UAIC.ISMA.service;
 
+import com.UAIC.ISMA.cache.EquipmentSearchFilter;
+import com.UAIC.ISMA.cache.SearchResultCache;
 import com.UAIC.ISMA.entity.Equipment;
 import com.UAIC.ISMA.entity.Laboratory;
 import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
 import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.InventoryLookupDTO;
+import com.UAIC.ISMA.dto.StatusTransitionDTO;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.exception.ConflictException;
 import com.UAIC.ISMA.exception.EquipmentNotFoundException;
 import com.UAIC.ISMA.exception.InvalidInputException;
+import com.UAIC.ISMA.exception.InventoryNumberNotFoundException;
+import com.UAIC.ISMA.index.EquipmentBitmapIndex;
+import com.UAIC.ISMA.index.EquipmentFilter;
+import com.UAIC.ISMA.index.SuggestionIndex;
 import com.UAIC.ISMA.repository.EquipmentRepository;
 import com.UAIC.ISMA.repository.LaboratoryRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,11 +23,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +44,18 @@ public class EquipmentServiceTest {
     @Mock
     private LaboratoryRepository laboratoryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EquipmentBitmapIndex equipmentBitmapIndex;
+
+    @Mock
+    private SuggestionIndex suggestionIndex;
+
+    @Mock
+    private SearchResultCache<EquipmentSearchFilter, EquipmentDTO> searchCache;
+
     @InjectMocks
     private EquipmentService equipmentService;
 
@@ -120,13 +145,66 @@ public class EquipmentServiceTest {
         assertThrows(NullPointerException.class, () -> equipmentService.updateEquipment(null, 1L));
     }
 
+    @Test
+    void testUpdateEquipment_SendsClientVersionForOptimisticCheck() {
+        equipment.setVersion(4L);
+        equipmentDTO.setVersion(2L);
+        when(equipmentRepository.findById(1L)).thenReturn(Optional.of(equipment));
+        when(laboratoryRepository.findById(10L)).thenReturn(Optional.of(laboratory));
+        when(equipmentRepository.save(any(Equipment.class))).thenReturn(equipment);
+
+        equipmentService.updateEquipment(equipmentDTO, 1L);
+
+        verify(equipmentRepository).save(argThat(saved -> saved.getVersion() == 2L));
+    }
+
+    @Test
+    void testChangeStatus_Success() {
+        equipment.setAvailabilityStatus(AvailabilityStatus.IN_USE);
+        equipment.setVersion(5L);
+        when(equipmentRepository.compareAndSetStatus(1L, AvailabilityStatus.AVAILABLE, AvailabilityStatus.IN_USE)).thenReturn(1);
+        when(equipmentRepository.findById(1L)).thenReturn(Optional.of(equipment));
+
+        EquipmentDTO result = equipmentService.changeStatus(1L,
+                new StatusTransitionDTO(AvailabilityStatus.AVAILABLE, AvailabilityStatus.IN_USE));
+
+        assertEquals(AvailabilityStatus.IN_USE, result.getAvailabilityStatus());
+        assertEquals(5L, result.getVersion());
+        verify(eventPublisher).publishEvent(argThat((EquipmentChangeEvent event) ->
+                event.getBefore().getAvailabilityStatus() == AvailabilityStatus.AVAILABLE));
+    }
+
+    @Test
+    void testChangeStatus_ConflictWhenStatusChanged() {
+        equipment.setAvailabilityStatus(AvailabilityStatus.MAINTENANCE);
+        when(equipmentRepository.compareAndSetStatus(1L, AvailabilityStatus.AVAILABLE, AvailabilityStatus.IN_USE)).thenReturn(0);
+        when(equipmentRepository.findById(1L)).thenReturn(Optional.of(equipment));
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> equipmentService.changeStatus(1L,
+                new StatusTransitionDTO(AvailabilityStatus.AVAILABLE, AvailabilityStatus.IN_USE)));
+
+        assertTrue(exception.getMessage().contains("MAINTENANCE"));
+        verify(eventPublisher, never()).publishEvent(any(EquipmentChangeEvent.class));
+    }
+
+    @Test
+    void testChangeStatus_NotFound() {
+        when(equipmentRepository.compareAndSetStatus(1L, AvailabilityStatus.AVAILABLE, AvailabilityStatus.IN_USE)).thenReturn(0);
+        when(equipmentRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EquipmentNotFoundException.class, () -> equipmentService.changeStatus(1L,
+                new StatusTransitionDTO(AvailabilityStatus.AVAILABLE, AvailabilityStatus.IN_USE)));
+    }
+
     @Test
     void testDeleteEquipment_Success() {
         when(equipmentRepository.findById(1L)).thenReturn(Optional.of(equipment));
 
         equipmentService.deleteEquipment(1L);
 
-        verify(equipmentRepository, times(1)).delete(equipment);
+        verify(equipmentRepository, times(1)).softDeleteById(eq(1L), any(LocalDateTime.class));
+        verify(equipmentRepository, never()).delete(any(Equipment.class));
+        verify(eventPublisher).publishEvent(any(EquipmentChangeEvent.class));
     }
 
     @Test
@@ -260,4 +338,99 @@ public class EquipmentServiceTest {
         assertThrows(InvalidInputException.class, () ->
                 equipmentService.searchEquipment(null, invalidStatus, null, pageable));
     }
+
+    @Test
+    void testSearchEquipmentWithoutName_UsesBitmapIndex() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(equipmentBitmapIndex.isReady()).thenReturn(true);
+        when(equipmentBitmapIndex.supports(any())).thenReturn(true);
+        when(equipmentBitmapIndex.findIds(eq(EquipmentFilter.of(10L, AvailabilityStatus.AVAILABLE)), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(1L), pageable, 1));
+        when(equipmentRepository.findDTOsByIdIn(List.of(1L))).thenReturn(List.of(equipmentDTO));
+
+        Page<EquipmentDTO> result = equipmentService.searchEquipment(null, "AVAILABLE", 10L, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Oscilloscope", result.getContent().get(0).getName());
+        verify(equipmentRepository, never()).searchByNameStatusAndLabId(any(), any(), any(), any());
+    }
+
+    @Test
+    void testSearchEquipmentWithName_SkipsBitmapIndex() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(equipmentBitmapIndex.isReady()).thenReturn(true);
+        when(equipmentBitmapIndex.supports(any())).thenReturn(true);
+        when(equipmentRepository.searchByNameStatusAndLabId(eq("Osc"), isNull(), isNull(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(equipmentDTO)));
+
+        equipmentService.searchEquipment("Osc", null, null, pageable);
+
+        verify(equipmentBitmapIndex, never()).findIds(any(), any());
+    }
+
+    @Test
+    void testSuggest_InvalidPrefix() {
+        assertThrows(InvalidInputException.class, () -> equipmentService.suggest(" ", 5));
+    }
+
+    @Test
+    void testSuggest_InvalidLimit() {
+        assertThrows(InvalidInputException.class, () -> equipmentService.suggest("osc", 50));
+    }
+
+    @Test
+    void testGetEquipmentByInventoryNumber_Success() {
+        equipmentDTO.setInventoryNumber("INV001");
+        when(equipmentRepository.findDTOByInventoryNumber("INV001")).thenReturn(Optional.of(equipmentDTO));
+
+        EquipmentDTO result = equipmentService.getEquipmentByInventoryNumber("INV001");
+
+        assertEquals("Oscilloscope", result.getName());
+    }
+
+    @Test
+    void testGetEquipmentByInventoryNumber_NotFound() {
+        when(equipmentRepository.findDTOByInventoryNumber("INV404")).thenReturn(Optional.empty());
+
+        assertThrows(InventoryNumberNotFoundException.class, () -> equipmentService.getEquipmentByInventoryNumber("INV404"));
+    }
+
+    @Test
+    void testResolveInventoryNumbers_ChunksAndReportsMissing() {
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            numbers.add("INV" + i);
+        }
+        equipmentDTO.setInventoryNumber("INV1200");
+        when(equipmentRepository.findDTOsByInventoryNumberIn(anyList())).thenReturn(List.of());
+        when(equipmentRepository.findDTOsByInventoryNumberIn(argThat(chunk -> chunk != null && chunk.contains("INV1200"))))
+                .thenReturn(List.of(equipmentDTO));
+
+        InventoryLookupDTO result = equipmentService.resolveInventoryNumbers(numbers);
+
+        verify(equipmentRepository, times(2)).findDTOsByInventoryNumberIn(anyList());
+        assertEquals(1, result.getFound().size());
+        assertEquals(1499, result.getNotFound().size());
+    }
+
+    @Test
+    void testResolveInventoryNumbers_EmptyInput() {
+        assertThrows(InvalidInputException.class, () -> equipmentService.resolveInventoryNumbers(List.of()));
+    }
+
+    @Test
+    void testGetEquipmentsByIds_PreservesRequestedOrder() {
+        EquipmentDTO second = new EquipmentDTO();
+        second.setId(2L);
+        second.setName("Spectrometer");
+        when(equipmentRepository.findDetailedDTOsByIdIn(List.of(2L, 1L, 3L))).thenReturn(List.of(equipmentDTO, second));
+
+        List<EquipmentDTO> result = equipmentService.getEquipmentsByIds(List.of(2L, 1L, 3L));
+
+        assertEquals(2, result.size());
+        assertEquals("Spectrometer", result.get(0).getName());
+        assertEquals("Oscilloscope", result.get(1).getName());
+    }
 }
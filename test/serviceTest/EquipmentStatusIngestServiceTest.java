@@ -0,0 +1,159 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.dto.StatusReportDTO;
+import com.UAIC.ISMA.entity.Equipment;
+import com.UAIC.ISMA.entity.Laboratory;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.exception.InvalidInputException;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class EquipmentStatusIngestServiceTest {
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EquipmentStatusIngestService ingestService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ingestService = service(false, null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_WritesOnlyLatestChangedStatus() {
+        Instant t0 = Instant.parse("2025-05-01T10:00:00Z");
+        ingestService.submit(List.of(
+                new StatusReportDTO(1L, AvailabilityStatus.IN_USE, t0),
+                new StatusReportDTO(1L, AvailabilityStatus.AVAILABLE, t0.plusSeconds(1)),
+                new StatusReportDTO(1L, AvailabilityStatus.IN_USE, t0.plusSeconds(2)),
+                new StatusReportDTO(2L, AvailabilityStatus.AVAILABLE, t0)));
+        ingestService.submit(List.of(new StatusReportDTO(1L, AvailabilityStatus.MAINTENANCE, t0.minusSeconds(5))));
+        when(equipmentRepository.findDTOsByIdIn(anyList())).thenReturn(List.of(
+                dto(1L, AvailabilityStatus.AVAILABLE), dto(2L, AvailabilityStatus.AVAILABLE)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        when(equipmentRepository.findAllById(any())).thenReturn(List.of(equipment(1L, AvailabilityStatus.IN_USE, 3L)));
+
+        ingestService.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertEquals(1, rows.getValue().size());
+        assertArrayEquals(new Object[]{"IN_USE", 1L, "AVAILABLE"}, rows.getValue().get(0));
+
+        ArgumentCaptor<EquipmentChangeEvent> event = ArgumentCaptor.forClass(EquipmentChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(EquipmentChangeEvent.Type.STATUS_CHANGED, event.getValue().getType());
+        assertEquals(AvailabilityStatus.AVAILABLE, event.getValue().getBefore().getAvailabilityStatus());
+        assertEquals(2L, event.getValue().getBefore().getVersion());
+
+        assertEquals(5, ingestService.getReceivedCount());
+        assertEquals(1, ingestService.getWrittenCount());
+        assertEquals(0, ingestService.getPendingCount());
+    }
+
+    @Test
+    void testFlush_UnchangedStatusWritesNothing() {
+        ingestService.submit(List.of(new StatusReportDTO(1L, AvailabilityStatus.AVAILABLE, null)));
+        when(equipmentRepository.findDTOsByIdIn(anyList())).thenReturn(List.of(dto(1L, AvailabilityStatus.AVAILABLE)));
+
+        ingestService.flush();
+
+        verifyNoInteractions(jdbcTemplate, eventPublisher, transactionManager);
+    }
+
+    @Test
+    void testFlush_LostCompareAndSetIsRetriedNextWindow() {
+        ingestService.submit(List.of(new StatusReportDTO(1L, AvailabilityStatus.IN_USE, null)));
+        when(equipmentRepository.findDTOsByIdIn(anyList())).thenReturn(List.of(dto(1L, AvailabilityStatus.AVAILABLE)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+
+        ingestService.flush();
+
+        verify(eventPublisher, never()).publishEvent(any(EquipmentChangeEvent.class));
+        assertEquals(1, ingestService.getPendingCount());
+    }
+
+    @Test
+    void testFlush_DatabaseFailureKeepsReports() {
+        ingestService.submit(List.of(new StatusReportDTO(1L, AvailabilityStatus.IN_USE, null)));
+        when(equipmentRepository.findDTOsByIdIn(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        ingestService.flush();
+
+        assertEquals(1, ingestService.getPendingCount());
+    }
+
+    @Test
+    void testSubmit_RejectsIncompleteReport() {
+        assertThrows(InvalidInputException.class,
+                () -> ingestService.submit(List.of(new StatusReportDTO(1L, null, null))));
+        assertThrows(InvalidInputException.class, () -> ingestService.submit(List.of()));
+    }
+
+    @Test
+    void testRecover_ReplaysAppendLogAfterRestart(@TempDir Path dir) {
+        Path logPath = dir.resolve("status-reports.log");
+        EquipmentStatusIngestService first = service(true, logPath);
+        first.recover();
+        first.submit(List.of(
+                new StatusReportDTO(1L, AvailabilityStatus.IN_USE, Instant.parse("2025-05-01T10:00:00Z")),
+                new StatusReportDTO(1L, AvailabilityStatus.MAINTENANCE, Instant.parse("2025-05-01T10:00:01Z")),
+                new StatusReportDTO(2L, AvailabilityStatus.AVAILABLE, Instant.parse("2025-05-01T10:00:00Z"))));
+
+        EquipmentStatusIngestService restarted = service(true, logPath);
+        restarted.recover();
+
+        assertEquals(2, restarted.getPendingCount());
+    }
+
+    private EquipmentStatusIngestService service(boolean logEnabled, Path logPath) {
+        return new EquipmentStatusIngestService(equipmentRepository, jdbcTemplate, eventPublisher, transactionManager,
+                logEnabled, logPath != null ? logPath.toString() : "unused", false);
+    }
+
+    private static EquipmentDTO dto(Long id, AvailabilityStatus status) {
+        return new EquipmentDTO(id, "Sensor rig " + id, null, "INV-" + id, null, status, 10L, null);
+    }
+
+    private static Equipment equipment(Long id, AvailabilityStatus status, Long version) {
+        Laboratory laboratory = new Laboratory();
+        laboratory.setId(10L);
+        Equipment equipment = new Equipment();
+        equipment.setId(id);
+        equipment.setName("Sensor rig " + id);
+        equipment.setInventoryNumber("INV-" + id);
+        equipment.setAvailabilityStatus(status);
+        equipment.setLaboratory(laboratory);
+        equipment.setVersion(version);
+        return equipment;
+    }
+}
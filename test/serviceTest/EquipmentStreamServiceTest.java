@@ -0,0 +1,136 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class EquipmentStreamServiceTest {
+
+    private ObjectMapper objectMapper;
+    private List<Runnable> pendingTasks;
+    private EquipmentStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = spy(new ObjectMapper().registerModule(new JavaTimeModule()));
+        pendingTasks = new ArrayList<>();
+        streamService = new EquipmentStreamService(objectMapper, pendingTasks::add, 2, 16, 60_000L);
+    }
+
+    private EquipmentDTO equipment(Long id, Long labId, AvailabilityStatus status) {
+        EquipmentDTO dto = new EquipmentDTO();
+        dto.setId(id);
+        dto.setName("Oscilloscope");
+        dto.setLaboratoryId(labId);
+        dto.setAvailabilityStatus(status);
+        return dto;
+    }
+
+    @Test
+    void testSubscribe_RegistersSubscribers() {
+        streamService.subscribe(10L, null);
+        streamService.subscribe(null, null);
+
+        assertEquals(2, streamService.getSubscriberCount());
+    }
+
+    @Test
+    void testPublish_SerializesOncePerEvent() throws Exception {
+        streamService.subscribe(10L, null);
+        streamService.subscribe(10L, null);
+        streamService.subscribe(null, null);
+
+        streamService.onEquipmentChange(EquipmentChangeEvent.created(equipment(1L, 10L, AvailabilityStatus.AVAILABLE)));
+
+        verify(objectMapper, times(1)).writeValueAsString(any());
+        assertEquals(3, pendingTasks.size());
+    }
+
+    @Test
+    void testPublish_OnlyMatchingLaboratoryIsNotified() {
+        streamService.subscribe(20L, null);
+
+        streamService.onEquipmentChange(EquipmentChangeEvent.created(equipment(1L, 10L, AvailabilityStatus.AVAILABLE)));
+
+        assertTrue(pendingTasks.isEmpty());
+    }
+
+    @Test
+    void testSlowSubscriber_IsDisconnectedWhenBufferOverflows() {
+        streamService.subscribe(10L, null);
+
+        for (long i = 1; i <= 3; i++) {
+            streamService.onEquipmentChange(EquipmentChangeEvent.created(equipment(i, 10L, AvailabilityStatus.AVAILABLE)));
+        }
+
+        assertEquals(0, streamService.getSubscriberCount());
+    }
+
+    @Test
+    void testUpdatedEvent_DetectsStatusChange() {
+        EquipmentChangeEvent event = EquipmentChangeEvent.updated(
+                equipment(1L, 10L, AvailabilityStatus.AVAILABLE),
+                equipment(1L, 10L, AvailabilityStatus.IN_USE));
+
+        assertEquals(EquipmentChangeEvent.Type.STATUS_CHANGED, event.getType());
+    }
+
+    @Test
+    void testResume_ReplaysMissedEventsThatFitTheBuffer() {
+        String lastEventId = streamService.latestEventId();
+        for (long i = 1; i <= 2; i++) {
+            streamService.onEquipmentChange(EquipmentChangeEvent.created(equipment(i, 10L, AvailabilityStatus.AVAILABLE)));
+        }
+
+        streamService.subscribe(10L, lastEventId);
+
+        assertEquals(1, streamService.getSubscriberCount());
+        assertEquals(1, pendingTasks.size());
+    }
+
+    @Test
+    void testResume_GapLargerThanBufferGetsResetAndIsClosed() {
+        String lastEventId = streamService.latestEventId();
+        for (long i = 1; i <= 3; i++) {
+            streamService.onEquipmentChange(EquipmentChangeEvent.created(equipment(i, 10L, AvailabilityStatus.AVAILABLE)));
+        }
+
+        streamService.subscribe(10L, lastEventId);
+
+        assertEquals(0, streamService.getSubscriberCount());
+        assertEquals(1, pendingTasks.size());
+        pendingTasks.forEach(Runnable::run);
+        streamService.onEquipmentChange(EquipmentChangeEvent.created(equipment(4L, 10L, AvailabilityStatus.AVAILABLE)));
+        assertEquals(1, pendingTasks.size());
+    }
+
+    @Test
+    void testResume_IdFromEarlierProcessGetsReset() {
+        streamService.onEquipmentChange(EquipmentChangeEvent.created(equipment(1L, 10L, AvailabilityStatus.AVAILABLE)));
+
+        streamService.subscribe(10L, "1000-1");
+
+        assertEquals(0, streamService.getSubscriberCount());
+    }
+
+    @Test
+    void testResume_FromLatestIdReplaysNothing() {
+        streamService.onEquipmentChange(EquipmentChangeEvent.created(equipment(1L, 10L, AvailabilityStatus.AVAILABLE)));
+
+        streamService.subscribe(10L, streamService.latestEventId());
+
+        assertEquals(1, streamService.getSubscriberCount());
+        assertTrue(pendingTasks.isEmpty());
+    }
+}
@@ -0,0 +1,167 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.DecommissionJobDTO;
+import com.UAIC.ISMA.dto.EquipmentDTO;
+import com.UAIC.ISMA.entity.Laboratory;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.event.LaboratoryChangeEvent;
+import com.UAIC.ISMA.exception.ConflictException;
+import com.UAIC.ISMA.exception.EntityNotFoundException;
+import com.UAIC.ISMA.exception.LaboratoryNotFoundException;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.UAIC.ISMA.repository.LaboratoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class LabDecommissionServiceTest {
+
+    @Mock
+    private LaboratoryRepository laboratoryRepository;
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Runnable> submitted = new ArrayList<>();
+
+    private LabDecommissionService service;
+
+    private Laboratory laboratory;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Executor executor = submitted::add;
+        service = new LabDecommissionService(laboratoryRepository, equipmentRepository, eventPublisher,
+                transactionManager, executor, 2, 0, 60);
+
+        laboratory = new Laboratory();
+        laboratory.setId(1L);
+        laboratory.setLabName("Lab A");
+        laboratory.setLocation("Building X");
+        laboratory.setDescription("Electronics lab");
+    }
+
+    @Test
+    void testStartDecommission_DeletesInDependencyOrderAndChunks() {
+        when(laboratoryRepository.existsById(1L)).thenReturn(true);
+        when(laboratoryRepository.findById(1L)).thenReturn(Optional.of(laboratory));
+        when(equipmentRepository.countAccessRequestsByLaboratoryId(1L)).thenReturn(3L);
+        when(equipmentRepository.countByLaboratoryId(1L)).thenReturn(2L);
+        when(laboratoryRepository.countLabDocumentsByLaboratoryId(1L)).thenReturn(0L);
+        when(equipmentRepository.findAccessRequestIdsByLaboratoryId(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(10L, 11L), List.of(12L), List.of());
+        when(equipmentRepository.deleteAccessRequestsByIdIn(anyCollection()))
+                .thenAnswer(inv -> inv.<List<Long>>getArgument(0).size());
+        when(equipmentRepository.findIdsByLaboratoryId(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(5L, 6L), List.of());
+        when(equipmentRepository.findDetailedDTOsByIdIn(List.of(5L, 6L))).thenReturn(List.of(equipment(5L), equipment(6L)));
+        when(equipmentRepository.deleteByIdIn(anyCollection())).thenReturn(2);
+        when(laboratoryRepository.findLabDocumentIdsByLaboratoryId(eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+        DecommissionJobDTO started = service.startDecommission(1L);
+        assertEquals(DecommissionJobDTO.Status.PENDING, started.getStatus());
+        assertEquals(1, submitted.size());
+
+        submitted.get(0).run();
+
+        DecommissionJobDTO job = service.getJob(started.getJobId());
+        assertEquals(DecommissionJobDTO.Status.COMPLETED, job.getStatus());
+        assertEquals(DecommissionJobDTO.Phase.DONE, job.getPhase());
+        assertEquals(3, job.getDeletedAccessRequests());
+        assertEquals(2, job.getDeletedEquipment());
+        assertEquals(0, job.getDeletedLabDocuments());
+        assertNotNull(job.getFinishedAt());
+
+        InOrder order = inOrder(equipmentRepository, laboratoryRepository);
+        order.verify(equipmentRepository).deleteAccessRequestsByIdIn(List.of(10L, 11L));
+        order.verify(equipmentRepository).deleteAccessRequestsByIdIn(List.of(12L));
+        order.verify(equipmentRepository).deleteByIdIn(List.of(5L, 6L));
+        order.verify(laboratoryRepository).deleteLaboratoryById(1L);
+        verify(laboratoryRepository, never()).deleteLabDocumentsByIdIn(anyCollection());
+        verify(laboratoryRepository, never()).delete(any(Laboratory.class));
+        verify(eventPublisher).publishEvent(any(LaboratoryChangeEvent.class));
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        List<Long> deletedEquipment = events.getAllValues().stream()
+                .filter(EquipmentChangeEvent.class::isInstance)
+                .map(EquipmentChangeEvent.class::cast)
+                .filter(event -> event.getType() == EquipmentChangeEvent.Type.DELETED)
+                .map(EquipmentChangeEvent::getEquipmentId)
+                .toList();
+        assertEquals(List.of(5L, 6L), deletedEquipment);
+    }
+
+    @Test
+    void testStartDecommission_NotFound() {
+        when(laboratoryRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(LaboratoryNotFoundException.class, () -> service.startDecommission(99L));
+        assertTrue(submitted.isEmpty());
+    }
+
+    @Test
+    void testStartDecommission_AlreadyRunning() {
+        when(laboratoryRepository.existsById(1L)).thenReturn(true);
+
+        service.startDecommission(1L);
+
+        assertThrows(ConflictException.class, () -> service.startDecommission(1L));
+        assertEquals(1, submitted.size());
+    }
+
+    @Test
+    void testStartDecommission_FailureIsReported() {
+        when(laboratoryRepository.existsById(1L)).thenReturn(true);
+        when(laboratoryRepository.findById(1L)).thenReturn(Optional.of(laboratory));
+        when(equipmentRepository.findAccessRequestIdsByLaboratoryId(eq(1L), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("lock timeout"));
+
+        DecommissionJobDTO started = service.startDecommission(1L);
+        submitted.get(0).run();
+
+        DecommissionJobDTO job = service.getJob(started.getJobId());
+        assertEquals(DecommissionJobDTO.Status.FAILED, job.getStatus());
+        assertEquals(DecommissionJobDTO.Phase.ACCESS_REQUESTS, job.getPhase());
+        assertEquals("lock timeout", job.getError());
+        verify(laboratoryRepository, never()).deleteLaboratoryById(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+
+        service.startDecommission(1L);
+        assertEquals(2, submitted.size());
+    }
+
+    @Test
+    void testGetJob_NotFound() {
+        assertThrows(EntityNotFoundException.class, () -> service.getJob("missing"));
+    }
+
+    private static EquipmentDTO equipment(Long id) {
+        EquipmentDTO dto = new EquipmentDTO();
+        dto.setId(id);
+        dto.setLaboratoryId(1L);
+        return dto;
+    }
+}
@@ -1,23 +1,47 @@
 package com.UAIC.ISMA.service;
 
-
+import com.UAIC.ISMA.cache.LaboratorySearchFilter;
+import com.UAIC.ISMA.cache.SearchResultCache;
+import com.UAIC.ISMA.entity.Equipment;
 import com.UAIC.ISMA.entity.Laboratory;
+import com.UAIC.ISMA.dto.EquipmentSummaryDTO;
+import com.UAIC.ISMA.dto.LaboratoryChildIdDTO;
 import com.UAIC.ISMA.dto.LaboratoryDTO;
+import com.UAIC.ISMA.dto.LaboratoryDetailsDTO;
+import com.UAIC.ISMA.dto.LaboratoryInclude;
+import com.UAIC.ISMA.entity.enums.AvailabilityStatus;
+import com.UAIC.ISMA.event.EquipmentChangeEvent;
+import com.UAIC.ISMA.event.LaboratoryChangeEvent;
 import com.UAIC.ISMA.exception.InvalidInputException;
 import com.UAIC.ISMA.exception.LaboratoryNotFoundException;
 import com.UAIC.ISMA.repository.LaboratoryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import jakarta.servlet.http.Cookie;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +51,12 @@ public class LaboratoryServiceTest {
     @Mock
     private LaboratoryRepository laboratoryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SearchResultCache<LaboratorySearchFilter, LaboratoryDTO> searchCache;
+
     @InjectMocks
     private LaboratoryService laboratoryService;
 
@@ -50,6 +80,85 @@ public class LaboratoryServiceTest {
         laboratoryDTO.setDescription("Electronics lab");
     }
 
+    @Test
+    void testGetLaboratoryById_ConcurrentCallsShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(laboratoryRepository.findById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(laboratory);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<LaboratoryDTO> leader = executor.submit(() -> laboratoryService.getLaboratoryById(1L));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            AtomicReference<Thread> follower = new AtomicReference<>();
+            Future<LaboratoryDTO> joined = executor.submit(() -> {
+                follower.set(Thread.currentThread());
+                return laboratoryService.getLaboratoryById(1L);
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((follower.get() == null || follower.get().getState() != Thread.State.WAITING)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertSame(leader.get(5, TimeUnit.SECONDS), joined.get(5, TimeUnit.SECONDS));
+            verify(laboratoryRepository, times(1)).findById(1L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGetLaboratoryById_CallerWithFreshWriteDoesNotJoinLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(laboratoryRepository.findById(1L)).thenAnswer(invocation -> {
+            if (loading.getCount() > 0) {
+                loading.countDown();
+                release.await();
+            }
+            return Optional.of(laboratory);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<LaboratoryDTO> leader = executor.submit(() -> laboratoryService.getLaboratoryById(1L));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<LaboratoryDTO> writer = executor.submit(() -> {
+                MockHttpServletRequest request = new MockHttpServletRequest();
+                request.setCookies(new Cookie("ISMA-Last-Write", String.valueOf(System.currentTimeMillis())));
+                RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+                try {
+                    return laboratoryService.getLaboratoryById(1L);
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            });
+
+            assertNotNull(writer.get(5, TimeUnit.SECONDS));
+            verify(laboratoryRepository, times(2)).findById(1L);
+            release.countDown();
+            assertNotSame(leader.get(5, TimeUnit.SECONDS), writer.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGetLaboratoryById_SequentialCallsLoadEachTime() {
+        when(laboratoryRepository.findById(1L)).thenReturn(Optional.of(laboratory));
+
+        laboratoryService.getLaboratoryById(1L);
+        laboratoryService.getLaboratoryById(1L);
+
+        verify(laboratoryRepository, times(2)).findById(1L);
+    }
+
     @Test
     void testGetLaboratoryById_Success() {
         when(laboratoryRepository.findById(1L)).thenReturn(Optional.of(laboratory));
@@ -105,6 +214,17 @@ public class LaboratoryServiceTest {
         assertThrows(LaboratoryNotFoundException.class, () -> laboratoryService.updateLaboratory(1L, laboratoryDTO));
     }
 
+    @Test
+    void testUpdateLaboratory_StaleVersion() {
+        laboratory.setVersion(3L);
+        when(laboratoryRepository.findById(1L)).thenReturn(Optional.of(laboratory));
+        LaboratoryDTO stale = new LaboratoryDTO(1L, "Lab B", "Updated", "Building Y");
+        stale.setVersion(2L);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> laboratoryService.updateLaboratory(1L, stale));
+        verify(laboratoryRepository, never()).save(any(Laboratory.class));
+    }
+
     @Test
     void testUpdateLaboratory_NullDTO() {
         when(laboratoryRepository.findById(1L)).thenReturn(Optional.of(laboratory));
@@ -118,7 +238,31 @@ public class LaboratoryServiceTest {
 
         laboratoryService.deleteLaboratory(1L);
 
-        verify(laboratoryRepository, times(1)).delete(laboratory);
+        verify(laboratoryRepository, times(1)).softDeleteById(eq(1L), any(LocalDateTime.class));
+        verify(laboratoryRepository, times(1)).softDeleteEquipmentByLaboratoryId(eq(1L), any(LocalDateTime.class));
+        verify(laboratoryRepository, never()).delete(any(Laboratory.class));
+    }
+
+    @Test
+    void testDeleteLaboratory_PublishesDeletedEquipment() {
+        Equipment active = new Equipment();
+        active.setId(5L);
+        active.setLaboratory(laboratory);
+        Equipment alreadyDeleted = new Equipment();
+        alreadyDeleted.setId(6L);
+        alreadyDeleted.setLaboratory(laboratory);
+        alreadyDeleted.setDeletedAt(LocalDateTime.now().minusDays(1));
+        laboratory.setEquipments(List.of(active, alreadyDeleted));
+        when(laboratoryRepository.findById(1L)).thenReturn(Optional.of(laboratory));
+
+        laboratoryService.deleteLaboratory(1L);
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        EquipmentChangeEvent removed = (EquipmentChangeEvent) events.getAllValues().get(0);
+        assertEquals(5L, removed.getEquipmentId());
+        assertEquals(EquipmentChangeEvent.Type.DELETED, removed.getType());
+        assertInstanceOf(LaboratoryChangeEvent.class, events.getAllValues().get(1));
     }
 
     @Test
@@ -241,4 +385,62 @@ public class LaboratoryServiceTest {
                 laboratoryService.searchLaboratories(invalidName, null, pageable));
     }
 
+    @Test
+    void testGetLaboratoriesByIds_PreservesRequestedOrder() {
+        when(laboratoryRepository.findDTOsByIdIn(List.of(2L, 1L, 3L))).thenReturn(List.of(
+                new LaboratoryDTO(1L, "Lab A", "Electronics lab", "Building X"),
+                new LaboratoryDTO(2L, "Lab B", null, "Building Y")));
+        when(laboratoryRepository.findEquipmentIdsByLaboratoryIdIn(List.of(2L, 1L))).thenReturn(List.of(
+                new LaboratoryChildIdDTO(1L, 10L), new LaboratoryChildIdDTO(1L, 11L), new LaboratoryChildIdDTO(2L, 20L)));
+        when(laboratoryRepository.findLabDocumentIdsByLaboratoryIdIn(List.of(2L, 1L))).thenReturn(List.of());
+
+        List<LaboratoryDTO> result = laboratoryService.getLaboratoriesByIds(List.of(2L, 1L, 2L, 3L));
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(List.of(20L), result.get(0).getEquipmentIds());
+        assertEquals(List.of(10L, 11L), result.get(1).getEquipmentIds());
+        assertTrue(result.get(1).getLabDocumentIds().isEmpty());
+    }
+
+    @Test
+    void testGetLaboratoriesByIds_EmptyInput() {
+        assertThrows(InvalidInputException.class, () -> laboratoryService.getLaboratoriesByIds(List.of()));
+    }
+
+    @Test
+    void testGetLaboratoryDetailsPage_EmbedsEquipmentWithFixedQueryCount() {
+        Pageable pageable = PageRequest.of(0, 2);
+        when(laboratoryRepository.findAllDTOs(pageable)).thenReturn(new PageImpl<>(List.of(
+                new LaboratoryDTO(1L, "Lab A", null, "Building X"),
+                new LaboratoryDTO(2L, "Lab B", null, "Building Y")), pageable, 5));
+        when(laboratoryRepository.findEquipmentSummariesByLaboratoryIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new EquipmentSummaryDTO(10L, 1L, "Oscilloscope", "INV10", AvailabilityStatus.AVAILABLE),
+                new EquipmentSummaryDTO(20L, 2L, "Spectrometer", "INV20", AvailabilityStatus.IN_USE)));
+        when(laboratoryRepository.findLabDocumentIdsByLaboratoryIdIn(List.of(1L, 2L))).thenReturn(List.of());
+
+        Page<LaboratoryDetailsDTO> result = laboratoryService.getLaboratoryDetailsPage(
+                EnumSet.of(LaboratoryInclude.EQUIPMENT), pageable);
+
+        assertEquals(5, result.getTotalElements());
+        assertEquals("Oscilloscope", result.getContent().get(0).getEquipment().get(0).getName());
+        assertEquals(List.of(20L), result.getContent().get(1).getEquipmentIds());
+        assertNull(result.getContent().get(0).getDocuments());
+        verify(laboratoryRepository, times(1)).findEquipmentSummariesByLaboratoryIdIn(any());
+        verify(laboratoryRepository, never()).findEquipmentIdsByLaboratoryIdIn(any());
+    }
+
+    @Test
+    void testGetLaboratoryDetails_NotFound() {
+        when(laboratoryRepository.findDTOsByIdIn(List.of(1L))).thenReturn(List.of());
+
+        assertThrows(LaboratoryNotFoundException.class, () ->
+                laboratoryService.getLaboratoryDetails(1L, EnumSet.allOf(LaboratoryInclude.class)));
+    }
+
+    @Test
+    void testParseInclude_RejectsUnknownValues() {
+        assertEquals(EnumSet.allOf(LaboratoryInclude.class), LaboratoryInclude.parse("equipment, documents"));
+        assertThrows(InvalidInputException.class, () -> LaboratoryInclude.parse("equipment,users"));
+    }
 }
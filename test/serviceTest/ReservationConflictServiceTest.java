@@ -0,0 +1,101 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.dto.AccessWindowDTO;
+import com.UAIC.ISMA.dto.ConflictCheckDTO;
+import com.UAIC.ISMA.entity.enums.RequestStatus;
+import com.UAIC.ISMA.event.AccessWindowChangeEvent;
+import com.UAIC.ISMA.exception.ConflictException;
+import com.UAIC.ISMA.exception.EquipmentNotFoundException;
+import com.UAIC.ISMA.exception.InvalidInputException;
+import com.UAIC.ISMA.index.AccessWindowIndex;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ReservationConflictServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 10, 0, 0);
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    private AccessWindowIndex accessWindowIndex;
+    private ReservationConflictService reservationConflictService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        accessWindowIndex = new AccessWindowIndex(equipmentRepository, 600_000L, 100);
+        reservationConflictService = new ReservationConflictService(equipmentRepository, accessWindowIndex);
+
+        when(equipmentRepository.existsById(1L)).thenReturn(true);
+        when(equipmentRepository.findAccessWindows(eq(1L), any())).thenReturn(new ArrayList<>(List.of(
+                new AccessWindowDTO(100L, 1L, DAY.withHour(8), DAY.withHour(10), RequestStatus.APPROVED),
+                new AccessWindowDTO(101L, 1L, DAY.withHour(11), DAY.withHour(12), RequestStatus.PENDING)
+        )));
+    }
+
+    @Test
+    void testCheckConflicts_FreeWindow() {
+        ConflictCheckDTO result = reservationConflictService.checkConflicts(1L, DAY.withHour(10), DAY.withHour(11));
+
+        assertTrue(result.isAvailable());
+        assertTrue(result.getConflicts().isEmpty());
+    }
+
+    @Test
+    void testCheckConflicts_OverlapsApprovedAndPending() {
+        ConflictCheckDTO result = reservationConflictService.checkConflicts(1L, DAY.withHour(9), DAY.withHour(12));
+
+        assertFalse(result.isAvailable());
+        assertEquals(2, result.getConflicts().size());
+        assertEquals(100L, result.getConflicts().get(0).getAccessRequestId());
+    }
+
+    @Test
+    void testCheckConflicts_LoadsEquipmentOnce() {
+        reservationConflictService.checkConflicts(1L, DAY.withHour(9), DAY.withHour(12));
+        reservationConflictService.checkConflicts(1L, DAY.withHour(13), DAY.withHour(14));
+
+        verify(equipmentRepository, times(1)).findAccessWindows(eq(1L), any());
+    }
+
+    @Test
+    void testChangeEvent_UpdatesLoadedTree() {
+        reservationConflictService.checkConflicts(1L, DAY.withHour(9), DAY.withHour(12));
+
+        accessWindowIndex.onAccessWindowChange(AccessWindowChangeEvent.upserted(
+                new AccessWindowDTO(101L, 1L, DAY.withHour(11), DAY.withHour(12), RequestStatus.APPROVED)));
+
+        assertThrows(ConflictException.class, () ->
+                reservationConflictService.assertNoApprovedConflict(1L, DAY.withHour(11), DAY.withHour(13), 102L));
+        assertDoesNotThrow(() ->
+                reservationConflictService.assertNoApprovedConflict(1L, DAY.withHour(11), DAY.withHour(13), 101L));
+    }
+
+    @Test
+    void testCheckConflicts_EquipmentNotFound() {
+        when(equipmentRepository.existsById(2L)).thenReturn(false);
+
+        assertThrows(EquipmentNotFoundException.class, () ->
+                reservationConflictService.checkConflicts(2L, DAY.withHour(9), DAY.withHour(12)));
+    }
+
+    @Test
+    void testCheckConflicts_InvalidWindow() {
+        assertThrows(InvalidInputException.class, () ->
+                reservationConflictService.checkConflicts(1L, DAY.withHour(12), DAY.withHour(9)));
+    }
+}
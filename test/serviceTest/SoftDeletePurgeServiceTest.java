@@ -0,0 +1,79 @@
+package com.UAIC.ISMA.service;
+
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import com.UAIC.ISMA.repository.LaboratoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class SoftDeletePurgeServiceTest {
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    @Mock
+    private LaboratoryRepository laboratoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SoftDeletePurgeService purgeService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        purgeService = new SoftDeletePurgeService(equipmentRepository, laboratoryRepository, transactionManager,
+                30, 2, 10, 0);
+    }
+
+    @Test
+    void testPurge_RemovesEquipmentBeforeLaboratories() {
+        when(equipmentRepository.findPurgeableIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(laboratoryRepository.findPurgeableIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(7L), List.of());
+
+        purgeService.purge();
+
+        InOrder order = inOrder(equipmentRepository, laboratoryRepository);
+        order.verify(equipmentRepository).deleteAccessRequestsByEquipmentIdIn(List.of(1L, 2L));
+        order.verify(equipmentRepository).deleteByIdIn(List.of(1L, 2L));
+        order.verify(equipmentRepository).deleteAccessRequestsByEquipmentIdIn(List.of(3L));
+        order.verify(equipmentRepository).deleteByIdIn(List.of(3L));
+        order.verify(laboratoryRepository).deleteLabDocumentsByLaboratoryIdIn(List.of(7L));
+        order.verify(laboratoryRepository).deleteByIdIn(List.of(7L));
+    }
+
+    @Test
+    void testPurge_StopsAtBatchLimit() {
+        purgeService = new SoftDeletePurgeService(equipmentRepository, laboratoryRepository, transactionManager,
+                30, 2, 1, 0);
+        when(equipmentRepository.findPurgeableIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+
+        purgeService.purge();
+
+        verify(equipmentRepository, times(1)).deleteByIdIn(anyCollection());
+        verify(laboratoryRepository, never()).findPurgeableIds(any(LocalDateTime.class), any(Pageable.class));
+    }
+
+    @Test
+    void testPurge_NothingToPurge() {
+        when(equipmentRepository.findPurgeableIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+        when(laboratoryRepository.findPurgeableIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+
+        purgeService.purge();
+
+        verify(equipmentRepository, never()).deleteByIdIn(anyCollection());
+        verify(laboratoryRepository, never()).deleteByIdIn(anyCollection());
+    }
+}
@@ -0,0 +1,102 @@
+package com.UAIC.ISMA.sql;
+
+import com.UAIC.ISMA.aop.RequestTags;
+import com.UAIC.ISMA.dto.SlowQueryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SlowQueryRecorderTest {
+
+    private static final String SEARCH_SQL = "select e.id from equipment e where e.name like ? and e.laboratory_id = ?";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ObjectProvider<BindValueRedactor> redactorProvider;
+
+    private SlowQueryRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redactorProvider.getIfAvailable(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        recorder = new SlowQueryRecorder(jdbcTemplate, Runnable::run, redactorProvider, 100, 500, 2);
+    }
+
+    @Test
+    void testFastQuery_IsIgnored() {
+        recorder.onQuery(execution(SEARCH_SQL, 99, "micro%", 3L));
+
+        assertTrue(recorder.getRecent(10).isEmpty());
+    }
+
+    @Test
+    void testSlowQuery_CapturedWithRedactedParameters() {
+        String longName = "x".repeat(100);
+
+        recorder.onQuery(execution(SEARCH_SQL, 150, longName, 3L));
+
+        List<SlowQueryDTO> recent = recorder.getRecent(10);
+        assertEquals(1, recent.size());
+        SlowQueryDTO entry = recent.get(0);
+        assertEquals(SEARCH_SQL, entry.getSql());
+        assertEquals(RequestTags.NONE, entry.getEndpoint());
+        assertEquals(List.of("x".repeat(BindValueRedactor.MAX_LENGTH) + "...", "3"), entry.getParameters());
+        assertEquals(150.0, entry.getElapsedMillis(), 0.5);
+        assertNull(entry.getPlan());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testVerySlowSelect_ExplainedWithOriginalParameters() {
+        when(jdbcTemplate.query(eq(SlowQueryRecorder.EXPLAIN_PREFIX + SEARCH_SQL), any(PreparedStatementSetter.class),
+                any(ResultSetExtractor.class))).thenReturn("Seq Scan on equipment\n");
+
+        recorder.onQuery(execution(SEARCH_SQL, 600, "micro%", 3L));
+
+        assertEquals("Seq Scan on equipment\n", recorder.getRecent(1).get(0).getPlan());
+    }
+
+    @Test
+    void testVerySlowUpdate_NotExplained() {
+        recorder.onQuery(execution("update equipment set status = ? where id = ?", 600, "IN_USE", 1L));
+
+        assertEquals(1, recorder.getRecent(10).size());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testRingBuffer_KeepsMostRecentFirst() {
+        recorder.onQuery(execution("select 1", 200));
+        recorder.onQuery(execution("select 2", 200));
+        recorder.onQuery(execution("select 3", 200));
+
+        List<SlowQueryDTO> recent = recorder.getRecent(10);
+        assertEquals(2, recent.size());
+        assertEquals("select 3", recent.get(0).getSql());
+        assertEquals("select 2", recent.get(1).getSql());
+    }
+
+    private static QueryExecution execution(String sql, long elapsedMs, Object... parameters) {
+        QueryExecution execution = new QueryExecution(sql, Arrays.asList(parameters));
+        execution.addElapsed(TimeUnit.MILLISECONDS.toNanos(elapsedMs));
+        return execution;
+    }
+}
@@ -0,0 +1,146 @@
+package com.UAIC.ISMA.sql;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.annotation.Annotation;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlRequestStatsTest {
+
+    private final List<QueryExecution> executions = new ArrayList<>();
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sqlstats;DB_CLOSE_DELAY=-1");
+        QueryListener recorder = executions::add;
+        List<QueryListener> listeners = List.of(new SqlStatsListener(), recorder);
+        dataSource = InstrumentedDataSource.wrap(h2, () -> listeners);
+
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS item");
+            statement.execute("CREATE TABLE item (id BIGINT PRIMARY KEY, lab_id BIGINT)");
+            statement.execute("INSERT INTO item VALUES (1, 10), (2, 10), (3, 20)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlRequestStats.end();
+    }
+
+    @Test
+    void testQuery_ReportsSqlParametersAndRowsOnClose() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT id FROM item WHERE lab_id = ?")) {
+            statement.setLong(1, 10L);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    assertTrue(executions.isEmpty());
+                }
+            }
+        }
+
+        assertEquals(1, executions.size());
+        QueryExecution execution = executions.get(0);
+        assertEquals("SELECT id FROM item WHERE lab_id = ?", execution.getSql());
+        assertEquals(List.of(10L), execution.getParameters());
+        assertEquals(2, execution.getRows());
+        assertFalse(execution.isFailed());
+    }
+
+    @Test
+    void testUpdate_ReportsUpdateCountOnce() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("UPDATE item SET lab_id = ? WHERE lab_id = ?")) {
+            statement.setLong(1, 30L);
+            statement.setLong(2, 10L);
+            assertEquals(2, statement.executeUpdate());
+        }
+
+        assertEquals(1, executions.size());
+        assertEquals(2, executions.get(0).getRows());
+    }
+
+    @Test
+    void testRequestStats_AccumulateStatementsAndFlagRepeatedSql() throws Exception {
+        SqlRequestStats.begin("GET /laboratories/{id}/equipment", budget(2));
+
+        try (Connection connection = dataSource.getConnection()) {
+            for (long id = 1; id <= 3; id++) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT lab_id FROM item WHERE id = ?")) {
+                    statement.setLong(1, id);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        resultSet.next();
+                    }
+                }
+            }
+        }
+
+        SqlRequestStats stats = SqlRequestStats.current();
+        assertEquals(3, stats.getStatements());
+        assertEquals(3, stats.getRows());
+        assertEquals(3, stats.getMostRepeatedCount());
+        assertTrue(stats.toHeaderValue().startsWith("statements=3;rows=3;entities=0;db-ms="));
+
+        List<String> violations = stats.violations(3);
+        assertEquals(2, violations.size());
+        assertEquals("statements 3 > 2", violations.get(0));
+        assertTrue(violations.get(1).startsWith("N+1 suspect: executed 3 times"));
+        assertEquals(1, stats.violations(10).size());
+    }
+
+    @Test
+    void testStatementsOutsideRequest_AreNotAttributed() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM item")) {
+            resultSet.next();
+        }
+
+        assertNull(SqlRequestStats.current());
+        assertEquals(1, executions.size());
+    }
+
+    @Test
+    void testUnwrap_ReachesTargetDataSource() throws Exception {
+        assertTrue(dataSource.isWrapperFor(JdbcDataSource.class));
+        assertNotNull(dataSource.unwrap(JdbcDataSource.class));
+    }
+
+    private static SqlBudget budget(int statements) {
+        return new SqlBudget() {
+            @Override
+            public int statements() {
+                return statements;
+            }
+
+            @Override
+            public long rows() {
+                return UNLIMITED;
+            }
+
+            @Override
+            public long entities() {
+                return UNLIMITED;
+            }
+
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return SqlBudget.class;
+            }
+        };
+    }
+}
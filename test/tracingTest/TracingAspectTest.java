@@ -0,0 +1,101 @@
+package com.UAIC.ISMA.tracing;
+
+import com.UAIC.ISMA.exception.EquipmentNotFoundException;
+import com.UAIC.ISMA.repository.EquipmentRepository;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TracingAspectTest {
+
+    private Tracer tracer;
+    private Span span;
+    private TracingAspect aspect;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        tracer = mock(Tracer.class);
+        span = mock(Span.class);
+        when(tracer.nextSpan()).thenReturn(span);
+        when(tracer.withSpan(span)).thenReturn(mock(Tracer.SpanInScope.class));
+        when(span.name(anyString())).thenReturn(span);
+        when(span.tag(anyString(), anyString())).thenReturn(span);
+        when(span.tag(anyString(), anyLong())).thenReturn(span);
+        when(span.start()).thenReturn(span);
+        when(span.error(any())).thenReturn(span);
+
+        ObjectProvider<Tracer> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any(Supplier.class))).thenReturn(tracer);
+        aspect = new TracingAspect(provider);
+    }
+
+    @Test
+    void testRepositorySpan_CarriesStatementsAndSlowestQuery() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("findById", new String[]{"id"}, new Object[]{5L});
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            DbCallStats.current().record("select e.id from equipment e where e.id = ?", 1, 3_000_000L);
+            return Optional.of("equipment");
+        });
+
+        assertEquals(Optional.of("equipment"), aspect.traceRepository(joinPoint));
+
+        verify(span).name("EquipmentRepository.findById");
+        verify(span).tag("isma.layer", "repository");
+        verify(span).tag("isma.entity_id", 5L);
+        verify(span).tag("isma.rows", 1L);
+        verify(span).tag("db.statements", 1L);
+        verify(span).tag("db.time_ms", "3.00");
+        verify(span).tag("db.statement", "select e.id from equipment e where e.id = ?");
+        verify(span).end();
+        assertNull(DbCallStats.current());
+    }
+
+    @Test
+    void testServiceSpan_RecordsErrorAndEnds() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("getEquipmentById", new String[]{"id"}, new Object[]{9L});
+        EquipmentNotFoundException error = new EquipmentNotFoundException(9L);
+        when(joinPoint.proceed()).thenThrow(error);
+
+        assertThrows(EquipmentNotFoundException.class, () -> aspect.traceService(joinPoint));
+
+        verify(span).error(error);
+        verify(span).end();
+        verify(span, never()).tag(eq("db.statements"), anyLong());
+    }
+
+    @Test
+    void testUnsampledSpan_SkipsAttributes() throws Throwable {
+        when(span.isNoop()).thenReturn(true);
+        ProceedingJoinPoint joinPoint = joinPoint("findAll", new String[]{}, new Object[]{});
+        when(joinPoint.proceed()).thenReturn(List.of());
+
+        aspect.traceRepository(joinPoint);
+
+        verify(span, never()).start();
+        verify(joinPoint, never()).getSignature();
+    }
+
+    private static ProceedingJoinPoint joinPoint(String method, String[] parameterNames, Object[] args) {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(signature.getName()).thenReturn(method);
+        when(signature.getParameterNames()).thenReturn(parameterNames);
+        when(signature.getDeclaringType()).thenReturn(EquipmentRepository.class);
+        return joinPoint;
+    }
+}